@@ -0,0 +1,52 @@
+package org.project.benchmarks;
+
+import org.project.App;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application without a web server on a private in-memory H2 database.
+ * <p>
+ * The application properties stay in effect (batching, cache sizes, match weights), only the
+ * parts that need Postgres are switched off: Liquibase (the schema is created by Hibernate),
+ * the LISTEN/NOTIFY cache invalidation, the archiver, whose tables only Liquibase creates, the
+ * advisory lock of the deadline scheduler and the outbox relay. The reference tables, with every
+ * value the benchmarks use, and the outbox are created by {@code bench-schema.sql} before
+ * Hibernate runs.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=bench",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.open-in-view=false",
+                "--spring.liquibase.enabled=false",
+                "--spring.sql.init.mode=always",
+                "--spring.sql.init.schema-locations=classpath:bench-schema.sql",
+                "--app.cache.invalidation.enabled=false",
+                "--app.archive.enabled=false",
+                "--app.lifecycle.enabled=false",
+                "--app.outbox.enabled=false",
+                "--app.match.refresh-interval=PT1H",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(overrides));
+        return new SpringApplicationBuilder(App.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,88 @@
+package org.project.benchmarks;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.dto.ProjectRequestDto;
+import org.project.exception.ProjectAlreadyExistsException;
+import org.project.exception.ProjectNotFoundException;
+import org.project.handler.GlobalExceptionHandler;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error paths of {@link GlobalExceptionHandler}. The not found and conflict benchmarks include
+ * creating the exception, as every failing request does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private static final String NAME = "projectRequestDto";
+
+    // Counting the handled exceptions is part of every not found and conflict response
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(
+            new StaticListableBeanFactory(Map.of("meterRegistry", new SimpleMeterRegistry()))
+                    .getBeanProvider(MeterRegistry.class));
+
+    private MethodArgumentNotValidException validationException;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        ProjectRequestDto request = new ProjectRequestDto("", "B", null, "d", null);
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(request, NAME);
+        bindingResult.addError(fieldError("name", "Size", "Length of the name should be between 2 and 255 symbols"));
+        bindingResult.addError(fieldError("name", "NotBlank", "Name must not be empty"));
+        bindingResult.addError(fieldError("field", "Size", "Length of the field should be between 2 and 255 symbols"));
+        bindingResult.addError(fieldError("experience", "NotBlank", "Experience must not be empty"));
+        bindingResult.addError(fieldError("description", "Size", "Length of the description should be between 2 and 1000 symbols"));
+        bindingResult.addError(fieldError("deadline", "NotNull", "Deadline cannot be null"));
+        MethodParameter parameter = new MethodParameter(
+                ExceptionHandlerBenchmark.class.getDeclaredMethod("create", ProjectRequestDto.class), 0);
+        validationException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> notFound() {
+        return handler.handleNotFoundException(new ProjectNotFoundException("Project not found with id: 42"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> alreadyExists() {
+        return handler.handlerAlreadyExistsException(
+                new ProjectAlreadyExistsException("Project already exists with name: Platform"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> validation() {
+        return handler.handleValidationExceptions(validationException);
+    }
+
+    private static FieldError fieldError(String field, String code, String message) {
+        return new FieldError(NAME, field, null, false, new String[]{code}, null, message);
+    }
+
+    @SuppressWarnings("unused")
+    private void create(ProjectRequestDto request) {
+    }
+}
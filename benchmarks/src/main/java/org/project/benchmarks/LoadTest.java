@@ -0,0 +1,119 @@
+package org.project.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running instance: every connection sends its next request as
+ * soon as the previous one completed. Prints throughput and the latency percentiles of the
+ * measurement period, the warmup is not recorded.
+ * <p>
+ * Arguments: {@code url [connections=5000] [duration=60s] [warmup=15s]}.
+ */
+public class LoadTest {
+
+    private static final int MAX_SAMPLES = 5_000_000;
+
+    private final HttpClient client;
+
+    private final HttpRequest request;
+
+    private final long[] latencies = new long[MAX_SAMPLES];
+
+    private final AtomicInteger samples = new AtomicInteger();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong unavailable = new AtomicLong();
+
+    private volatile boolean recording;
+
+    private volatile boolean stopped;
+
+    private LoadTest(URI uri) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        this.request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadTest url [connections=5000] [duration=60s] [warmup=15s]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        Duration duration = Duration.parse("PT" + (args.length > 2 ? args[2] : "60s"));
+        Duration warmup = Duration.parse("PT" + (args.length > 3 ? args[3] : "15s"));
+        new LoadTest(uri).run(connections, warmup, duration);
+    }
+
+    private void run(int connections, Duration warmup, Duration duration) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            next(done);
+        }
+        Thread.sleep(warmup.toMillis());
+        recording = true;
+        long started = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        recording = false;
+        long elapsed = System.nanoTime() - started;
+        stopped = true;
+        done.await();
+        report(connections, elapsed);
+    }
+
+    private void next(CountDownLatch done) {
+        if (stopped) {
+            done.countDown();
+            return;
+        }
+        long started = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - started;
+            if (recording) {
+                if (error != null || response.statusCode() >= 400) {
+                    failures.incrementAndGet();
+                    if (response != null && response.statusCode() == 503) {
+                        unavailable.incrementAndGet();
+                    }
+                } else {
+                    int index = samples.getAndIncrement();
+                    if (index < MAX_SAMPLES) {
+                        latencies[index] = latency;
+                    }
+                }
+            }
+            next(done);
+        });
+    }
+
+    private void report(int connections, long elapsedNanos) {
+        int count = Math.min(samples.get(), MAX_SAMPLES);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("connections=%d requests=%d failures=%d (503: %d) throughput=%.0f req/s%n",
+                connections, samples.get(), failures.get(), unavailable.get(), samples.get() / seconds);
+        System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), count == 0 ? 0 : sorted[count - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,71 @@
+package org.project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.dto.ProjectMapper;
+import org.project.dto.ProjectMapperImpl;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.VacancyMapper;
+import org.project.dto.VacancyMapperImpl;
+import org.project.dto.VacancyResponseDto;
+import org.project.entity.Project;
+import org.project.entity.Vacancy;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final ProjectMapper projectMapper = new ProjectMapperImpl();
+
+    private final VacancyMapper vacancyMapper = new VacancyMapperImpl();
+
+    private Project project;
+
+    private Vacancy vacancy;
+
+    @Setup
+    public void setUp() {
+        project = Project.builder()
+                .id(1L)
+                .name("Platform")
+                .field("Backend")
+                .experience("3 years")
+                .description("Internal developer platform")
+                .deadline(LocalDate.of(2030, 1, 1))
+                .build();
+        vacancy = Vacancy.builder()
+                .id(101L)
+                .name("Java Developer")
+                .field("Backend")
+                .experience("3 years")
+                .country("Germany")
+                .description("Spring Boot, PostgreSQL")
+                .project(project)
+                .build();
+    }
+
+    @Benchmark
+    public ProjectResponseDto projectToDto() {
+        return projectMapper.toDto(project);
+    }
+
+    @Benchmark
+    public VacancyResponseDto vacancyToDto() {
+        return vacancyMapper.toDto(vacancy);
+    }
+}
@@ -0,0 +1,104 @@
+package org.project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.index.VacancyIndex;
+import org.project.match.MatchEngine;
+import org.project.match.MatchHits;
+import org.project.match.MatchQuery;
+import org.project.match.MatchRow;
+import org.project.repository.VacancyJpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking over synthetic snapshots of up to a million vacancies, without a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MatchEngineBenchmark {
+
+    private static final String[] FIELDS = {"Backend", "Frontend", "Data", "QA", "DevOps"};
+
+    private static final String[] COUNTRIES = {"Germany", "Poland", "Spain", "France", "Italy", "Ukraine"};
+
+    private static final String[] SKILLS = {"java", "spring", "kotlin", "react", "sql", "python", "aws", "docker", "kafka", "go"};
+
+    @Param({"100000", "1000000"})
+    private int vacancies;
+
+    private MatchEngine engine;
+
+    private MatchQuery query;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        List<MatchRow> rows = new ArrayList<>(vacancies);
+        for (long id = 1; id <= vacancies; id++) {
+            rows.add(new MatchRow(id,
+                    FIELDS[random.nextInt(FIELDS.length)],
+                    COUNTRIES[random.nextInt(COUNTRIES.length)],
+                    random.nextInt(8) + " years",
+                    "Developer " + SKILLS[random.nextInt(SKILLS.length)],
+                    SKILLS[random.nextInt(SKILLS.length)] + " " + SKILLS[random.nextInt(SKILLS.length)],
+                    today.plusDays(random.nextInt(90) - 10)));
+        }
+        VacancyJpaRepository repository = (VacancyJpaRepository) Proxy.newProxyInstance(
+                VacancyJpaRepository.class.getClassLoader(), new Class<?>[]{VacancyJpaRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("streamMatchRows")) {
+                        return rows.stream();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+        engine = new MatchEngine(repository, new VacancyIndex(repository, transactionManager), transactionManager,
+                3.0f, 2.0f, 1.5f, 4.0f, 1.0f, 30, Duration.ofHours(1));
+        query = new MatchQuery("Backend", "Germany", "3 years", List.of("java", "spring", "kafka"), today);
+        // Builds the snapshot
+        engine.match(query, 20);
+    }
+
+    @Benchmark
+    public MatchHits top20() {
+        return engine.match(query, 20);
+    }
+}
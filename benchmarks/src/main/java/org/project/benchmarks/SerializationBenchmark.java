@@ -0,0 +1,56 @@
+package org.project.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.dto.ProjectResponseDto;
+import org.project.entity.ProjectStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of project lists with the same ObjectMapper defaults Spring Boot uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<ProjectResponseDto> projects;
+
+    @Setup
+    public void setUp() {
+        projects = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            projects.add(new ProjectResponseDto(id, "Project " + id, "Backend", "3 years",
+                    "Description of project " + id, LocalDate.of(2030, 1, 1).plusDays(id), ProjectStatus.OPEN));
+        }
+    }
+
+    @Benchmark
+    public byte[] projectList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(projects);
+    }
+}
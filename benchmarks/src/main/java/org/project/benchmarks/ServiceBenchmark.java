@@ -0,0 +1,161 @@
+package org.project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.cache.ReadThroughCache;
+import org.project.dto.MatchRequestDto;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyLookupResponseDto;
+import org.project.dto.VacancyMatchDto;
+import org.project.dto.VacancyRequestDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
+import org.project.entity.Project;
+import org.project.repository.ProjectJpaRepository;
+import org.project.service.MatchService;
+import org.project.service.ProjectService;
+import org.project.service.VacancyService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service read paths through the whole Spring stack (transactions, caches, JPA) on H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int PROJECTS = 1_000;
+
+    private static final int VACANCIES_PER_PROJECT = 10;
+
+    private static final String[] FIELDS = {"Backend", "Frontend", "Data", "QA", "DevOps"};
+
+    private static final String[] COUNTRIES = {"Germany", "Poland", "Spain", "France"};
+
+    private ConfigurableApplicationContext context;
+
+    private ProjectService projectService;
+
+    private VacancyService vacancyService;
+
+    private MatchService matchService;
+
+    private ReadThroughCache<Long, Versioned<ProjectResponseDto>> projectCache;
+
+    private ReadThroughCache<Long, Versioned<List<VacancyResponseDto>>> projectVacanciesCache;
+
+    private long[] projectIds;
+
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkContext.start();
+        projectService = context.getBean(ProjectService.class);
+        ProjectJpaRepository projectRepository = context.getBean(ProjectJpaRepository.class);
+        vacancyService = context.getBean(VacancyService.class);
+        matchService = context.getBean(MatchService.class);
+        projectCache = context.getBean("projectCache", ReadThroughCache.class);
+        projectVacanciesCache = context.getBean("projectVacanciesCache", ReadThroughCache.class);
+
+        projectIds = new long[PROJECTS];
+        for (int i = 0; i < PROJECTS; i++) {
+            // Saved through JPA, the create endpoint uses ON CONFLICT which H2 does not support
+            Project project = projectRepository.save(Project.builder()
+                    .name("Project " + i)
+                    .field(FIELDS[i % FIELDS.length])
+                    .experience("3 years")
+                    .description("Description of project " + i)
+                    .deadline(LocalDate.now().plusDays(i % 60))
+                    .build());
+            List<VacancyRequestDto> vacancies = new ArrayList<>(VACANCIES_PER_PROJECT);
+            for (int j = 0; j < VACANCIES_PER_PROJECT; j++) {
+                vacancies.add(new VacancyRequestDto("Developer " + j, FIELDS[(i + j) % FIELDS.length], (j % 5) + " years",
+                        COUNTRIES[j % COUNTRIES.length], "Java Spring Boot Kafka PostgreSQL"));
+            }
+            vacancyService.addVacanciesToProject(vacancies, project.getId());
+            projectIds[i] = project.getId();
+        }
+        // Every benchmark runs in a fresh fork, the cached ones must not measure the first misses
+        for (long id : projectIds) {
+            projectService.getById(id, false);
+            vacancyService.getByProjectId(id);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private long nextProjectId() {
+        return projectIds[next++ % projectIds.length];
+    }
+
+    @Benchmark
+    public Versioned<ProjectResponseDto> getProjectCached() {
+        return projectService.getById(nextProjectId(), false);
+    }
+
+    @Benchmark
+    public Versioned<ProjectResponseDto> getProjectUncached() {
+        long id = nextProjectId();
+        projectCache.invalidate(id);
+        return projectService.getById(id, false);
+    }
+
+    // What a conditional GET costs when the project is not cached
+    @Benchmark
+    public long getProjectVersionUncached() {
+        long id = nextProjectId();
+        projectCache.invalidate(id);
+        return projectService.getVersion(id, false);
+    }
+
+    @Benchmark
+    public List<ProjectResponseDto> getProjectPage() {
+        return projectService.getAll(0L, 21, false);
+    }
+
+    @Benchmark
+    public Versioned<List<VacancyResponseDto>> getVacanciesCached() {
+        return vacancyService.getByProjectId(nextProjectId());
+    }
+
+    @Benchmark
+    public Versioned<List<VacancyResponseDto>> getVacanciesUncached() {
+        long id = nextProjectId();
+        projectVacanciesCache.invalidate(id);
+        return vacancyService.getByProjectId(id);
+    }
+
+    @Benchmark
+    public VacancyLookupResponseDto lookupVacancies() {
+        return vacancyService.lookup(new VacancyAttributeFilter(List.of("Backend"), List.of("Germany", "Poland"), null), 100);
+    }
+
+    @Benchmark
+    public List<VacancyMatchDto> matchVacancies() {
+        return matchService.match(new MatchRequestDto("Backend", "3 years", "Germany", List.of("spring boot", "kafka"), 10));
+    }
+}
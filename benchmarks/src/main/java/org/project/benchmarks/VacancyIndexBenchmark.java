@@ -0,0 +1,80 @@
+package org.project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyLookupResponseDto;
+import org.project.entity.Project;
+import org.project.entity.Vacancy;
+import org.project.index.VacancyIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attribute lookups against an index of a million vacancies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class VacancyIndexBenchmark {
+
+    private static final int VACANCIES = 1_000_000;
+
+    private static final String[] FIELDS = {"Backend", "Frontend", "Data", "QA", "DevOps", "Mobile", "Security", "Design"};
+
+    private static final String[] COUNTRIES = {"Germany", "Poland", "Spain", "France", "Italy", "Ukraine", "Portugal",
+            "Netherlands", "Austria", "Czechia"};
+
+    private VacancyIndex index;
+
+    private final VacancyAttributeFilter selective = new VacancyAttributeFilter(
+            List.of("Security"), List.of("Austria"), List.of("7 years"));
+
+    private final VacancyAttributeFilter orWithin = new VacancyAttributeFilter(
+            List.of("Backend", "Data"), List.of("Germany", "Poland", "Spain"), null);
+
+    @Setup
+    public void setUp() {
+        // Not started, so nothing is loaded from the (absent) database
+        index = new VacancyIndex(null, null);
+        Random random = new Random(42);
+        List<Vacancy> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= VACANCIES; id++) {
+            batch.add(Vacancy.builder()
+                    .id(id)
+                    .field(FIELDS[random.nextInt(FIELDS.length)])
+                    .country(COUNTRIES[random.nextInt(COUNTRIES.length)])
+                    .experience(random.nextInt(10) + " years")
+                    .project(Project.builder().id(id / 10).build())
+                    .build());
+            if (batch.size() == 10_000) {
+                index.put(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @Benchmark
+    public VacancyLookupResponseDto selectiveAnd() {
+        return index.query(selective, 100);
+    }
+
+    @Benchmark
+    public VacancyLookupResponseDto orWithinAttributes() {
+        return index.query(orWithin, 100);
+    }
+}
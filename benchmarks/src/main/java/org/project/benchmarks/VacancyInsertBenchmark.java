@@ -0,0 +1,90 @@
+package org.project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.project.dto.VacancyRequestDto;
+import org.project.entity.Project;
+import org.project.entity.Vacancy;
+import org.project.repository.ProjectJpaRepository;
+import org.project.service.VacancyService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting 10 000 vacancies in one batch, with JDBC batching effectively off (batch size 1)
+ * and with the configured batch size. Against Postgres the gap is larger, H2 has no network
+ * round trips to save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VacancyInsertBenchmark {
+
+    private static final int VACANCIES = 10_000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private ProjectJpaRepository projectRepository;
+
+    private VacancyService vacancyService;
+
+    private List<VacancyRequestDto> requests;
+
+    private long projectId;
+
+    private int projects;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        projectRepository = context.getBean(ProjectJpaRepository.class);
+        vacancyService = context.getBean(VacancyService.class);
+        requests = new ArrayList<>(VACANCIES);
+        for (int i = 0; i < VACANCIES; i++) {
+            requests.add(new VacancyRequestDto("Developer " + i, "Backend", "3 years", "Germany", "Java Spring Boot"));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createProject() {
+        // Saved through JPA, the create endpoint uses ON CONFLICT which H2 does not support
+        projectId = projectRepository.save(Project.builder()
+                .name("Project " + projects++)
+                .field("Backend")
+                .experience("3 years")
+                .description("Bulk insert target")
+                .deadline(LocalDate.now().plusDays(30))
+                .build()).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Vacancy> insert10k() {
+        return vacancyService.addVacanciesToProject(requests, projectId);
+    }
+}
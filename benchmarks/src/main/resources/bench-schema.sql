@@ -0,0 +1,14 @@
+-- Tables only Liquibase creates. The reference tables are filled with every value the benchmarks
+-- write, since H2 cannot run the ON CONFLICT insert ReferenceDictionary adds new values with
+CREATE TABLE ref_fields (id INTEGER AUTO_INCREMENT PRIMARY KEY, value VARCHAR(255) NOT NULL UNIQUE);
+CREATE TABLE ref_countries (id INTEGER AUTO_INCREMENT PRIMARY KEY, value VARCHAR(255) NOT NULL UNIQUE);
+CREATE TABLE ref_experiences (id INTEGER AUTO_INCREMENT PRIMARY KEY, value VARCHAR(255) NOT NULL UNIQUE);
+
+INSERT INTO ref_fields (value) VALUES ('Backend'), ('Frontend'), ('Data'), ('QA'), ('DevOps');
+INSERT INTO ref_countries (value) VALUES ('Germany'), ('Poland'), ('Spain'), ('France');
+INSERT INTO ref_experiences (value) VALUES ('0 years'), ('1 years'), ('2 years'), ('3 years'), ('4 years');
+
+-- Writes append their change events here, nothing relays them
+CREATE TABLE outbox (id BIGINT AUTO_INCREMENT PRIMARY KEY, subject VARCHAR(16) NOT NULL, subject_id BIGINT NOT NULL,
+    project_id BIGINT NOT NULL, type VARCHAR(16) NOT NULL,
+    recorded_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL);
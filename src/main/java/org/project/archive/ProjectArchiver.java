@@ -0,0 +1,113 @@
+package org.project.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.project.cache.CacheInvalidator;
+import org.project.index.VacancyIndex;
+import org.project.outbox.ChangeOutbox;
+import org.project.outbox.ChangeType;
+import org.project.repository.ProjectArchiveRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves projects whose deadline passed more than {@code app.archive.after-deadline-days} ago,
+ * together with their vacancies, from the live tables into the archive tables.
+ * <p>
+ * Every run moves batches of {@code app.archive.batch-size} projects, each in a transaction of
+ * its own, so locks are held briefly and a run never holds a long transaction. A run stops after
+ * {@code app.archive.max-batches}, the rest is moved by the next runs. Moved projects are
+ * evicted from the caches and removed from the {@link VacancyIndex} on every node, and show up
+ * as archived in the change feed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class ProjectArchiver {
+
+    private final ProjectArchiveRepository archiveRepository;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    private final VacancyIndex vacancyIndex;
+
+    private final ChangeOutbox changeOutbox;
+
+    private final TransactionTemplate transaction;
+
+    private final Clock clock;
+
+    private final Counter archived;
+
+    private final int afterDeadlineDays;
+
+    private final int batchSize;
+
+    private final int maxBatches;
+
+    public ProjectArchiver(ProjectArchiveRepository archiveRepository,
+                           CacheInvalidator cacheInvalidator,
+                           VacancyIndex vacancyIndex,
+                           ChangeOutbox changeOutbox,
+                           PlatformTransactionManager transactionManager,
+                           Clock clock,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.archive.after-deadline-days:30}") int afterDeadlineDays,
+                           @Value("${app.archive.batch-size:500}") int batchSize,
+                           @Value("${app.archive.max-batches:20}") int maxBatches) {
+        this.archiveRepository = archiveRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.vacancyIndex = vacancyIndex;
+        this.changeOutbox = changeOutbox;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.archived = Counter.builder("app.archive.projects")
+                .description("Projects moved into the archive tables")
+                .register(meterRegistry);
+        this.afterDeadlineDays = afterDeadlineDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    /**
+     * Runs up to {@code app.archive.max-batches} batches and returns the number of moved projects.
+     */
+    @Scheduled(initialDelayString = "${app.archive.initial-delay:PT1M}",
+            fixedDelayString = "${app.archive.interval:PT10M}")
+    public int archiveExpired() {
+        LocalDate cutoff = LocalDate.now(clock).minusDays(afterDeadlineDays);
+        long started = System.currentTimeMillis();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = transaction.execute(status -> moveBatch(cutoff));
+            total += ids.size();
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            archived.increment(total);
+            log.info("Archived {} projects with a deadline before {} in {} ms", total, cutoff,
+                    System.currentTimeMillis() - started);
+        }
+        return total;
+    }
+
+    private List<Long> moveBatch(LocalDate cutoff) {
+        List<Long> ids = archiveRepository.archiveExpired(cutoff, batchSize);
+        changeOutbox.projects(ChangeType.ARCHIVED, ids);
+        // The vacancies key drops the cached project as well, here and on the other nodes
+        ids.forEach(cacheInvalidator::evictProjectVacancies);
+        vacancyIndex.removeProjects(ids);
+        return ids;
+    }
+}
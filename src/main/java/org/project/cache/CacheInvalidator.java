@@ -0,0 +1,114 @@
+package org.project.cache;
+
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Single place where writes invalidate the lookup caches.
+ * <p>
+ * Entries are invalidated right away, so readers inside the writing transaction window do not
+ * cache what they load, and once more after commit, to drop anything that other transactions
+ * loaded from the not yet committed state in between. All keys touched by one transaction are
+ * sent to the other nodes in one message, see {@link PgInvalidationPublisher}.
+ */
+@Component
+public class CacheInvalidator {
+
+    static final String PROJECT_KEY = "p:";
+
+    static final String PROJECT_VACANCIES_KEY = "v:";
+
+    private final ReadThroughCache<Long, Versioned<ProjectResponseDto>> projectCache;
+
+    private final ReadThroughCache<Long, Versioned<List<VacancyResponseDto>>> projectVacanciesCache;
+
+    private final Optional<PgInvalidationPublisher> publisher;
+
+    public CacheInvalidator(ReadThroughCache<Long, Versioned<ProjectResponseDto>> projectCache,
+                            ReadThroughCache<Long, Versioned<List<VacancyResponseDto>>> projectVacanciesCache,
+                            Optional<PgInvalidationPublisher> publisher) {
+        this.projectCache = projectCache;
+        this.projectVacanciesCache = projectVacanciesCache;
+        this.publisher = publisher;
+    }
+
+    public void evictProject(Long projectId) {
+        evict(PROJECT_KEY + projectId);
+    }
+
+    public void evictProjectVacancies(Long projectId) {
+        evict(PROJECT_VACANCIES_KEY + projectId);
+    }
+
+    /**
+     * Applies keys received from another node, or produced by this one, to the local caches only.
+     */
+    public void evictLocally(Collection<String> keys) {
+        for (String key : keys) {
+            if (key.startsWith(PROJECT_KEY)) {
+                projectCache.invalidate(Long.valueOf(key.substring(PROJECT_KEY.length())));
+            } else if (key.startsWith(PROJECT_VACANCIES_KEY)) {
+                Long projectId = Long.valueOf(key.substring(PROJECT_VACANCIES_KEY.length()));
+                projectVacanciesCache.invalidate(projectId);
+                // Vacancy changes bump the project version, so the cached project carries a stale one
+                projectCache.invalidate(projectId);
+            }
+        }
+    }
+
+    public void evictAllLocally() {
+        projectCache.invalidateAll();
+        projectVacanciesCache.invalidateAll();
+    }
+
+    private void evict(String key) {
+        evictLocally(List.of(key));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publisher.ifPresent(p -> p.publish(List.of(key)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> keys = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (keys == null) {
+            keys = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionKeys(keys));
+        }
+        keys.add(key);
+    }
+
+    private final class TransactionKeys implements TransactionSynchronization {
+
+        private final Set<String> keys;
+
+        private TransactionKeys(Set<String> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // NOTIFY is transactional: Postgres delivers it on commit and drops it on rollback
+            publisher.ifPresent(p -> p.publish(keys));
+        }
+
+        @Override
+        public void afterCommit() {
+            evictLocally(keys);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidator.this);
+        }
+    }
+}
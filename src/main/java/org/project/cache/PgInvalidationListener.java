@@ -0,0 +1,202 @@
+package org.project.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Receives cache invalidations published by other nodes.
+ * <p>
+ * Uses its own JDBC connection outside of the pool, since it is blocked in LISTEN for the
+ * whole lifetime of the application. Notifications arriving within the coalesce window are
+ * merged and applied at once, then announced as a {@link RemoteInvalidationEvent}. Messages sent
+ * while the connection was down are lost, so after every (re)connect the local caches are dropped
+ * completely. The first connection is opened while the application starts, so that nothing
+ * committed after the in-memory structures were loaded can be missed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+public class PgInvalidationListener implements SmartLifecycle {
+
+    // Before the vacancy index loads
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 3072;
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private static final long KEEPALIVE_INTERVAL_MS = 10_000;
+
+    private static final long MIN_BACKOFF_MS = 100;
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private static final int MAX_PENDING_KEYS = 10_000;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    private final PgInvalidationPublisher publisher;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Duration coalesceWindow;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public PgInvalidationListener(DataSourceProperties dataSourceProperties,
+                                  CacheInvalidator cacheInvalidator,
+                                  PgInvalidationPublisher publisher,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.cache.invalidation.coalesce-window:20ms}") Duration coalesceWindow) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.cacheInvalidator = cacheInvalidator;
+        this.publisher = publisher;
+        this.eventPublisher = eventPublisher;
+        this.coalesceWindow = coalesceWindow;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Connection initial = null;
+        try {
+            initial = connect();
+        } catch (SQLException e) {
+            log.warn("Cache invalidation listener could not connect, retrying in background", e);
+        }
+        Connection connection = initial;
+        thread = new Thread(() -> run(connection), "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void run(Connection initial) {
+        long backoff = MIN_BACKOFF_MS;
+        Connection next = initial;
+        while (running) {
+            try (Connection connection = next != null ? next : connect()) {
+                next = null;
+                backoff = MIN_BACKOFF_MS;
+                listen(connection);
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, reconnecting in {} ms", backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + publisher.getChannel());
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        // Whatever was published while we were not listening is lost
+        cacheInvalidator.evictAllLocally();
+        announce(RemoteInvalidationEvent.ALL);
+        return connection;
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        Set<String> pending = new HashSet<>();
+        long lastActivity = System.currentTimeMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+            if (notifications == null || notifications.length == 0) {
+                if (System.currentTimeMillis() - lastActivity > KEEPALIVE_INTERVAL_MS) {
+                    if (!connection.isValid(2)) {
+                        throw new SQLException("Listener connection is no longer valid");
+                    }
+                    lastActivity = System.currentTimeMillis();
+                }
+                continue;
+            }
+            collect(notifications, pending);
+            long deadline = System.currentTimeMillis() + coalesceWindow.toMillis();
+            long remaining;
+            while (pending.size() < MAX_PENDING_KEYS && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                collect(pgConnection.getNotifications((int) remaining), pending);
+            }
+            cacheInvalidator.evictLocally(pending);
+            announce(new RemoteInvalidationEvent(Set.copyOf(pending), false));
+            pending.clear();
+            lastActivity = System.currentTimeMillis();
+        }
+    }
+
+    private void announce(RemoteInvalidationEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            // A failing subscriber must not stop the listener, the caches are already consistent
+            log.error("Failed to handle remote cache invalidation", e);
+        }
+    }
+
+    private void collect(PGNotification[] notifications, Set<String> pending) {
+        if (notifications == null) {
+            return;
+        }
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            int separator = payload.indexOf('|');
+            // Our own writes were already applied locally on commit
+            if (separator < 0 || payload.substring(0, separator).equals(publisher.getNodeId())) {
+                continue;
+            }
+            for (String key : payload.substring(separator + 1).split(",")) {
+                if (!key.isEmpty()) {
+                    pending.add(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.project.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Sends invalidated cache keys to the other nodes with {@code pg_notify}.
+ * <p>
+ * Payload format: {@code <nodeId>|<key>,<key>,...}. Postgres limits a payload to 8000 bytes,
+ * larger key sets are split into several notifications.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+public class PgInvalidationPublisher {
+
+    static final int MAX_PAYLOAD_LENGTH = 7900;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String channel;
+
+    public PgInvalidationPublisher(JdbcTemplate jdbcTemplate,
+                                   @Value("${app.cache.invalidation.channel:cache_invalidation}") String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = channel;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void publish(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        StringBuilder payload = new StringBuilder(nodeId).append('|');
+        int header = payload.length();
+        for (String key : keys) {
+            if (payload.length() + key.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                notify(payload);
+                payload.setLength(header);
+            }
+            if (payload.length() > header) {
+                payload.append(',');
+            }
+            payload.append(key);
+        }
+        notify(payload);
+    }
+
+    private void notify(StringBuilder payload) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload.toString());
+    }
+}
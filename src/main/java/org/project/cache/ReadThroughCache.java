@@ -0,0 +1,141 @@
+package org.project.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache on top of Caffeine.
+ * <p>
+ * A value loaded while an invalidation was in progress is never left in the cache:
+ * the loader result is only kept if its key was not invalidated between the start of the
+ * load and the put. This way a slow reader cannot put back data that a concurrent
+ * write has just invalidated, while writes to other keys leave the load alone.
+ * <p>
+ * Concurrent misses of the same key share one load. The first caller runs the loader on its
+ * own thread, the others wait up to the load timeout for its result or its exception, so a
+ * burst of requests for a key that just expired sends one query instead of one per request.
+ * An invalidation detaches the load in flight, callers arriving after it start a new one
+ * rather than joining a load that may have read the old state.
+ */
+public class ReadThroughCache<K, V> {
+
+    public static final Duration DEFAULT_LOAD_TIMEOUT = Duration.ofSeconds(3);
+
+    private final Cache<K, V> cache;
+
+    private final long loadTimeoutNanos;
+
+    private final ConcurrentMap<K, Load<V>> loads = new ConcurrentHashMap<>();
+
+    private final LongAdder coalescedLoads = new LongAdder();
+
+    public ReadThroughCache(Cache<K, V> cache) {
+        this(cache, DEFAULT_LOAD_TIMEOUT);
+    }
+
+    public ReadThroughCache(Cache<K, V> cache, Duration loadTimeout) {
+        this.cache = cache;
+        this.loadTimeoutNanos = loadTimeout.toNanos();
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Load<V> load = new Load<>();
+        Load<V> inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            return await(key, inFlight);
+        }
+        try {
+            V value = load(key, loader, load);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    public void invalidate(K key) {
+        Load<V> load = loads.remove(key);
+        if (load != null) {
+            load.invalidated = true;
+        }
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        // A load registered after this point reads after the write that invalidates
+        loads.values().forEach(load -> load.invalidated = true);
+        loads.clear();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Misses that waited for the load of another caller instead of running their own.
+     */
+    public long coalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    public Cache<K, V> nativeCache() {
+        return cache;
+    }
+
+    private V load(K key, Function<K, V> loader, Load<V> load) {
+        // The previous load may have finished between the miss and taking over the key
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        V value = loader.apply(key);
+        if (value != null) {
+            cache.put(key, value);
+            // Checked after the put, an invalidation marks the load before it clears the cache
+            if (load.invalidated) {
+                cache.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    private V await(K key, Load<V> load) {
+        try {
+            return load.get(loadTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Timed out waiting for the concurrent load of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted waiting for the concurrent load of " + key);
+        }
+    }
+
+    private static final class Load<V> extends CompletableFuture<V> {
+
+        // Set once the key is invalidated while the load runs, its result is then not kept
+        volatile boolean invalidated;
+    }
+}
@@ -0,0 +1,24 @@
+package org.project.cache;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Published after invalidations received from another node were applied to the local caches,
+ * so that other in-memory structures can refresh as well. {@code all} means that notifications
+ * may have been missed and everything has to be reloaded.
+ */
+public record RemoteInvalidationEvent(Set<String> keys, boolean all) {
+
+    public static final RemoteInvalidationEvent ALL = new RemoteInvalidationEvent(Set.of(), true);
+
+    public Set<Long> projectVacanciesIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (key.startsWith(CacheInvalidator.PROJECT_VACANCIES_KEY)) {
+                ids.add(Long.valueOf(key.substring(CacheInvalidator.PROJECT_VACANCIES_KEY.length())));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,60 @@
+package org.project.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.project.cache.ReadThroughCache;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String PROJECTS = "projects";
+
+    public static final String PROJECT_VACANCIES = "projectVacancies";
+
+    @Bean
+    public ReadThroughCache<Long, Versioned<ProjectResponseDto>> projectCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.projects.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.projects.expire-after-write:10m}") Duration expireAfterWrite,
+            @Value("${app.cache.load-timeout:3s}") Duration loadTimeout) {
+        return buildCache(meterRegistry, PROJECTS, maximumSize, expireAfterWrite, loadTimeout);
+    }
+
+    @Bean
+    public ReadThroughCache<Long, Versioned<List<VacancyResponseDto>>> projectVacanciesCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.project-vacancies.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.project-vacancies.expire-after-write:10m}") Duration expireAfterWrite,
+            @Value("${app.cache.load-timeout:3s}") Duration loadTimeout) {
+        return buildCache(meterRegistry, PROJECT_VACANCIES, maximumSize, expireAfterWrite, loadTimeout);
+    }
+
+    private <K, V> ReadThroughCache<K, V> buildCache(MeterRegistry meterRegistry, String name, long maximumSize,
+                                                     Duration expireAfterWrite, Duration loadTimeout) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size under the cache name
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        ReadThroughCache<K, V> readThroughCache = new ReadThroughCache<>(cache, loadTimeout);
+        FunctionCounter.builder("cache.loads.coalesced", readThroughCache, ReadThroughCache::coalescedLoads)
+                .description("Misses that waited for a concurrent load of the same key")
+                .tag("cache", name)
+                .register(meterRegistry);
+        return readThroughCache;
+    }
+}
@@ -0,0 +1,82 @@
+package org.project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.project.jdbc.ConcurrencyLimitedDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.concurrency-limit.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    // Hikari's default, its own getter returns -1 until the pool has started
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Puts a {@link ConcurrencyLimitedDataSource} in front of the pool. The limit defaults to
+     * the pool size, so callers wait on the semaphore and not inside the pool.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = environment.getProperty("app.datasource.concurrency-limit.max-concurrent",
+                        Integer.class, poolSize(dataSource));
+                int maxWaiting = environment.getProperty("app.datasource.concurrency-limit.max-waiting",
+                        Integer.class, 200);
+                Duration acquireTimeout = environment.getProperty("app.datasource.concurrency-limit.acquire-timeout",
+                        Duration.class, Duration.ofSeconds(2));
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, maxWaiting, acquireTimeout);
+            }
+        };
+    }
+
+    // The pool may already be wrapped, e.g. by the SQL statement proxy
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                return poolSize > 0 ? poolSize : DEFAULT_POOL_SIZE;
+            }
+        } catch (SQLException e) {
+            // Not unwrappable, fall back to the default
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("app.datasource.limit.in-use", limited, ConcurrencyLimitedDataSource::inUse)
+                        .description("Connections handed out through the concurrency limit")
+                        .register(registry);
+                Gauge.builder("app.datasource.limit.waiting", limited, ConcurrencyLimitedDataSource::waiting)
+                        .description("Callers waiting for a connection permit")
+                        .register(registry);
+                Gauge.builder("app.datasource.limit.max", limited, ConcurrencyLimitedDataSource::maxConcurrent)
+                        .register(registry);
+                // Callers wait here rather than in the pool, so this is the pool wait time they see
+                Timer wait = Timer.builder("app.datasource.limit.wait")
+                        .description("Time callers waited for a connection permit")
+                        .register(registry);
+                limited.setWaitRecorder(nanos -> wait.record(nanos, TimeUnit.NANOSECONDS));
+            }
+        };
+    }
+}
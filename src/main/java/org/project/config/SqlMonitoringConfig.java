@@ -0,0 +1,67 @@
+package org.project.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.project.diagnostics.SlowQueryEndpoint;
+import org.project.jdbc.SlowQueryLog;
+import org.project.jdbc.SqlStatementListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.sql.monitoring.enabled", havingValue = "true")
+public class SqlMonitoringConfig {
+
+    @Bean
+    public static SlowQueryLog slowQueryLog(Environment environment) {
+        return new SlowQueryLog(
+                environment.getProperty("app.sql.slow-query.threshold", Duration.class, Duration.ofMillis(100)),
+                environment.getProperty("app.sql.slow-query.capacity", Integer.class, 100));
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlStatementProxyPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new SqlStatementProxyPostProcessor(slowQueryLog);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    /**
+     * Routes every statement through {@link SqlStatementListener}. Ordered, so it wraps the pool
+     * itself and the {@link org.project.jdbc.ConcurrencyLimitedDataSource} stays outermost.
+     */
+    private static final class SqlStatementProxyPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+        private SqlStatementProxyPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                return bean;
+            }
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .listener(new SqlStatementListener(slowQueryLog.getObject()))
+                    .build();
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.project.diagnostics.SqlBudgetInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "app.sql.monitoring.enabled", havingValue = "true")
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    public WebConfig(ObjectProvider<MeterRegistry> meterRegistry,
+                     @Value("${app.sql.budget.default-statements:10}") int defaultStatements,
+                     @Value("${app.sql.budget.fail:false}") boolean fail) {
+        // Web slice tests have no registry
+        this.sqlBudgetInterceptor = new SqlBudgetInterceptor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                defaultStatements, fail);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlBudgetInterceptor);
+    }
+}
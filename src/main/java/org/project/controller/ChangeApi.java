@@ -0,0 +1,47 @@
+package org.project.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.project.dto.ChangeEventDto;
+import org.project.dto.ChangeFeedResponseDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
+
+@Tag(name = "Changes", description = "Ordered feed of project and vacancy changes")
+public interface ChangeApi {
+
+    @Operation(summary = "Get changes after a position",
+            description = "Returns the changes after since in the order they were committed. If there are none yet, "
+                    + "the request waits up to wait seconds for the next ones. Continue with next as since")
+    @Parameter(name = "since", description = "Position of the last change seen, omit to start from now",
+            schema = @Schema(type = "integer", format = "int64"))
+    @Parameter(name = "limit", description = "Maximum number of changes (1-1000)",
+            schema = @Schema(type = "integer", format = "int32", defaultValue = "100"))
+    @Parameter(name = "wait", description = "Seconds to wait for changes if there are none (0-30)",
+            schema = @Schema(type = "integer", format = "int32", defaultValue = "25"))
+    @ApiResponse(responseCode = "200", description = "Changes after since, empty if none came within wait",
+            content = @Content(schema = @Schema(implementation = ChangeFeedResponseDto.class)))
+    @ApiResponse(responseCode = "410", description = "Changes after since are no longer kept, resync and continue "
+            + "from the position in the message")
+    CompletableFuture<ResponseEntity<ChangeFeedResponseDto>> getChanges(@RequestParam Long since,
+                                                                        @RequestParam int limit,
+                                                                        @RequestParam int wait);
+
+    @Operation(summary = "Stream changes",
+            description = "Server-Sent Events named change, with the change as data and its position as id. "
+                    + "Changes already made after since are sent first. Reconnects resume after Last-Event-ID")
+    @Parameter(name = "since", description = "Position of the last change seen, omit to start from now",
+            schema = @Schema(type = "integer", format = "int64"))
+    @ApiResponse(responseCode = "200", description = "Stream of changes",
+            content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = ChangeEventDto.class)))
+    @ApiResponse(responseCode = "410", description = "Changes after since are no longer kept")
+    SseEmitter streamChanges(@RequestParam Long since, @RequestHeader Long lastEventId);
+}
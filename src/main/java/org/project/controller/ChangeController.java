@@ -0,0 +1,46 @@
+package org.project.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.project.dto.ChangeFeedResponseDto;
+import org.project.service.ChangeService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("changes")
+@RequiredArgsConstructor
+public class ChangeController implements ChangeApi {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // Below the async request timeout, a waiting request always gets its empty page
+    private static final int MAX_WAIT_SECONDS = 30;
+
+    private final ChangeService changeService;
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<ChangeFeedResponseDto>> getChanges(
+            @RequestParam(name = "since", required = false) Long since,
+            @RequestParam(name = "limit", defaultValue = "100") int limit,
+            @RequestParam(name = "wait", defaultValue = "25") int wait) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Duration timeout = Duration.ofSeconds(Math.max(0, Math.min(wait, MAX_WAIT_SECONDS)));
+        return changeService.getChanges(since, pageSize, timeout).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(name = "since", required = false) Long since,
+                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        // Browsers send the id of the last event they received when they reconnect on their own
+        return changeService.streamChanges(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -0,0 +1,43 @@
+package org.project.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Strong ETags built from row versions, see the version triggers in the schema changelog.
+ */
+final class ETags {
+
+    // Never stored, a tag that cannot be parsed fails the precondition
+    private static final long NO_VERSION = -1;
+
+    private ETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    /**
+     * The version an {@code If-Match} header expects, or null if the write is unconditional.
+     * Only a single strong tag can match, weak tags and lists fail the precondition.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return NO_VERSION;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_VERSION;
+        }
+    }
+}
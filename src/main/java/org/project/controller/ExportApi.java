@@ -0,0 +1,31 @@
+package org.project.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+
+@Tag(name = "Export", description = "Streaming export of the whole dataset")
+public interface ExportApi {
+
+    @Operation(summary = "Export all projects",
+            description = "Streams every project as NDJSON (one JSON object per line) or CSV")
+    @Parameter(name = "format", description = "Output format: ndjson or csv",
+            schema = @Schema(type = "string", allowableValues = {"ndjson", "csv"}, defaultValue = "ndjson"))
+    @ApiResponse(responseCode = "200", description = "Export stream")
+    @ApiResponse(responseCode = "400", description = "Unsupported format")
+    void exportProjects(@RequestParam String format, @Parameter(hidden = true) HttpServletResponse response) throws IOException;
+
+    @Operation(summary = "Export all vacancies",
+            description = "Streams every vacancy of every project as NDJSON (one JSON object per line) or CSV")
+    @Parameter(name = "format", description = "Output format: ndjson or csv",
+            schema = @Schema(type = "string", allowableValues = {"ndjson", "csv"}, defaultValue = "ndjson"))
+    @ApiResponse(responseCode = "200", description = "Export stream")
+    @ApiResponse(responseCode = "400", description = "Unsupported format")
+    void exportVacancies(@RequestParam String format, @Parameter(hidden = true) HttpServletResponse response) throws IOException;
+}
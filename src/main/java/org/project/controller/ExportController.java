@@ -0,0 +1,47 @@
+package org.project.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.project.dto.ExportFormat;
+import org.project.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("export")
+@RequiredArgsConstructor
+public class ExportController implements ExportApi {
+
+    private final ExportService exportService;
+
+    @GetMapping("/projects")
+    public void exportProjects(@RequestParam(name = "format", defaultValue = "ndjson") String format,
+                               HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        prepareResponse(response, exportFormat, "projects");
+        exportService.exportProjects(exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/vacancies")
+    public void exportVacancies(@RequestParam(name = "format", defaultValue = "ndjson") String format,
+                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        prepareResponse(response, exportFormat, "vacancies");
+        exportService.exportVacancies(exportFormat, response.getOutputStream());
+    }
+
+    private void prepareResponse(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build().toString());
+    }
+}
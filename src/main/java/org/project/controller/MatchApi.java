@@ -0,0 +1,29 @@
+package org.project.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.project.dto.MatchRequestDto;
+import org.project.dto.VacancyMatchDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+@Tag(name = "Candidate Matching", description = "Ranking of vacancies for a candidate profile")
+public interface MatchApi {
+
+    @Operation(summary = "Find the best vacancies for a candidate",
+            description = "Scores all vacancies across projects by field, country, experience and skills found in name "
+                    + "and description, boosted by close project deadlines. Returns the best matches first")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Candidate profile", required = true,
+            content = @Content(schema = @Schema(implementation = MatchRequestDto.class)))
+    @ApiResponse(responseCode = "200", description = "Successfully ranked vacancies",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = VacancyMatchDto.class))))
+    @ApiResponse(responseCode = "400", description = "Invalid input data")
+    ResponseEntity<List<VacancyMatchDto>> match(@Valid @RequestBody MatchRequestDto request);
+}
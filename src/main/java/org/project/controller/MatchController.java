@@ -0,0 +1,28 @@
+package org.project.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.project.dto.MatchRequestDto;
+import org.project.dto.VacancyMatchDto;
+import org.project.service.MatchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("match")
+@RequiredArgsConstructor
+public class MatchController implements MatchApi {
+
+    private final MatchService matchService;
+
+    @PostMapping
+    public ResponseEntity<List<VacancyMatchDto>> match(@Valid @RequestBody MatchRequestDto request) {
+        return new ResponseEntity<>(matchService.match(request), HttpStatus.OK);
+    }
+}
@@ -1,34 +1,87 @@
 package org.project.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.project.dto.MergePatch;
+import org.project.dto.PageResponseDto;
+import org.project.dto.ProjectDetailsResponseDto;
 import org.project.dto.ProjectRequestDto;
 import org.project.dto.ProjectResponseDto;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
-import java.util.List;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Project Management", description = "Operations for managing project")
 public interface ProjectApi {
 
-    @Operation(summary = "Get all Project", description = "Retrieves a list of all available Projects")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved categories",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProjectResponseDto.class))))
-    ResponseEntity<List<ProjectResponseDto>> getAll();
+    @Operation(summary = "Get all Project",
+            description = "Retrieves a page of Projects ordered by id. Pass the returned 'next' value as 'cursor' to get the following page")
+    @Parameter(name = "limit", description = "Page size (1-100)",
+            schema = @Schema(type = "integer", format = "int32", defaultValue = "20"))
+    @Parameter(name = "cursor", description = "Opaque cursor from the previous page, omit for the first page",
+            schema = @Schema(type = "string"))
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved projects",
+            content = @Content(schema = @Schema(implementation = PageResponseDto.class)))
+    @Parameter(name = "includeArchived", description = "Also return projects archived after their deadline passed",
+            schema = @Schema(type = "boolean", defaultValue = "false"))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    ResponseEntity<PageResponseDto<ProjectResponseDto>> getAll(@RequestParam int limit, @RequestParam String cursor,
+                                                               @RequestParam boolean includeArchived);
+
+    @Operation(summary = "Get all Project with their vacancies",
+            description = "Same paging as without 'include', every project carries its vacancies. Loaded in a single query")
+    @Parameter(name = "include", description = "Must be 'vacancies'", required = true,
+            schema = @Schema(type = "string", allowableValues = "vacancies"))
+    @Parameter(name = "limit", description = "Page size (1-100)",
+            schema = @Schema(type = "integer", format = "int32", defaultValue = "20"))
+    @Parameter(name = "cursor", description = "Opaque cursor from the previous page, omit for the first page",
+            schema = @Schema(type = "string"))
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved projects",
+            content = @Content(schema = @Schema(implementation = PageResponseDto.class)))
+    @Parameter(name = "includeArchived", description = "Also return projects archived after their deadline passed",
+            schema = @Schema(type = "boolean", defaultValue = "false"))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    ResponseEntity<PageResponseDto<ProjectDetailsResponseDto>> getAllWithVacancies(@RequestParam int limit,
+                                                                                  @RequestParam String cursor,
+                                                                                  @RequestParam boolean includeArchived);
 
     @Operation(summary = "Get project by ID", description = "Retrieves a specific project by its unique identifier")
     @Parameter(name = "id", description = "ID of the category to retrieve", required = true,
             schema = @Schema(type = "integer", format = "int64", example = "1"))
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved the category",
+    @Parameter(name = "If-None-Match", in = ParameterIn.HEADER, description = "ETag of a previous response",
+            schema = @Schema(type = "string", example = "\"3\""))
+    @Parameter(name = "includeArchived", description = "Also return projects archived after their deadline passed",
+            schema = @Schema(type = "boolean", defaultValue = "false"))
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved the category, with its version as ETag",
             content = @Content(schema = @Schema(implementation = ProjectResponseDto.class)))
+    @ApiResponse(responseCode = "304", description = "The ETag in If-None-Match is still current")
+    @ApiResponse(responseCode = "404", description = "Project not found")
+    ResponseEntity<ProjectResponseDto> getById(@PathVariable Long id, @RequestParam boolean includeArchived,
+                                               WebRequest request);
+
+    @Operation(summary = "Get project by ID with its vacancies",
+            description = "Retrieves a project together with its vacancies ordered by id, in a single query")
+    @Parameter(name = "id", description = "ID of the project to retrieve", required = true,
+            schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @Parameter(name = "include", description = "Must be 'vacancies'", required = true,
+            schema = @Schema(type = "string", allowableValues = "vacancies"))
+    @Parameter(name = "includeArchived", description = "Also return projects archived after their deadline passed",
+            schema = @Schema(type = "boolean", defaultValue = "false"))
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved the project",
+            content = @Content(schema = @Schema(implementation = ProjectDetailsResponseDto.class)))
     @ApiResponse(responseCode = "404", description = "Project not found")
-    ResponseEntity<ProjectResponseDto> getById(@PathVariable Long id);
+    ResponseEntity<ProjectDetailsResponseDto> getByIdWithVacancies(@PathVariable Long id,
+                                                                   @RequestParam boolean includeArchived);
 
     @Operation(summary = "Create new project", description = "Creates a new project category.")
     @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Category details", required = true,
@@ -38,26 +91,68 @@ public interface ProjectApi {
     @ApiResponse(responseCode = "400", description = "Invalid input data")
     @ApiResponse(responseCode = "403", description = "Forbidden - requires ADMIN privileges"
     )
+    @ApiResponse(responseCode = "409", description = "A project with this name already exists")
     ResponseEntity<ProjectResponseDto> create(@RequestBody ProjectRequestDto categoryDto);
 
+    @Operation(summary = "Create or replace project by name",
+            description = "Creates the project if no project has this name, otherwise overwrites it. Idempotent, one statement per call")
+    @Parameter(name = "name", description = "Name of the project, must equal the name in the body", required = true,
+            schema = @Schema(type = "string", example = "Project Alpha"))
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Project details", required = true,
+            content = @Content(schema = @Schema(implementation = ProjectRequestDto.class)))
+    @ApiResponse(responseCode = "200", description = "Existing project replaced",
+            content = @Content(schema = @Schema(implementation = ProjectResponseDto.class)))
+    @ApiResponse(responseCode = "201", description = "Project created",
+            content = @Content(schema = @Schema(implementation = ProjectResponseDto.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid input data or the names differ")
+    ResponseEntity<ProjectResponseDto> upsertByName(@PathVariable String name, @RequestBody ProjectRequestDto requestDto);
+
     @Operation(summary = "Update project",
             description = "Updates the name, field... of an existing project.")
     @Parameter(name = "id", description = "ID of the category to update", required = true,
             schema = @Schema(type = "integer", format = "int64", example = "1"))
     @Parameter(name = "name", description = "New category name", required = true,
             schema = @Schema(type = "string", example = "Pots and planters"))
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER,
+            description = "ETag the project must still have, omit to write unconditionally",
+            schema = @Schema(type = "string", example = "\"3\""))
     @ApiResponse(responseCode = "200", description = "Successfully updated the category",
             content = @Content(schema = @Schema(implementation = ProjectResponseDto.class)))
     @ApiResponse(responseCode = "403", description = "Forbidden - requires ADMIN privileges")
     @ApiResponse(responseCode = "404", description = "Project not found")
-    ResponseEntity<ProjectResponseDto> update(@PathVariable(name = "id") Long id, @RequestBody ProjectRequestDto requestDto);
+    @ApiResponse(responseCode = "409", description = "Another project already has this name")
+    @ApiResponse(responseCode = "412", description = "The project has changed since the ETag in If-Match")
+    ResponseEntity<ProjectResponseDto> update(@PathVariable(name = "id") Long id, @Valid @RequestBody ProjectRequestDto requestDto,
+                                              @RequestHeader String ifMatch);
+
+    @Operation(summary = "Patch project",
+            description = "JSON Merge Patch (RFC 7386): only the members present are validated and written, with one UPDATE. "
+                    + "Required members cannot be set to null")
+    @Parameter(name = "id", description = "ID of the project to patch", required = true,
+            schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Members to change", required = true,
+            content = @Content(mediaType = MergePatch.MEDIA_TYPE, schema = @Schema(implementation = ProjectRequestDto.class)))
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER,
+            description = "ETag the project must still have, omit to write unconditionally",
+            schema = @Schema(type = "string", example = "\"3\""))
+    @ApiResponse(responseCode = "200", description = "Successfully patched the project",
+            content = @Content(schema = @Schema(implementation = ProjectResponseDto.class)))
+    @ApiResponse(responseCode = "400", description = "Unknown member or invalid value")
+    @ApiResponse(responseCode = "404", description = "Project not found")
+    @ApiResponse(responseCode = "409", description = "Another project already has this name")
+    @ApiResponse(responseCode = "412", description = "The project has changed since the ETag in If-Match")
+    ResponseEntity<ProjectResponseDto> patch(@PathVariable Long id, @RequestBody JsonNode patch, @RequestHeader String ifMatch);
 
     @Operation(summary = "Delete project", description = "Deletes a project by its ID.")
     @Parameter(name = "id", description = "ID of the category to delete", required = true,
             schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER,
+            description = "ETag the project must still have, omit to write unconditionally",
+            schema = @Schema(type = "string", example = "\"3\""))
     @ApiResponse(responseCode = "200", description = "Successfully deleted the category")
     @ApiResponse(responseCode = "403", description = "Forbidden - requires ADMIN privileges")
     @ApiResponse(responseCode = "404", description = "Project not found")
-    ResponseEntity<Void> delete(@PathVariable Long id);
+    @ApiResponse(responseCode = "412", description = "The project has changed since the ETag in If-Match")
+    ResponseEntity<Void> delete(@PathVariable Long id, @RequestHeader String ifMatch);
 }
 
@@ -1,57 +1,134 @@
 package org.project.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.project.dto.ProjectMapper;
+import org.project.diagnostics.SqlBudget;
+import org.project.dto.MergePatch;
+import org.project.dto.PageCursor;
+import org.project.dto.PageResponseDto;
+import org.project.dto.ProjectDetailsResponseDto;
 import org.project.dto.ProjectRequestDto;
 import org.project.dto.ProjectResponseDto;
-import org.project.entity.Project;
+import org.project.dto.ProjectUpsertResult;
+import org.project.dto.Versioned;
 import org.project.service.ProjectService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("projects")
+@SqlBudget(statements = 2)
 @RequiredArgsConstructor
 public class ProjectController implements ProjectApi {
 
-    private final ProjectMapper projectMapper;
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final ProjectService projectService;
 
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
 
     @GetMapping
-    public ResponseEntity<List<ProjectResponseDto>> getAll() {
-        List<ProjectResponseDto> dtoList = projectService.getAll().stream()
-                .map(projectMapper::toDto).collect(Collectors.toList());
-        return new ResponseEntity<>(dtoList, HttpStatus.OK);
+    public ResponseEntity<PageResponseDto<ProjectResponseDto>> getAll(
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "includeArchived", defaultValue = "false") boolean includeArchived) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra row tells us whether there is a next page without a count query
+        List<ProjectResponseDto> projects = projectService.getAll(PageCursor.decode(cursor), pageSize + 1, includeArchived);
+        String next = null;
+        if (projects.size() > pageSize) {
+            projects = projects.subList(0, pageSize);
+            next = PageCursor.encode(projects.get(pageSize - 1).id());
+        }
+        return new ResponseEntity<>(new PageResponseDto<>(projects, next), HttpStatus.OK);
+    }
+
+    @GetMapping(params = "include=vacancies")
+    public ResponseEntity<PageResponseDto<ProjectDetailsResponseDto>> getAllWithVacancies(
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "includeArchived", defaultValue = "false") boolean includeArchived) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ProjectDetailsResponseDto> projects = projectService.getAllWithVacancies(PageCursor.decode(cursor),
+                pageSize + 1, includeArchived);
+        String next = null;
+        if (projects.size() > pageSize) {
+            projects = projects.subList(0, pageSize);
+            next = PageCursor.encode(projects.get(pageSize - 1).id());
+        }
+        return new ResponseEntity<>(new PageResponseDto<>(projects, next), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectResponseDto> getById(@PathVariable Long id) {
-        Project project = projectService.getById(id);
-        return new ResponseEntity<>(projectMapper.toDto(project), HttpStatus.OK);
+    public ResponseEntity<ProjectResponseDto> getById(@PathVariable Long id,
+                                                      @RequestParam(name = "includeArchived", defaultValue = "false")
+                                                      boolean includeArchived,
+                                                      WebRequest request) {
+        // A revalidation only needs the version, the project is neither loaded nor serialized for a 304
+        if (ETags.isConditional(request)
+                && request.checkNotModified(ETags.of(projectService.getVersion(id, includeArchived)))) {
+            return null;
+        }
+        Versioned<ProjectResponseDto> project = projectService.getById(id, includeArchived);
+        return ResponseEntity.ok().eTag(ETags.of(project.version())).body(project.value());
+    }
+
+    @GetMapping(value = "/{id}", params = "include=vacancies")
+    public ResponseEntity<ProjectDetailsResponseDto> getByIdWithVacancies(
+            @PathVariable Long id,
+            @RequestParam(name = "includeArchived", defaultValue = "false") boolean includeArchived) {
+        return new ResponseEntity<>(projectService.getByIdWithVacancies(id, includeArchived), HttpStatus.OK);
     }
 
     @PostMapping
     public ResponseEntity<ProjectResponseDto> create(@Valid @RequestBody ProjectRequestDto requestDto) {
-        Project entity = projectMapper.toEntity(requestDto);
-        Project createdProject = projectService.create(entity);
-        return new ResponseEntity<>(projectMapper.toDto(createdProject), HttpStatus.CREATED);
+        return new ResponseEntity<>(projectService.create(requestDto), HttpStatus.CREATED);
+    }
+
+    // The write, its change event and the cache invalidation NOTIFY
+    @SqlBudget(statements = 3)
+    @PutMapping("/by-name/{name}")
+    public ResponseEntity<ProjectResponseDto> upsertByName(@PathVariable String name,
+                                                           @Valid @RequestBody ProjectRequestDto requestDto) {
+        ProjectUpsertResult result = projectService.upsertByName(name, requestDto);
+        return new ResponseEntity<>(result.project(), result.created() ? HttpStatus.CREATED : HttpStatus.OK);
     }
 
+    @SqlBudget(statements = 3)
     @PutMapping("/{id}")
-    public ResponseEntity<ProjectResponseDto> update(@Valid @PathVariable(name = "id") Long id, @RequestBody ProjectRequestDto requestDto) {
-        Project project = projectService.update(id, requestDto);
-        return new ResponseEntity<>(projectMapper.toDto(project), HttpStatus.OK);
+    public ResponseEntity<ProjectResponseDto> update(@PathVariable(name = "id") Long id,
+                                                     @Valid @RequestBody ProjectRequestDto requestDto,
+                                                     @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Versioned<ProjectResponseDto> project = projectService.update(id, requestDto, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(project.version())).body(project.value());
+    }
+
+    @SqlBudget(statements = 3)
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ProjectResponseDto> patch(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                    @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        MergePatch mergePatch = MergePatch.of(patch, ProjectRequestDto.class, objectMapper, validator);
+        Versioned<ProjectResponseDto> project = projectService.patch(id, mergePatch, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(project.version())).body(project.value());
     }
 
+    @SqlBudget(statements = 3)
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        projectService.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        projectService.delete(id, ETags.expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,18 +1,30 @@
 package org.project.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.project.dto.MergePatch;
+import org.project.dto.VacancyBatchCreateRequestDto;
+import org.project.dto.VacancyBatchDeleteRequestDto;
+import org.project.dto.VacancyBatchItemResultDto;
+import org.project.dto.VacancyBatchUpdateRequestDto;
+import org.project.dto.VacancyDeltaDto;
 import org.project.dto.VacancyRequestDto;
 import org.project.dto.VacancyResponseDto;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import java.util.List;
 
 @Tag(name = "Vacancy Management", description = "Operations for managing vacancies")
@@ -21,10 +33,26 @@ public interface VacancyApi {
     @Operation(summary = "Get vacancies by Project ID", description = "Retrieves a list of vacancies for a specific project")
     @Parameter(name = "id", description = "ID of the project to retrieve vacancies for", required = true,
             schema = @Schema(type = "integer", format = "int64", example = "1"))
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved vacancies",
+    @Parameter(name = "If-None-Match", in = ParameterIn.HEADER, description = "ETag of a previous response",
+            schema = @Schema(type = "string", example = "\"3\""))
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved vacancies, with the project version as ETag",
             content = @Content(array = @ArraySchema(schema = @Schema(implementation = VacancyResponseDto.class))))
+    @ApiResponse(responseCode = "304", description = "The ETag in If-None-Match is still current")
+    @ApiResponse(responseCode = "404", description = "Project not found")
+    ResponseEntity<List<VacancyResponseDto>> getVacanciesByProjectId(@PathVariable Long id, WebRequest request);
+
+    @Operation(summary = "Stream vacancies by Project ID",
+            description = "Server-Sent Events for a live vacancy board: snapshot with the current vacancies, then vacancy "
+                    + "for every change, with the vacancy as it is now, or only its id once deleted, applied by id. "
+                    + "Another snapshot replaces the list if the client falls behind. end closes the stream once the "
+                    + "project is deleted, closed or archived. A reconnect starts with a new snapshot")
+    @Parameter(name = "id", description = "ID of the project to stream vacancies for", required = true,
+            schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @ApiResponse(responseCode = "200", description = "Stream of vacancy changes",
+            content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = VacancyDeltaDto.class)))
     @ApiResponse(responseCode = "404", description = "Project not found")
-    ResponseEntity<List<VacancyResponseDto>> getVacanciesByProjectId(@PathVariable Long id);
+    @ApiResponse(responseCode = "503", description = "The change feed is off on this node")
+    SseEmitter streamVacanciesByProjectId(@PathVariable Long id);
 
     @Operation(summary = "Add new vacancy to project", description = "Adds a new vacancy to a specific project.")
     @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Vacancy details", required = true,
@@ -34,24 +62,79 @@ public interface VacancyApi {
     @ApiResponse(responseCode = "400", description = "Invalid input data")
     @ApiResponse(responseCode = "403", description = "Forbidden - requires ADMIN privileges")
     @ApiResponse(responseCode = "404", description = "Project not found")
-    ResponseEntity<VacancyResponseDto> create(@Valid @PathVariable(name = "id") Long id, @RequestBody VacancyRequestDto requestDto);
+    ResponseEntity<VacancyResponseDto> create(@PathVariable(name = "id") Long id, @Valid @RequestBody VacancyRequestDto requestDto);
 
     @Operation(summary = "Update vacancy",
             description = "Updates the name, field, experience, country, and description of an existing vacancy.")
     @Parameter(name = "id", description = "ID of the vacancy to update", required = true,
             schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER,
+            description = "ETag the vacancy must still have, omit to write unconditionally",
+            schema = @Schema(type = "string", example = "\"3\""))
     @ApiResponse(responseCode = "200", description = "Successfully updated the vacancy",
             content = @Content(schema = @Schema(implementation = VacancyResponseDto.class)))
     @ApiResponse(responseCode = "403", description = "Forbidden - requires ADMIN privileges")
     @ApiResponse(responseCode = "404", description = "Vacancy not found")
-    ResponseEntity<VacancyResponseDto> updateVacancy(@PathVariable Long id, @Valid @RequestBody VacancyRequestDto request);
+    @ApiResponse(responseCode = "412", description = "The vacancy has changed since the ETag in If-Match")
+    ResponseEntity<VacancyResponseDto> updateVacancy(@PathVariable Long id, @Valid @RequestBody VacancyRequestDto request,
+                                                     @RequestHeader String ifMatch);
+
+    @Operation(summary = "Patch vacancy",
+            description = "JSON Merge Patch (RFC 7386): only the members present are validated and written, with one UPDATE. "
+                    + "Optional members set to null are cleared")
+    @Parameter(name = "id", description = "ID of the vacancy to patch", required = true,
+            schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Members to change", required = true,
+            content = @Content(mediaType = MergePatch.MEDIA_TYPE, schema = @Schema(implementation = VacancyRequestDto.class)))
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER,
+            description = "ETag the vacancy must still have, omit to write unconditionally",
+            schema = @Schema(type = "string", example = "\"3\""))
+    @ApiResponse(responseCode = "200", description = "Successfully patched the vacancy",
+            content = @Content(schema = @Schema(implementation = VacancyResponseDto.class)))
+    @ApiResponse(responseCode = "400", description = "Unknown member or invalid value")
+    @ApiResponse(responseCode = "404", description = "Vacancy not found")
+    @ApiResponse(responseCode = "412", description = "The vacancy has changed since the ETag in If-Match")
+    ResponseEntity<VacancyResponseDto> patchVacancy(@PathVariable Long id, @RequestBody JsonNode patch, @RequestHeader String ifMatch);
 
     @Operation(summary = "Delete vacancy", description = "Deletes a vacancy by its ID.")
     @Parameter(name = "id", description = "ID of the vacancy to delete", required = true,
             schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER,
+            description = "ETag the vacancy must still have, omit to write unconditionally",
+            schema = @Schema(type = "string", example = "\"3\""))
     @ApiResponse(responseCode = "200", description = "Successfully deleted the vacancy")
     @ApiResponse(responseCode = "403", description = "Forbidden - requires ADMIN privileges")
     @ApiResponse(responseCode = "404", description = "Vacancy not found")
-    ResponseEntity<Void> deleteVacancy(@PathVariable Long id);
-}
+    @ApiResponse(responseCode = "412", description = "The vacancy has changed since the ETag in If-Match")
+    ResponseEntity<Void> deleteVacancy(@PathVariable Long id, @RequestHeader String ifMatch);
 
+    @Operation(summary = "Add vacancies to project in one batch",
+            description = "Validates the whole batch, then inserts all vacancies in one transaction. Nothing is created if any item is invalid.")
+    @Parameter(name = "id", description = "ID of the project to add vacancies to", required = true,
+            schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @ApiResponse(responseCode = "201", description = "Per-item results in request order",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = VacancyBatchItemResultDto.class))))
+    @ApiResponse(responseCode = "400", description = "Invalid input data")
+    @ApiResponse(responseCode = "404", description = "Project not found")
+    ResponseEntity<List<VacancyBatchItemResultDto>> createBatch(@PathVariable Long id, @Valid @RequestBody VacancyBatchCreateRequestDto request);
+
+    @Operation(summary = "Update vacancies of project in one batch",
+            description = "Updates the listed vacancies of the project in one transaction. Ids that do not belong to the project are reported as NOT_FOUND.")
+    @Parameter(name = "id", description = "ID of the project the vacancies belong to", required = true,
+            schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @ApiResponse(responseCode = "200", description = "Per-item results in request order",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = VacancyBatchItemResultDto.class))))
+    @ApiResponse(responseCode = "400", description = "Invalid input data")
+    @ApiResponse(responseCode = "404", description = "Project not found")
+    ResponseEntity<List<VacancyBatchItemResultDto>> updateBatch(@PathVariable Long id, @Valid @RequestBody VacancyBatchUpdateRequestDto request);
+
+    @Operation(summary = "Delete vacancies of project in one batch",
+            description = "Deletes the listed vacancies of the project with a single statement. Ids that do not belong to the project are reported as NOT_FOUND.")
+    @Parameter(name = "id", description = "ID of the project the vacancies belong to", required = true,
+            schema = @Schema(type = "integer", format = "int64", example = "1"))
+    @ApiResponse(responseCode = "200", description = "Per-item results in request order",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = VacancyBatchItemResultDto.class))))
+    @ApiResponse(responseCode = "400", description = "Invalid input data")
+    @ApiResponse(responseCode = "404", description = "Project not found")
+    ResponseEntity<List<VacancyBatchItemResultDto>> deleteBatch(@PathVariable Long id, @Valid @RequestBody VacancyBatchDeleteRequestDto request);
+}
@@ -1,18 +1,31 @@
 package org.project.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.project.diagnostics.SqlBudget;
 import org.project.dto.*;
 import org.project.entity.Vacancy;
 import org.project.service.VacancyService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("projects")
+@SqlBudget(statements = 2)
 @RequiredArgsConstructor
 public class VacancyController implements VacancyApi {
 
@@ -20,28 +33,92 @@ public class VacancyController implements VacancyApi {
 
     private final VacancyService vacancyService;
 
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
     @GetMapping("/{id}/vacancies")
-    public ResponseEntity<List<VacancyResponseDto>> getVacanciesByProjectId(@PathVariable Long id) {
-        List<VacancyResponseDto> dtoList = vacancyService.getByProjectId(id).stream()
-                .map(vacancyMapper::toDto).collect(Collectors.toList());
-        return new ResponseEntity<>(dtoList, HttpStatus.OK);
+    public ResponseEntity<List<VacancyResponseDto>> getVacanciesByProjectId(@PathVariable Long id, WebRequest request) {
+        // The project version covers its vacancies, a revalidation never reads the list
+        if (ETags.isConditional(request) && request.checkNotModified(ETags.of(vacancyService.getProjectVersion(id)))) {
+            return null;
+        }
+        Versioned<List<VacancyResponseDto>> vacancies = vacancyService.getByProjectId(id);
+        return ResponseEntity.ok().eTag(ETags.of(vacancies.version())).body(vacancies.value());
     }
 
+    @GetMapping(value = "/{id}/vacancies/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamVacanciesByProjectId(@PathVariable Long id) {
+        return vacancyService.streamByProjectId(id);
+    }
+
+    @SqlBudget(statements = 5)
     @PostMapping("/{id}/vacancies")
-    public ResponseEntity<VacancyResponseDto> create(@Valid @PathVariable(name = "id") Long id, @RequestBody VacancyRequestDto requestDto) {
+    public ResponseEntity<VacancyResponseDto> create(@PathVariable(name = "id") Long id, @Valid @RequestBody VacancyRequestDto requestDto) {
         Vacancy vacancy = vacancyService.addVacancyToProject(requestDto,id);
         return new ResponseEntity<>(vacancyMapper.toDto(vacancy), HttpStatus.CREATED);
     }
 
+    // The write, its change events and the cache invalidation NOTIFY
+    @SqlBudget(statements = 3)
     @PutMapping("/vacancies/{id}")
-    public ResponseEntity<VacancyResponseDto> updateVacancy(@PathVariable Long id, @Valid @RequestBody VacancyRequestDto request) {
-        Vacancy vacancy = vacancyService.updateVacancy(id, request);
-        return new ResponseEntity<>(vacancyMapper.toDto(vacancy), HttpStatus.OK);
+    public ResponseEntity<VacancyResponseDto> updateVacancy(@PathVariable Long id, @Valid @RequestBody VacancyRequestDto request,
+                                                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Versioned<VacancyResponseDto> vacancy = vacancyService.updateVacancy(id, request, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(vacancy.version())).body(vacancy.value());
+    }
+
+    @SqlBudget(statements = 3)
+    @PatchMapping(value = "/vacancies/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<VacancyResponseDto> patchVacancy(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        MergePatch mergePatch = MergePatch.of(patch, VacancyRequestDto.class, objectMapper, validator);
+        Versioned<VacancyResponseDto> vacancy = vacancyService.patchVacancy(id, mergePatch, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(vacancy.version())).body(vacancy.value());
     }
 
+    @SqlBudget(statements = 3)
     @DeleteMapping("/vacancies/{id}")
-    public ResponseEntity<Void> deleteVacancy(@PathVariable Long id) {
-        vacancyService.deleteVacancy(id);
+    public ResponseEntity<Void> deleteVacancy(@PathVariable Long id,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        vacancyService.deleteVacancy(id, ETags.expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    // Batches run the same statements whatever their size
+    @SqlBudget(statements = 5)
+    @PostMapping("/{id}/vacancies:batch")
+    public ResponseEntity<List<VacancyBatchItemResultDto>> createBatch(@PathVariable Long id,
+                                                                       @Valid @RequestBody VacancyBatchCreateRequestDto request) {
+        List<VacancyBatchItemResultDto> results = vacancyService.addVacanciesToProject(request.items(), id).stream()
+                .map(vacancy -> new VacancyBatchItemResultDto(vacancy.getId(), BatchItemStatus.CREATED, vacancyMapper.toDto(vacancy)))
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(results, HttpStatus.CREATED);
+    }
+
+    @SqlBudget(statements = 5)
+    @PutMapping("/{id}/vacancies:batch")
+    public ResponseEntity<List<VacancyBatchItemResultDto>> updateBatch(@PathVariable Long id,
+                                                                       @Valid @RequestBody VacancyBatchUpdateRequestDto request) {
+        Map<Long, Vacancy> updated = vacancyService.updateVacancies(id, request.items()).stream()
+                .collect(Collectors.toMap(Vacancy::getId, Function.identity()));
+        List<VacancyBatchItemResultDto> results = request.items().stream()
+                .map(item -> updated.containsKey(item.id())
+                        ? new VacancyBatchItemResultDto(item.id(), BatchItemStatus.UPDATED, vacancyMapper.toDto(updated.get(item.id())))
+                        : new VacancyBatchItemResultDto(item.id(), BatchItemStatus.NOT_FOUND, null))
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @SqlBudget(statements = 3)
+    @PostMapping("/{id}/vacancies:batchDelete")
+    public ResponseEntity<List<VacancyBatchItemResultDto>> deleteBatch(@PathVariable Long id,
+                                                                       @Valid @RequestBody VacancyBatchDeleteRequestDto request) {
+        Set<Long> deleted = vacancyService.deleteVacancies(id, request.ids());
+        List<VacancyBatchItemResultDto> results = request.ids().stream()
+                .map(vacancyId -> new VacancyBatchItemResultDto(vacancyId,
+                        deleted.contains(vacancyId) ? BatchItemStatus.DELETED : BatchItemStatus.NOT_FOUND, null))
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
 }
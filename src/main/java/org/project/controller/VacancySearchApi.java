@@ -0,0 +1,55 @@
+package org.project.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.project.dto.VacancyLookupResponseDto;
+import org.project.dto.VacancySearchResponseDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@Tag(name = "Vacancy Search", description = "Search across the vacancies of all projects")
+public interface VacancySearchApi {
+
+    @Operation(summary = "Search vacancies",
+            description = "Full-text search in name and description, filtered by field, country and experience. "
+                    + "Results are ordered by id and paginated with a cursor. Facet counts are returned with the first page only")
+    @Parameter(name = "q", description = "Search text, supports quoted phrases, 'or' and '-' for exclusion",
+            schema = @Schema(type = "string", example = "java spring"))
+    @Parameter(name = "field", description = "Field filter, can be repeated", schema = @Schema(type = "string"))
+    @Parameter(name = "country", description = "Country filter, can be repeated", schema = @Schema(type = "string"))
+    @Parameter(name = "experience", description = "Experience filter, can be repeated", schema = @Schema(type = "string"))
+    @Parameter(name = "limit", description = "Page size (1-100)",
+            schema = @Schema(type = "integer", format = "int32", defaultValue = "20"))
+    @Parameter(name = "cursor", description = "Opaque cursor from the previous page, omit for the first page",
+            schema = @Schema(type = "string"))
+    @ApiResponse(responseCode = "200", description = "Successfully searched vacancies",
+            content = @Content(schema = @Schema(implementation = VacancySearchResponseDto.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    ResponseEntity<VacancySearchResponseDto> search(@RequestParam String q,
+                                                    @RequestParam List<String> field,
+                                                    @RequestParam List<String> country,
+                                                    @RequestParam List<String> experience,
+                                                    @RequestParam int limit,
+                                                    @RequestParam String cursor);
+
+    @Operation(summary = "Look up vacancies by attributes",
+            description = "Answered from an in-memory index without querying the database. "
+                    + "Returns the number of matching vacancies and up to limit of their ids, in no particular order")
+    @Parameter(name = "field", description = "Field filter, can be repeated", schema = @Schema(type = "string"))
+    @Parameter(name = "country", description = "Country filter, can be repeated", schema = @Schema(type = "string"))
+    @Parameter(name = "experience", description = "Experience filter, can be repeated", schema = @Schema(type = "string"))
+    @Parameter(name = "limit", description = "Maximum number of ids (0-1000)",
+            schema = @Schema(type = "integer", format = "int32", defaultValue = "100"))
+    @ApiResponse(responseCode = "200", description = "Successfully looked up vacancies",
+            content = @Content(schema = @Schema(implementation = VacancyLookupResponseDto.class)))
+    ResponseEntity<VacancyLookupResponseDto> lookup(@RequestParam List<String> field,
+                                                    @RequestParam List<String> country,
+                                                    @RequestParam List<String> experience,
+                                                    @RequestParam int limit);
+}
@@ -0,0 +1,63 @@
+package org.project.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.project.dto.PageCursor;
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyLookupResponseDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.VacancySearchCriteria;
+import org.project.dto.VacancySearchResponseDto;
+import org.project.service.VacancyService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("vacancies")
+@RequiredArgsConstructor
+public class VacancySearchController implements VacancySearchApi {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_LOOKUP_SIZE = 1000;
+
+    private final VacancyService vacancyService;
+
+    @GetMapping("/search")
+    public ResponseEntity<VacancySearchResponseDto> search(
+            @RequestParam(name = "q", required = false) String q,
+            @RequestParam(name = "field", required = false) List<String> field,
+            @RequestParam(name = "country", required = false) List<String> country,
+            @RequestParam(name = "experience", required = false) List<String> experience,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        VacancySearchCriteria criteria = new VacancySearchCriteria(q, field, country, experience);
+        List<VacancyResponseDto> items = vacancyService.search(criteria, PageCursor.decode(cursor), pageSize + 1);
+        String next = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            next = PageCursor.encode(items.get(pageSize - 1).id());
+        }
+        // Facets describe the whole result set, deeper pages do not need to recount it
+        Map<String, Map<String, Long>> facets = cursor == null ? vacancyService.searchFacets(criteria) : null;
+        return new ResponseEntity<>(new VacancySearchResponseDto(items, next, facets), HttpStatus.OK);
+    }
+
+    @GetMapping("/lookup")
+    public ResponseEntity<VacancyLookupResponseDto> lookup(
+            @RequestParam(name = "field", required = false) List<String> field,
+            @RequestParam(name = "country", required = false) List<String> country,
+            @RequestParam(name = "experience", required = false) List<String> experience,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        int size = Math.max(0, Math.min(limit, MAX_LOOKUP_SIZE));
+        VacancyLookupResponseDto result = vacancyService.lookup(new VacancyAttributeFilter(field, country, experience), size);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,21 @@
+package org.project.diagnostics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many SQL statements one request to the handler may run.
+ * <p>
+ * On a method it overrides the annotation on the controller, which overrides
+ * {@code app.sql.budget.default-statements}. Checked by {@link SqlBudgetInterceptor}.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    int statements();
+}
@@ -0,0 +1,98 @@
+package org.project.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.project.jdbc.SqlStatementStats;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Opens {@link SqlStatementStats} for every handler invocation and checks them against the
+ * {@link SqlBudget} of the handler once the request completes.
+ * <p>
+ * A request over its budget is logged and counted in {@code app.sql.budget.exceeded}; with
+ * {@code app.sql.budget.fail=true} the statement beyond the budget fails instead. Statement
+ * counts and database time per handler go to {@code app.sql.request.statements} and
+ * {@code app.sql.request.time}. The stats stay available as the {@link #STATS_ATTRIBUTE}
+ * request attribute, which lets MockMvc tests assert exact counts.
+ * <p>
+ * Only statements on the request thread are counted; once a handler goes async, e.g. a
+ * streamed export, its stats are closed.
+ */
+@Slf4j
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String STATS_ATTRIBUTE = SqlStatementStats.class.getName();
+
+    private final MeterRegistry meterRegistry;
+
+    private final int defaultStatements;
+
+    private final boolean fail;
+
+    public SqlBudgetInterceptor(MeterRegistry meterRegistry, int defaultStatements, boolean fail) {
+        this.meterRegistry = meterRegistry;
+        this.defaultStatements = defaultStatements;
+        this.fail = fail;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            SqlStatementStats stats = SqlStatementStats.start(name(method), budget(method), fail);
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(STATS_ATTRIBUTE) instanceof SqlStatementStats stats) {
+            stats.close();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(STATS_ATTRIBUTE) instanceof SqlStatementStats stats)) {
+            return;
+        }
+        stats.close();
+        DistributionSummary.builder("app.sql.request.statements")
+                .description("SQL statements run by one request")
+                .tag("handler", stats.name())
+                .register(meterRegistry)
+                .record(stats.statements());
+        Timer.builder("app.sql.request.time")
+                .description("Time one request spent executing SQL statements")
+                .tag("handler", stats.name())
+                .register(meterRegistry)
+                .record(stats.time());
+        if (stats.overBudget()) {
+            Counter.builder("app.sql.budget.exceeded")
+                    .description("Requests that ran more SQL statements than their budget")
+                    .tag("handler", stats.name())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} ran {} SQL statements in {} ms, its budget is {}", request.getMethod(),
+                    request.getRequestURI(), stats.statements(), stats.time().toMillis(), stats.budget());
+        }
+    }
+
+    private int budget(HandlerMethod method) {
+        SqlBudget budget = method.getMethodAnnotation(SqlBudget.class);
+        if (budget == null) {
+            budget = method.getBeanType().getAnnotation(SqlBudget.class);
+        }
+        return budget == null ? defaultStatements : budget.statements();
+    }
+
+    private static String name(HandlerMethod method) {
+        return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+    }
+}
@@ -0,0 +1,8 @@
+package org.project.dto;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND
+}
@@ -0,0 +1,18 @@
+package org.project.dto;
+
+import org.project.outbox.ChangeSubject;
+import org.project.outbox.ChangeType;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change feed. Carries no state, consumers read the current state of the
+ * subject from the API, which also covers several changes to it in a row.
+ */
+public record ChangeEventDto(long position,
+                             ChangeSubject subject,
+                             Long id,
+                             Long projectId,
+                             ChangeType type,
+                             Instant recordedAt) {
+}
@@ -0,0 +1,9 @@
+package org.project.dto;
+
+import java.util.List;
+
+/**
+ * A page of the change feed, {@code next} is the {@code since} of the following request.
+ */
+public record ChangeFeedResponseDto(List<ChangeEventDto> changes, long next) {
+}
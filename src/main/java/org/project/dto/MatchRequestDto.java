@@ -0,0 +1,27 @@
+package org.project.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record MatchRequestDto(
+
+        @Size(max = 255, message = "Field cannot exceed 255 characters")
+        String field,
+
+        @Size(max = 255, message = "Experience cannot exceed 255 characters")
+        String experience,
+
+        @Size(max = 255, message = "Country cannot exceed 255 characters")
+        String country,
+
+        @Size(max = 50, message = "No more than 50 skills are allowed")
+        List<@NotBlank @Size(max = 100) String> skills,
+
+        @Min(value = 1, message = "Limit must be at least 1")
+        @Max(value = 100, message = "Limit cannot exceed 100")
+        Integer limit){
+}
@@ -0,0 +1,82 @@
+package org.project.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.project.exception.InvalidPatchException;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A JSON Merge Patch (RFC 7386) of a flat resource, reduced to the members it sets. Every
+ * member must be a component of the request record of the resource. It is converted to the
+ * type of that component and checked against its constraints only, so absent members are
+ * neither required nor validated. A member set to null clears the column.
+ * <p>
+ * The keys are component names, which are also the column names of the resource.
+ */
+public record MergePatch(Map<String, Object> values) {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private static final Set<String> PRESENCE_CONSTRAINTS = Set.of("NotBlank", "NotNull", "NotEmpty");
+
+    public MergePatch {
+        values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    public static MergePatch of(JsonNode body, Class<? extends Record> requestType,
+                                ObjectMapper objectMapper, Validator validator) {
+        if (!(body instanceof ObjectNode patch)) {
+            throw new InvalidPatchException(Map.of("patch", "A merge patch must be a JSON object"));
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        patch.fields().forEachRemaining(member -> {
+            String name = member.getKey();
+            RecordComponent component = component(requestType, name);
+            if (component == null) {
+                errors.put(name, "Unknown member");
+                return;
+            }
+            Object value;
+            try {
+                value = member.getValue().isNull() ? null : objectMapper.convertValue(member.getValue(), component.getType());
+            } catch (IllegalArgumentException e) {
+                errors.put(name, "Invalid value");
+                return;
+            }
+            for (ConstraintViolation<? extends Record> violation : validator.validateValue(requestType, name, value)) {
+                String code = violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName();
+                // Same preference as for full bodies, "must not be empty" is the useful message
+                if (!errors.containsKey(name) || PRESENCE_CONSTRAINTS.contains(code)) {
+                    errors.put(name, violation.getMessage());
+                }
+            }
+            values.put(name, value);
+        });
+        if (!errors.isEmpty()) {
+            throw new InvalidPatchException(errors);
+        }
+        return new MergePatch(values);
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    private static RecordComponent component(Class<? extends Record> requestType, String name) {
+        for (RecordComponent component : requestType.getRecordComponents()) {
+            if (component.getName().equals(name)) {
+                return component;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package org.project.dto;
+
+import org.project.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor. Clients only echo back the value of {@code next},
+ * internally it is the id of the last row of the previous page.
+ */
+public final class PageCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PageCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        return ENCODER.encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            long id = Long.parseLong(new String(DECODER.decode(cursor), StandardCharsets.US_ASCII));
+            if (id < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
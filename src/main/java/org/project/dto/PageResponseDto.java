@@ -0,0 +1,7 @@
+package org.project.dto;
+
+import java.util.List;
+
+public record PageResponseDto<T>(List<T> items,
+                                 String next){
+}
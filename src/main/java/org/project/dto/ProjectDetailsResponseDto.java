@@ -0,0 +1,16 @@
+package org.project.dto;
+
+import org.project.entity.ProjectStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record ProjectDetailsResponseDto(Long id,
+                                        String name,
+                                        String field,
+                                        String experience,
+                                        String description,
+                                        LocalDate deadline,
+                                        ProjectStatus status,
+                                        List<VacancyResponseDto> vacancies) {
+}
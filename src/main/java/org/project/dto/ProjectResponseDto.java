@@ -1,5 +1,7 @@
 package org.project.dto;
 
+import org.project.entity.ProjectStatus;
+
 import java.time.LocalDate;
 
 public record ProjectResponseDto (Long id,
@@ -7,5 +9,6 @@ public record ProjectResponseDto (Long id,
                                   String field,
                                   String experience,
                                   String description,
-                                  LocalDate deadline){
+                                  LocalDate deadline,
+                                  ProjectStatus status){
 }
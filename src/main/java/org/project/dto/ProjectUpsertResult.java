@@ -0,0 +1,7 @@
+package org.project.dto;
+
+/**
+ * Outcome of an upsert by name, {@code created} tells whether the project did not exist before.
+ */
+public record ProjectUpsertResult(ProjectResponseDto project, boolean created) {
+}
@@ -0,0 +1,12 @@
+package org.project.dto;
+
+import java.util.List;
+
+/**
+ * Attribute filter answered by the in-memory vacancy index. Values of one attribute are OR-ed,
+ * different attributes are AND-ed, a missing or empty list does not filter at all.
+ */
+public record VacancyAttributeFilter(List<String> fields,
+                                     List<String> countries,
+                                     List<String> experiences){
+}
@@ -0,0 +1,14 @@
+package org.project.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record VacancyBatchDeleteRequestDto(
+
+        @NotEmpty(message = "Ids must not be empty")
+        @Size(max = 1000, message = "A batch cannot contain more than 1000 ids")
+        List<@NotNull(message = "Id cannot be null") Long> ids){
+}
@@ -0,0 +1,6 @@
+package org.project.dto;
+
+public record VacancyBatchItemResultDto(Long id,
+                                        BatchItemStatus status,
+                                        VacancyResponseDto vacancy){
+}
@@ -0,0 +1,14 @@
+package org.project.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+public record VacancyBatchUpdateItemDto(
+
+        @NotNull(message = "Id cannot be null")
+        Long id,
+
+        @Valid
+        @NotNull(message = "Vacancy cannot be null")
+        VacancyRequestDto vacancy){
+}
@@ -0,0 +1,14 @@
+package org.project.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record VacancyBatchUpdateRequestDto(
+
+        @NotEmpty(message = "Items must not be empty")
+        @Size(max = 1000, message = "A batch cannot contain more than 1000 items")
+        List<@Valid VacancyBatchUpdateItemDto> items){
+}
@@ -0,0 +1,9 @@
+package org.project.dto;
+
+import org.project.outbox.ChangeType;
+
+/**
+ * A change to a vacancy of a project stream, with the vacancy as it is now, or without it once deleted.
+ */
+public record VacancyDeltaDto(ChangeType type, Long id, VacancyResponseDto vacancy) {
+}
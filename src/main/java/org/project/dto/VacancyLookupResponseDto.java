@@ -0,0 +1,5 @@
+package org.project.dto;
+
+public record VacancyLookupResponseDto(int total,
+                                       long[] ids){
+}
@@ -0,0 +1,5 @@
+package org.project.dto;
+
+public record VacancyMatchDto(float score,
+                              VacancyResponseDto vacancy){
+}
@@ -0,0 +1,12 @@
+package org.project.dto;
+
+import java.util.List;
+
+/**
+ * Filters of the vacancy search. Values of one facet are OR-ed, different facets and the text are AND-ed.
+ */
+public record VacancySearchCriteria(String text,
+                                    List<String> fields,
+                                    List<String> countries,
+                                    List<String> experiences){
+}
@@ -0,0 +1,9 @@
+package org.project.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record VacancySearchResponseDto(List<VacancyResponseDto> items,
+                                       String next,
+                                       Map<String, Map<String, Long>> facets){
+}
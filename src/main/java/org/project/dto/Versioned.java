@@ -0,0 +1,7 @@
+package org.project.dto;
+
+/**
+ * A response together with the version of the rows it was read from, sent as the ETag.
+ */
+public record Versioned<T>(T value, long version) {
+}
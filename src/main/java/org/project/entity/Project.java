@@ -3,6 +3,8 @@ package org.project.entity;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.project.reference.ReferenceConverter;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
@@ -13,23 +15,39 @@ import java.util.Set;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "projects")
+@Table(name = "projects", uniqueConstraints = @UniqueConstraint(name = "uk_projects_name", columnNames = "name"))
 public class Project {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projects_seq")
+    @SequenceGenerator(name = "projects_seq", sequenceName = "projects_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
+    @Convert(converter = ReferenceConverter.Field.class)
+    @Column(name = "field_id")
     private String field;
 
     private String description;
 
+    @Convert(converter = ReferenceConverter.Experience.class)
+    @Column(name = "experience_id")
     private String experience;
 
     private LocalDate deadline;
 
+    // Maintained by the database and DeadlineScheduler, see the "project status triggers" changeset
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'OPEN'")
+    @Column(insertable = false, updatable = false)
+    private ProjectStatus status;
+
+    // Maintained by database triggers, see the "add row versions" changeset
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JsonManagedReference
     private Set<Vacancy> vacancies = new HashSet<>();
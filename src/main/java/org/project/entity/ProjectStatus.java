@@ -0,0 +1,10 @@
+package org.project.entity;
+
+/**
+ * Lifecycle of a project. A project is closed once its deadline has passed, the vacancies of
+ * closed projects no longer show up in search, lookup and matching.
+ */
+public enum ProjectStatus {
+    OPEN,
+    CLOSED
+}
@@ -3,6 +3,10 @@ package org.project.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.project.reference.ReferenceConverter;
 
 @Entity
 @Getter
@@ -14,21 +18,34 @@ import lombok.*;
 public class Vacancy {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vacancies_seq")
+    @SequenceGenerator(name = "vacancies_seq", sequenceName = "vacancies_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
+    @Convert(converter = ReferenceConverter.Field.class)
+    @Column(name = "field_id")
     private String field;
 
+    @Convert(converter = ReferenceConverter.Experience.class)
+    @Column(name = "experience_id")
     private String experience;
 
+    @Convert(converter = ReferenceConverter.Country.class)
+    @Column(name = "country_id")
     private String country;
 
     private String description;
 
+    // Maintained by database triggers, see the "add row versions" changeset
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonBackReference
     private Project project;
 }
@@ -0,0 +1,8 @@
+package org.project.exception;
+
+public class ChangesExpiredException extends RuntimeException {
+
+    public ChangesExpiredException(String message) {
+        super(message);
+    }
+}
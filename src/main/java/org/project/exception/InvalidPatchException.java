@@ -0,0 +1,17 @@
+package org.project.exception;
+
+import java.util.Map;
+
+public class InvalidPatchException extends RuntimeException {
+
+    private final Map<String, String> errors;
+
+    public InvalidPatchException(Map<String, String> errors) {
+        super("Invalid merge patch: " + errors);
+        this.errors = Map.copyOf(errors);
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
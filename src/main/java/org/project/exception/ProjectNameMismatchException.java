@@ -0,0 +1,8 @@
+package org.project.exception;
+
+public class ProjectNameMismatchException extends RuntimeException {
+
+    public ProjectNameMismatchException(String message) {
+        super(message);
+    }
+}
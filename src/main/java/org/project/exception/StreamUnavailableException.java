@@ -0,0 +1,8 @@
+package org.project.exception;
+
+public class StreamUnavailableException extends RuntimeException {
+
+    public StreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.project.exception;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+
+    public UnsupportedExportFormatException(String message) {
+        super(message);
+    }
+}
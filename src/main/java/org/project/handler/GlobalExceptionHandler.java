@@ -1,21 +1,47 @@
 package org.project.handler;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.project.exception.AlreadyExistsException;
+import org.project.exception.ChangesExpiredException;
+import org.project.exception.InvalidCursorException;
+import org.project.exception.InvalidPatchException;
 import org.project.exception.NotFoundInAppException;
+import org.project.exception.PreconditionFailedException;
+import org.project.exception.ProjectNameMismatchException;
+import org.project.exception.StreamUnavailableException;
+import org.project.exception.UnsupportedExportFormatException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Set<String> PRESENCE_CONSTRAINTS = Set.of("NotBlank", "NotNull", "NotEmpty");
+
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        // Web slice tests have no registry
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
     @ExceptionHandler({NotFoundInAppException.class})
     public ResponseEntity<Object> handleNotFoundException(Exception ex) {
+        count(ex);
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
@@ -25,13 +51,60 @@ public class GlobalExceptionHandler {
         ex.getBindingResult().getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
-            errors.put(fieldName, errorMessage);
+            // A blank value usually breaks several constraints at once, the "must not be empty" one is the useful message
+            if (!errors.containsKey(fieldName) || PRESENCE_CONSTRAINTS.contains(error.getCode())) {
+                errors.put(fieldName, errorMessage);
+            }
         });
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({InvalidPatchException.class})
+    public ResponseEntity<Map<String, String>> handleInvalidPatchException(InvalidPatchException ex) {
+        return new ResponseEntity<>(ex.getErrors(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({InvalidCursorException.class, UnsupportedExportFormatException.class,
+            ProjectNameMismatchException.class})
+    public ResponseEntity<Object> handleBadRequestException(Exception e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler({AlreadyExistsException.class})
     public ResponseEntity<Object> handlerAlreadyExistsException(Exception e) {
+        count(e);
         return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
     }
+
+    @ExceptionHandler({PreconditionFailedException.class})
+    public ResponseEntity<Object> handlePreconditionFailedException(Exception e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler({ChangesExpiredException.class})
+    public ResponseEntity<Object> handleChangesExpiredException(Exception e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.GONE);
+    }
+
+    @ExceptionHandler({StreamUnavailableException.class})
+    public ResponseEntity<Object> handleStreamUnavailableException(Exception e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // No connection within the acquire timeout, the database is down or a shared cache load took too long
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            QueryTimeoutException.class})
+    public ResponseEntity<Object> handleDatabaseUnavailableException(Exception e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Service temporarily unavailable, please retry");
+    }
+
+    private void count(Exception e) {
+        Counter.builder("app.exceptions")
+                .description("Handled application exceptions")
+                .tag("exception", e.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
 }
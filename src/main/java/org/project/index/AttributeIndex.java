@@ -0,0 +1,282 @@
+package org.project.index;
+
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyLookupResponseDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Inverted index over the categorical attributes of vacancies.
+ * <p>
+ * Every attribute value is dictionary encoded to an int code, and every code has a posting
+ * list of the ordinals of the vacancies carrying it. Ordinals are dense and only appended:
+ * an updated vacancy is tombstoned and appended again, so posting lists stay sorted and are
+ * never shifted. Once tombstones outnumber live vacancies {@link #compactIfNeeded()} builds
+ * a fresh copy.
+ * <p>
+ * Not thread safe, {@link VacancyIndex} guards it with a read-write lock.
+ */
+final class AttributeIndex {
+
+    static final int FIELD = 0;
+
+    static final int COUNTRY = 1;
+
+    static final int EXPERIENCE = 2;
+
+    private static final int ATTRIBUTES = 3;
+
+    private static final int NO_VALUE = -1;
+
+    private static final int UNKNOWN_VALUE = -2;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    private final List<Map<String, Integer>> dictionaries = new ArrayList<>(ATTRIBUTES);
+
+    private final List<List<String>> values = new ArrayList<>(ATTRIBUTES);
+
+    private final List<List<IntList>> postings = new ArrayList<>(ATTRIBUTES);
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    private final BitSet live = new BitSet();
+
+    private long[] vacancyIds = new long[INITIAL_CAPACITY];
+
+    private long[] projectIds = new long[INITIAL_CAPACITY];
+
+    private int[][] codes = new int[ATTRIBUTES][INITIAL_CAPACITY];
+
+    private int size;
+
+    private int tombstones;
+
+    AttributeIndex() {
+        for (int attribute = 0; attribute < ATTRIBUTES; attribute++) {
+            dictionaries.add(new HashMap<>());
+            values.add(new ArrayList<>());
+            postings.add(new ArrayList<>());
+        }
+    }
+
+    int liveCount() {
+        return ordinals.size();
+    }
+
+    boolean contains(Long vacancyId) {
+        return ordinals.containsKey(vacancyId);
+    }
+
+    void put(VacancyIndexRow row) {
+        Integer existing = ordinals.get(row.id());
+        if (existing != null) {
+            if (sameAs(existing, row)) {
+                return;
+            }
+            tombstone(existing);
+        }
+        if (size == vacancyIds.length) {
+            grow();
+        }
+        int ordinal = size++;
+        vacancyIds[ordinal] = row.id();
+        projectIds[ordinal] = row.projectId();
+        index(FIELD, ordinal, row.field());
+        index(COUNTRY, ordinal, row.country());
+        index(EXPERIENCE, ordinal, row.experience());
+        live.set(ordinal);
+        ordinals.put(row.id(), ordinal);
+    }
+
+    void remove(Long vacancyId) {
+        Integer ordinal = ordinals.get(vacancyId);
+        if (ordinal != null) {
+            tombstone(ordinal);
+        }
+    }
+
+    void removeProjects(Collection<Long> removedProjectIds) {
+        long[] sorted = removedProjectIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            if (Arrays.binarySearch(sorted, projectIds[ordinal]) >= 0) {
+                tombstone(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Counts all matching vacancies and returns the ids of the first {@code limit} of them,
+     * in no particular order.
+     * <p>
+     * The scan is driven by the constrained attribute with the shortest posting lists, the
+     * other attributes are checked against the per-ordinal codes, so apart from the result
+     * nothing is allocated per vacancy.
+     */
+    VacancyLookupResponseDto query(VacancyAttributeFilter filter, int limit) {
+        int[][] wanted = {
+                encode(FIELD, filter.fields()),
+                encode(COUNTRY, filter.countries()),
+                encode(EXPERIENCE, filter.experiences())
+        };
+        int driver = NO_VALUE;
+        long cheapest = Long.MAX_VALUE;
+        for (int attribute = 0; attribute < ATTRIBUTES; attribute++) {
+            if (wanted[attribute] != null) {
+                long cost = 0;
+                for (int code : wanted[attribute]) {
+                    cost += postings.get(attribute).get(code).size;
+                }
+                if (cost < cheapest) {
+                    cheapest = cost;
+                    driver = attribute;
+                }
+            }
+        }
+
+        long[] ids = new long[Math.min(limit, liveCount())];
+        int total = 0;
+        if (driver == NO_VALUE) {
+            for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+                if (total < ids.length) {
+                    ids[total] = vacancyIds[ordinal];
+                }
+                total++;
+            }
+        } else {
+            // A vacancy has one value per attribute, so the posting lists of the driver never overlap
+            for (int code : wanted[driver]) {
+                IntList posting = postings.get(driver).get(code);
+                for (int i = 0; i < posting.size; i++) {
+                    int ordinal = posting.items[i];
+                    if (live.get(ordinal) && matches(ordinal, wanted, driver)) {
+                        if (total < ids.length) {
+                            ids[total] = vacancyIds[ordinal];
+                        }
+                        total++;
+                    }
+                }
+            }
+        }
+        return new VacancyLookupResponseDto(total, total < ids.length ? Arrays.copyOf(ids, total) : ids);
+    }
+
+    /**
+     * Returns a copy without tombstones and unused dictionary values, or this index if it is
+     * still dense enough.
+     */
+    AttributeIndex compactIfNeeded() {
+        if (tombstones < MIN_TOMBSTONES_TO_COMPACT || tombstones <= liveCount()) {
+            return this;
+        }
+        AttributeIndex compacted = new AttributeIndex();
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            compacted.put(new VacancyIndexRow(vacancyIds[ordinal], projectIds[ordinal],
+                    decode(FIELD, ordinal), decode(COUNTRY, ordinal), decode(EXPERIENCE, ordinal)));
+        }
+        return compacted;
+    }
+
+    private boolean matches(int ordinal, int[][] wanted, int driver) {
+        for (int attribute = 0; attribute < ATTRIBUTES; attribute++) {
+            if (attribute != driver && wanted[attribute] != null && !contains(wanted[attribute], codes[attribute][ordinal])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] array, int value) {
+        for (int item : array) {
+            if (item == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the codes of the known values, or null when the attribute is not constrained.
+     */
+    private int[] encode(int attribute, List<String> attributeValues) {
+        if (attributeValues == null || attributeValues.isEmpty()) {
+            return null;
+        }
+        Map<String, Integer> dictionary = dictionaries.get(attribute);
+        return attributeValues.stream()
+                .distinct()
+                .map(dictionary::get)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private String decode(int attribute, int ordinal) {
+        int code = codes[attribute][ordinal];
+        return code == NO_VALUE ? null : values.get(attribute).get(code);
+    }
+
+    private void index(int attribute, int ordinal, String value) {
+        if (value == null) {
+            codes[attribute][ordinal] = NO_VALUE;
+            return;
+        }
+        List<IntList> attributePostings = postings.get(attribute);
+        int code = dictionaries.get(attribute).computeIfAbsent(value, v -> {
+            values.get(attribute).add(v);
+            attributePostings.add(new IntList());
+            return attributePostings.size() - 1;
+        });
+        codes[attribute][ordinal] = code;
+        attributePostings.get(code).add(ordinal);
+    }
+
+    private boolean sameAs(int ordinal, VacancyIndexRow row) {
+        return projectIds[ordinal] == row.projectId()
+                && codes[FIELD][ordinal] == codeOf(FIELD, row.field())
+                && codes[COUNTRY][ordinal] == codeOf(COUNTRY, row.country())
+                && codes[EXPERIENCE][ordinal] == codeOf(EXPERIENCE, row.experience());
+    }
+
+    private int codeOf(int attribute, String value) {
+        return value == null ? NO_VALUE : dictionaries.get(attribute).getOrDefault(value, UNKNOWN_VALUE);
+    }
+
+    private void tombstone(int ordinal) {
+        live.clear(ordinal);
+        ordinals.remove(vacancyIds[ordinal]);
+        tombstones++;
+    }
+
+    private void grow() {
+        int capacity = vacancyIds.length * 2;
+        vacancyIds = Arrays.copyOf(vacancyIds, capacity);
+        projectIds = Arrays.copyOf(projectIds, capacity);
+        for (int attribute = 0; attribute < ATTRIBUTES; attribute++) {
+            codes[attribute] = Arrays.copyOf(codes[attribute], capacity);
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] items = new int[8];
+
+        private int size;
+
+        private void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package org.project.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.cache.RemoteInvalidationEvent;
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyLookupResponseDto;
+import org.project.entity.Vacancy;
+import org.project.repository.VacancyJpaRepository;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index answering field / country / experience lookups without touching the database.
+ * <p>
+ * Loaded while the application starts, before the web server accepts requests. Writes of this
+ * node are applied from the saved entities after their transaction commits. Changes of other
+ * nodes arrive as {@link RemoteInvalidationEvent}s and are applied by reloading the affected
+ * projects. A reload only wins if no local write to one of its projects was applied while it
+ * read the database, otherwise it reads them again. The database is never read under the lock,
+ * so lookups never wait for it.
+ */
+@Slf4j
+@Component
+public class VacancyIndex implements SmartLifecycle {
+
+    // After the invalidation listener, before the web server
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 2048;
+
+    private static final long MAX_RELOAD_BACKOFF_MILLIS = 200;
+
+    private final VacancyJpaRepository vacancyRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Serializes rebuilds without a monitor, which would pin a virtual thread while it reads the table
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Reloads reading the database, by project, guarded by the write lock
+    private final Map<Long, List<Reload>> reloading = new HashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private AttributeIndex index = new AttributeIndex();
+
+    // Projects changed while a full rebuild is reading the table, reloaded once it is swapped in
+    private Set<Long> changedDuringRebuild;
+
+    private volatile boolean running;
+
+    public VacancyIndex(VacancyJpaRepository vacancyRepository, PlatformTransactionManager transactionManager) {
+        this.vacancyRepository = vacancyRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public VacancyLookupResponseDto query(VacancyAttributeFilter filter, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.query(filter, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Grows with every change applied to the index, lets derived structures tell whether they are stale.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public void put(Collection<Vacancy> vacancies) {
+        putRows(vacancies.stream().map(VacancyIndexRow::of).toList());
+    }
+
+    public void putRows(Collection<VacancyIndexRow> vacancies) {
+        List<VacancyIndexRow> rows = List.copyOf(vacancies);
+        Set<Long> projectIds = new HashSet<>();
+        rows.forEach(row -> projectIds.add(row.projectId()));
+        afterCommit(() -> applyLocal(projectIds, current -> rows.forEach(current::put)));
+    }
+
+    /**
+     * Applies changed vacancies that are in the index already. Vacancies of closed projects are
+     * not indexed, a change to one of them leaves it out.
+     */
+    public void replaceRows(Collection<VacancyIndexRow> vacancies) {
+        List<VacancyIndexRow> rows = List.copyOf(vacancies);
+        Set<Long> projectIds = new HashSet<>();
+        rows.forEach(row -> projectIds.add(row.projectId()));
+        afterCommit(() -> applyLocal(projectIds, current -> rows.stream()
+                .filter(row -> current.contains(row.id()))
+                .forEach(current::put)));
+    }
+
+    public void remove(Long projectId, Collection<Long> vacancyIds) {
+        List<Long> ids = List.copyOf(vacancyIds);
+        afterCommit(() -> applyLocal(Set.of(projectId), current -> ids.forEach(current::remove)));
+    }
+
+    public void removeProject(Long projectId) {
+        removeProjects(Set.of(projectId));
+    }
+
+    public void removeProjects(Collection<Long> projectIds) {
+        Set<Long> ids = Set.copyOf(projectIds);
+        afterCommit(() -> applyLocal(ids, current -> current.removeProjects(ids)));
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(RemoteInvalidationEvent event) {
+        if (!running) {
+            // Not loaded yet, the initial load will read the current state anyway
+            return;
+        }
+        if (event.all()) {
+            rebuild();
+            return;
+        }
+        Set<Long> projectIds = event.projectVacanciesIds();
+        if (!projectIds.isEmpty()) {
+            reloadProjects(projectIds);
+        }
+    }
+
+    /**
+     * Reads the whole table into a fresh index and swaps it in.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        AttributeIndex fresh = new AttributeIndex();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<VacancyIndexRow> rows = vacancyRepository.streamIndexRows()) {
+                    rows.forEach(fresh::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        Set<Long> changed;
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+            version.incrementAndGet();
+            changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!changed.isEmpty()) {
+            reloadProjects(changed);
+        }
+        log.info("Vacancy index loaded with {} vacancies in {} ms", size(), System.currentTimeMillis() - started);
+    }
+
+    void reloadProjects(Set<Long> projectIds) {
+        for (int attempt = 1; ; attempt++) {
+            Reload reload = new Reload(Set.copyOf(projectIds));
+            lock.writeLock().lock();
+            try {
+                reload.projectIds.forEach(id -> reloading.computeIfAbsent(id, key -> new ArrayList<>()).add(reload));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            List<VacancyIndexRow> rows;
+            try {
+                rows = vacancyRepository.findIndexRowsByProjectIdIn(projectIds);
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    unregister(reload);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                unregister(reload);
+                if (!reload.stale) {
+                    index.removeProjects(projectIds);
+                    rows.forEach(index::put);
+                    version.incrementAndGet();
+                    markChanged(projectIds);
+                    index = index.compactIfNeeded();
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // A local write to one of the projects came in while reading, the rows may be older than it
+            if (!backOff(attempt)) {
+                log.warn("Interrupted while reloading projects {} into the vacancy index", projectIds);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        rebuild();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void applyLocal(Set<Long> projectIds, Consumer<AttributeIndex> change) {
+        lock.writeLock().lock();
+        try {
+            projectIds.forEach(id -> reloading.getOrDefault(id, List.of()).forEach(reload -> reload.stale = true));
+            change.accept(index);
+            version.incrementAndGet();
+            markChanged(projectIds);
+            index = index.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unregister(Reload reload) {
+        reload.projectIds.forEach(id -> reloading.computeIfPresent(id, (key, reloads) -> {
+            reloads.remove(reload);
+            return reloads.isEmpty() ? null : reloads;
+        }));
+    }
+
+    private void markChanged(Set<Long> projectIds) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.addAll(projectIds);
+        }
+    }
+
+    private static boolean backOff(int attempt) {
+        try {
+            Thread.sleep(Math.min(MAX_RELOAD_BACKOFF_MILLIS, 10L * attempt));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Reload {
+
+        private final Set<Long> projectIds;
+
+        // Guarded by the write lock
+        private boolean stale;
+
+        Reload(Set<Long> projectIds) {
+            this.projectIds = projectIds;
+        }
+    }
+}
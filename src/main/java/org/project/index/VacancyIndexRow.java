@@ -0,0 +1,25 @@
+package org.project.index;
+
+import org.project.dto.VacancyResponseDto;
+import org.project.entity.Vacancy;
+
+/**
+ * The part of a vacancy the index needs, loaded with a constructor expression so that
+ * no entities are created when the whole table is read.
+ */
+public record VacancyIndexRow(Long id,
+                              Long projectId,
+                              String field,
+                              String country,
+                              String experience){
+
+    public static VacancyIndexRow of(Vacancy vacancy) {
+        return new VacancyIndexRow(vacancy.getId(), vacancy.getProject().getId(),
+                vacancy.getField(), vacancy.getCountry(), vacancy.getExperience());
+    }
+
+    public static VacancyIndexRow of(VacancyResponseDto vacancy) {
+        return new VacancyIndexRow(vacancy.id(), vacancy.projectId(),
+                vacancy.field(), vacancy.country(), vacancy.experience());
+    }
+}
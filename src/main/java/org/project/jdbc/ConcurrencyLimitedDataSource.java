@@ -0,0 +1,137 @@
+package org.project.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+/**
+ * Caps the number of connections handed out at once and fails fast once callers have waited
+ * too long.
+ * <p>
+ * With virtual threads every request gets its own thread, so thousands of them can ask the pool
+ * for a connection at the same moment. They queue here on a fair semaphore instead. The queue is
+ * bounded: once {@code maxWaiting} callers wait, further callers are rejected at once, otherwise
+ * under sustained overload every caller would wait out the full timeout and fail anyway. A caller
+ * that cannot get a permit within the acquire timeout gets a {@link SQLTransientConnectionException}
+ * rather than sitting in the pool until its own, much longer, connection timeout. The permit is
+ * returned when the connection is closed.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+
+    private final int maxConcurrent;
+
+    private final int maxWaiting;
+
+    private final long acquireTimeoutNanos;
+
+    private volatile LongConsumer waitRecorder = nanos -> {
+    };
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrent, int maxWaiting, Duration acquireTimeout) {
+        super(target);
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return limited(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return limited(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Receives how many nanoseconds every caller waited for a permit, including those that timed out.
+     */
+    public void setWaitRecorder(LongConsumer waitRecorder) {
+        this.waitRecorder = waitRecorder;
+    }
+
+    private void acquire() throws SQLException {
+        // Approximate, a few more callers than the limit may get through to wait
+        if (permits.availablePermits() == 0 && permits.getQueueLength() >= maxWaiting) {
+            throw new SQLTransientConnectionException("No database connection available, "
+                    + maxWaiting + " callers already waiting");
+        }
+        long started = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+            waitRecorder.accept(System.nanoTime() - started);
+            if (!acquired) {
+                throw new SQLTransientConnectionException("No database connection available within "
+                        + Duration.ofNanos(acquireTimeoutNanos).toMillis() + " ms, " + waiting() + " callers waiting");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private Connection limited(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,89 @@
+package org.project.jdbc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ring buffer of the latest statements that ran longer than the threshold, newest first.
+ * <p>
+ * Bind parameters are kept as truncated strings, so a large value does not stay reachable
+ * from the buffer.
+ */
+public class SlowQueryLog {
+
+    static final int MAX_VALUE_LENGTH = 200;
+
+    private final long thresholdNanos;
+
+    private final SlowQuery[] entries;
+
+    // Not synchronized, the offering thread may be a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int next;
+
+    private int size;
+
+    public SlowQueryLog(Duration threshold, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.entries = new SlowQuery[capacity];
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    public void add(SlowQuery query) {
+        lock.lock();
+        try {
+            entries[next] = query;
+            next = (next + 1) % entries.length;
+            size = Math.min(size + 1, entries.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<SlowQuery> entries() {
+        lock.lock();
+        try {
+            List<SlowQuery> result = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                result.add(entries[Math.floorMod(next - i, entries.length)]);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            Arrays.fill(entries, null);
+            next = 0;
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static String truncate(Object value) {
+        String text = String.valueOf(value);
+        return text.length() <= MAX_VALUE_LENGTH ? text : text.substring(0, MAX_VALUE_LENGTH) + "...";
+    }
+
+    /**
+     * @param parameters bind parameters per execution, more than one for a batch
+     * @param request    the request that ran the statement, null for background work
+     */
+    public record SlowQuery(Instant at, long elapsedMillis, String sql, List<List<String>> parameters, String request) {
+    }
+}
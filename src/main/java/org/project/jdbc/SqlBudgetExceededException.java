@@ -0,0 +1,11 @@
+package org.project.jdbc;
+
+/**
+ * Thrown instead of running a statement beyond the SQL budget of a request, when budgets are enforced.
+ */
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    public SqlBudgetExceededException(String name, int budget) {
+        super(name + " exceeded its budget of " + budget + " SQL statements");
+    }
+}
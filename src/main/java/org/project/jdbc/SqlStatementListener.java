@@ -0,0 +1,70 @@
+package org.project.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Counts and times every statement into the {@link SqlStatementStats} of the executing thread
+ * and hands slow statements to the {@link SlowQueryLog}.
+ * <p>
+ * One execution counts as one statement, a JDBC batch included, since it is one round trip.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final String STARTED = SqlStatementListener.class.getName() + ".started";
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SqlStatementListener(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.beforeStatement();
+        }
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        if (started == null) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.afterStatement(elapsedNanos);
+        }
+        if (slowQueryLog.isSlow(elapsedNanos)) {
+            slowQueryLog.add(new SlowQueryLog.SlowQuery(Instant.now(), elapsedNanos / 1_000_000,
+                    queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining(";\n")),
+                    parameters(queryInfoList),
+                    stats == null ? null : stats.name()));
+        }
+    }
+
+    private static List<List<String>> parameters(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .flatMap(query -> query.getParametersList().stream())
+                .map(operations -> operations.stream().map(SqlStatementListener::value).toList())
+                .toList();
+    }
+
+    private static String value(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2) {
+            return "null";
+        }
+        return SlowQueryLog.truncate(args[1]);
+    }
+}
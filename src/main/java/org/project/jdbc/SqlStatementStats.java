@@ -0,0 +1,110 @@
+package org.project.jdbc;
+
+import java.time.Duration;
+
+/**
+ * SQL statements run by the current thread while the stats are open.
+ * <p>
+ * {@link SqlStatementListener} counts into the stats bound to the executing thread, so they
+ * only see work done on that thread. Opened per request by
+ * {@link org.project.diagnostics.SqlBudgetInterceptor}; tests open them around the code under
+ * test to assert exact statement counts:
+ * <pre>{@code
+ * try (SqlStatementStats stats = SqlStatementStats.start()) {
+ *     repository.findVacancyRowsById(id);
+ *     assertEquals(1, stats.statements());
+ * }
+ * }</pre>
+ * Not thread safe, the stats belong to the thread that opened them.
+ */
+public final class SqlStatementStats implements AutoCloseable {
+
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+
+    private final int budget;
+
+    private final boolean failOverBudget;
+
+    private final SqlStatementStats previous;
+
+    private int statements;
+
+    private long nanos;
+
+    private SqlStatementStats(String name, int budget, boolean failOverBudget, SqlStatementStats previous) {
+        this.name = name;
+        this.budget = budget;
+        this.failOverBudget = failOverBudget;
+        this.previous = previous;
+    }
+
+    /**
+     * Opens stats without a budget on the current thread.
+     */
+    public static SqlStatementStats start() {
+        return start("test", UNLIMITED, false);
+    }
+
+    /**
+     * Opens stats on the current thread. With {@code failOverBudget} the statement that would
+     * exceed the budget fails with {@link SqlBudgetExceededException} before it reaches the database.
+     */
+    public static SqlStatementStats start(String name, int budget, boolean failOverBudget) {
+        SqlStatementStats stats = new SqlStatementStats(name, budget, failOverBudget, CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * The stats open on the current thread, or null.
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int budget() {
+        return budget;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public Duration time() {
+        return Duration.ofNanos(nanos);
+    }
+
+    public boolean overBudget() {
+        return statements > budget;
+    }
+
+    void beforeStatement() {
+        if (failOverBudget && statements >= budget) {
+            throw new SqlBudgetExceededException(name, budget);
+        }
+    }
+
+    void afterStatement(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
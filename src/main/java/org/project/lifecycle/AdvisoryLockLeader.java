@@ -0,0 +1,150 @@
+package org.project.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Elects one node as the leader with a session level Postgres advisory lock.
+ * <p>
+ * The lock is held by a JDBC connection of its own outside of the pool, Postgres releases it
+ * when that connection ends, so a node that dies or loses its connection gives up leadership
+ * without any timeout of ours. Nodes that are not the leader try to take the lock whenever they
+ * ask. The leader checks its connection at most every few seconds, so for a short while after
+ * a connection loss two nodes may both act as leader; work done by the leader has to be
+ * idempotent. Every new acquisition starts a new {@link #term()}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.lifecycle.enabled", havingValue = "true")
+public class AdvisoryLockLeader implements SmartLifecycle {
+
+    private static final long VALIDATE_INTERVAL_MS = 10_000;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final long key;
+
+    // Not a monitor, the JDBC calls under it would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Connection connection;
+
+    private boolean leader;
+
+    private long term;
+
+    private long validatedAt;
+
+    private volatile boolean running;
+
+    public AdvisoryLockLeader(DataSourceProperties dataSourceProperties,
+                              @Value("${app.lifecycle.lock-key:7253011}") long key) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.key = key;
+    }
+
+    /**
+     * Whether this node holds the lock, taking it if no other node does.
+     */
+    public boolean isLeader() {
+        lock.lock();
+        try {
+            if (!running) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            if (leader && now - validatedAt < VALIDATE_INTERVAL_MS) {
+                return true;
+            }
+            try {
+                if (leader) {
+                    if (connection.isValid(2)) {
+                        validatedAt = now;
+                        return true;
+                    }
+                    log.warn("Connection holding leader lock {} is no longer valid", key);
+                    release();
+                }
+                if (connection == null) {
+                    connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                            dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                }
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT pg_try_advisory_lock(" + key + ")")) {
+                    rs.next();
+                    leader = rs.getBoolean(1);
+                }
+                if (leader) {
+                    term++;
+                    validatedAt = now;
+                    log.info("Took leader lock {}", key);
+                }
+                return leader;
+            } catch (SQLException e) {
+                log.warn("Could not take leader lock {}", key, e);
+                release();
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grows every time this node takes the lock, state built up in an earlier term may be stale.
+     */
+    public long term() {
+        lock.lock();
+        try {
+            return term;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void release() {
+        leader = false;
+        if (connection == null) {
+            return;
+        }
+        try {
+            // Closing the session releases the lock
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close the leader lock connection", e);
+        }
+        connection = null;
+    }
+}
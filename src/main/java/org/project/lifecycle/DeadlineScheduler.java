@@ -0,0 +1,268 @@
+package org.project.lifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.project.cache.CacheInvalidator;
+import org.project.index.VacancyIndex;
+import org.project.outbox.ChangeOutbox;
+import org.project.outbox.ChangeType;
+import org.project.repository.ProjectDeadline;
+import org.project.repository.ProjectStatusRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Closes projects once their deadline has passed, without polling the projects table.
+ * <p>
+ * Only the node holding the {@link AdvisoryLockLeader} lock does the work. It keeps the open
+ * projects with a deadline in the next {@code app.lifecycle.window-days} in a min-heap ordered
+ * by deadline, loaded from the partial index on open deadlines one window at a time, at most
+ * {@code app.lifecycle.window-size} projects per load. {@code ProjectServiceImpl} reports new,
+ * changed and deleted deadlines of its node with {@link #schedule} and {@link #cancel}; heap
+ * entries whose deadline no longer matches are skipped when they come up. Projects that expire
+ * are closed in batches of {@code app.lifecycle.batch-size}, one transaction each.
+ * <p>
+ * Writes of other nodes do not reach the heap, and a new leader starts without one. Once a day,
+ * and whenever a node becomes the leader, the index is swept for open projects past their deadline
+ * after the heap has fired. The sweep skips rows a write holds, so it runs again on every tick
+ * until the index has no such project left. The first window of a leader has no lower bound
+ * either, so projects that expired while no node was leading are closed right away.
+ */
+@Slf4j
+@Component
+public class DeadlineScheduler {
+
+    private final ProjectStatusRepository statusRepository;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    private final VacancyIndex vacancyIndex;
+
+    private final ChangeOutbox changeOutbox;
+
+    private final Optional<AdvisoryLockLeader> leader;
+
+    private final TransactionTemplate transaction;
+
+    private final Clock clock;
+
+    private final Counter closed;
+
+    private final int windowDays;
+
+    private final int windowSize;
+
+    private final int batchSize;
+
+    // Not a monitor, loading a window under it would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final PriorityQueue<Due> heap = new PriorityQueue<>();
+
+    // The deadline each tracked project is due with, heap entries that disagree are stale
+    private final Map<Long, LocalDate> tracked = new HashMap<>();
+
+    private long term = -1;
+
+    // Every open project with an earlier deadline is tracked, null while this node is not leading
+    private LocalDate loadedUntil;
+
+    private LocalDate sweptOn;
+
+    public DeadlineScheduler(ProjectStatusRepository statusRepository,
+                             CacheInvalidator cacheInvalidator,
+                             VacancyIndex vacancyIndex,
+                             ChangeOutbox changeOutbox,
+                             Optional<AdvisoryLockLeader> leader,
+                             PlatformTransactionManager transactionManager,
+                             Clock clock,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.lifecycle.window-days:7}") int windowDays,
+                             @Value("${app.lifecycle.window-size:10000}") int windowSize,
+                             @Value("${app.lifecycle.batch-size:500}") int batchSize) {
+        this.statusRepository = statusRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.vacancyIndex = vacancyIndex;
+        this.changeOutbox = changeOutbox;
+        this.leader = leader;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.closed = Counter.builder("app.lifecycle.closed")
+                .description("Projects closed after their deadline")
+                .register(meterRegistry);
+        this.windowDays = Math.max(1, windowDays);
+        this.windowSize = windowSize;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Tracks the deadline of a project written on this node, if it falls into the loaded window.
+     */
+    public void schedule(Long projectId, LocalDate deadline) {
+        lock.lock();
+        try {
+            if (loadedUntil == null) {
+                return;
+            }
+            if (deadline != null && deadline.isBefore(loadedUntil)) {
+                track(projectId, deadline);
+            } else {
+                // Moved out of the window, the load of a later window picks it up again
+                tracked.remove(projectId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel(Long projectId) {
+        lock.lock();
+        try {
+            tracked.remove(projectId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the projects that are due, if this node is the leader, and returns how many were closed.
+     */
+    @Scheduled(initialDelayString = "${app.lifecycle.initial-delay:PT10S}",
+            fixedDelayString = "${app.lifecycle.tick:PT5S}")
+    public int closeExpired() {
+        if (leader.isEmpty()) {
+            return 0;
+        }
+        boolean leading = leader.get().isLeader();
+        long currentTerm = leader.get().term();
+        LocalDate today = LocalDate.now(clock);
+        List<Long> due;
+        boolean sweep;
+        lock.lock();
+        try {
+            if (!leading || currentTerm != term) {
+                reset(currentTerm);
+                if (!leading) {
+                    return 0;
+                }
+            }
+            if (loadedUntil == null || !loadedUntil.isAfter(today)) {
+                load(today);
+            }
+            due = pollDue(today);
+            sweep = !today.equals(sweptOn);
+        } finally {
+            lock.unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        int total = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            total += closeBatch(() -> statusRepository.close(batch, today));
+        }
+        int untracked = 0;
+        if (sweep) {
+            int swept;
+            do {
+                swept = closeBatch(() -> statusRepository.closeExpired(today, batchSize));
+                untracked += swept;
+            } while (swept == batchSize);
+            // Rows held by a write were skipped, the sweep runs again on the next tick until none is left
+            if (!statusRepository.existsExpired(today)) {
+                lock.lock();
+                try {
+                    sweptOn = today;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        total += untracked;
+        if (total > 0) {
+            closed.increment(total);
+            log.info("Closed {} projects with a deadline before {} in {} ms, {} of them found by the sweep",
+                    total, today, System.currentTimeMillis() - started, untracked);
+        }
+        return total;
+    }
+
+    private void reset(long currentTerm) {
+        heap.clear();
+        tracked.clear();
+        loadedUntil = null;
+        sweptOn = null;
+        term = currentTerm;
+    }
+
+    private void load(LocalDate today) {
+        LocalDate from = loadedUntil;
+        LocalDate until = today.plusDays(windowDays);
+        List<ProjectDeadline> deadlines = statusRepository.findOpenByDeadline(from, until, windowSize);
+        deadlines.forEach(deadline -> track(deadline.projectId(), deadline.deadline()));
+        if (deadlines.size() < windowSize) {
+            loadedUntil = until;
+            return;
+        }
+        // Full: the last date may be loaded only in part and is read again by the next load. A date
+        // holding more than a whole window is given up on, its remainder is left to the sweep
+        LocalDate last = deadlines.get(deadlines.size() - 1).deadline();
+        loadedUntil = last.equals(from) ? last.plusDays(1) : last;
+    }
+
+    private void track(Long projectId, LocalDate deadline) {
+        if (!deadline.equals(tracked.put(projectId, deadline))) {
+            heap.add(new Due(deadline, projectId));
+        }
+    }
+
+    private List<Long> pollDue(LocalDate today) {
+        List<Long> due = new ArrayList<>();
+        while (!heap.isEmpty() && heap.peek().deadline().isBefore(today)) {
+            Due next = heap.poll();
+            if (next.deadline().equals(tracked.get(next.projectId()))) {
+                tracked.remove(next.projectId());
+                due.add(next.projectId());
+            }
+        }
+        return due;
+    }
+
+    private int closeBatch(Supplier<List<Long>> statement) {
+        List<Long> ids = transaction.execute(status -> {
+            List<Long> closedIds = statement.get();
+            changeOutbox.projects(ChangeType.CLOSED, closedIds);
+            // The vacancies key drops the cached project as well, here and on the other nodes
+            closedIds.forEach(cacheInvalidator::evictProjectVacancies);
+            if (!closedIds.isEmpty()) {
+                vacancyIndex.removeProjects(closedIds);
+            }
+            return closedIds;
+        });
+        return ids.size();
+    }
+
+    private record Due(LocalDate deadline, Long projectId) implements Comparable<Due> {
+
+        @Override
+        public int compareTo(Due other) {
+            int byDeadline = deadline.compareTo(other.deadline);
+            return byDeadline != 0 ? byDeadline : projectId.compareTo(other.projectId);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package org.project.match;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.index.VacancyIndex;
+import org.project.repository.VacancyJpaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Ranks all vacancies against a candidate profile.
+ * <p>
+ * Scoring runs over an immutable {@link MatchSnapshot}, split into ranges on the common
+ * ForkJoin pool. Every range keeps its own heap bounded to the requested size and the heaps
+ * are merged when the ranges join, so no intermediate result grows with the table.
+ * <p>
+ * The snapshot is rebuilt in the background once the {@link VacancyIndex} reports a change,
+ * and at least every {@code app.match.snapshot-max-age} to pick up project deadline changes.
+ */
+@Slf4j
+@Component
+public class MatchEngine {
+
+    private static final int SPLIT_THRESHOLD = 16_384;
+
+    private final VacancyJpaRepository vacancyRepository;
+
+    private final VacancyIndex vacancyIndex;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Weights weights;
+
+    private final Duration maxAge;
+
+    // Not synchronized, a virtual thread blocked on JDBC inside a monitor would pin its carrier
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile MatchSnapshot snapshot;
+
+    private volatile long snapshotBuiltAt;
+
+    public MatchEngine(VacancyJpaRepository vacancyRepository,
+                       VacancyIndex vacancyIndex,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.match.weights.field:3.0}") float fieldWeight,
+                       @Value("${app.match.weights.country:2.0}") float countryWeight,
+                       @Value("${app.match.weights.experience:1.5}") float experienceWeight,
+                       @Value("${app.match.weights.skills:4.0}") float skillsWeight,
+                       @Value("${app.match.weights.deadline:1.0}") float deadlineWeight,
+                       @Value("${app.match.deadline-horizon-days:30}") int deadlineHorizonDays,
+                       @Value("${app.match.snapshot-max-age:5m}") Duration maxAge) {
+        this.vacancyRepository = vacancyRepository;
+        this.vacancyIndex = vacancyIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.weights = new Weights(fieldWeight, countryWeight, experienceWeight, skillsWeight,
+                deadlineWeight, deadlineHorizonDays);
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Returns the {@code limit} best scoring vacancies. Vacancies matching none of the profile
+     * attributes or skills are not returned, neither are those of projects past their deadline.
+     */
+    public MatchHits match(MatchQuery query, int limit) {
+        MatchSnapshot current = snapshot;
+        if (current == null) {
+            current = refresh();
+        }
+        int[][] skills = query.skills() == null ? new int[0][] : query.skills().stream()
+                .filter(skill -> skill != null && !skill.isBlank())
+                .map(current::skillTokens)
+                .toArray(int[][]::new);
+        Scorer scorer = new Scorer(current, weights,
+                current.fieldCode(query.field()),
+                current.countryCode(query.country()),
+                current.experienceCode(query.experience()),
+                skills,
+                (int) query.today().toEpochDay());
+
+        TopK top = ForkJoinPool.commonPool().invoke(new ScoreTask(scorer, limit, 0, current.size));
+        return top.toHits(current);
+    }
+
+    @Scheduled(fixedDelayString = "${app.match.refresh-interval:PT5S}")
+    public void refreshIfStale() {
+        MatchSnapshot current = snapshot;
+        if (current == null
+                || current.version != vacancyIndex.version()
+                || System.currentTimeMillis() - snapshotBuiltAt > maxAge.toMillis()) {
+            refresh();
+        }
+    }
+
+    MatchSnapshot refresh() {
+        refreshLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            // Taken before reading, a change that races with the load triggers the next refresh
+            MatchSnapshot.Builder builder = MatchSnapshot.builder(vacancyIndex.version());
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<MatchRow> rows = vacancyRepository.streamMatchRows()) {
+                    rows.forEach(builder::add);
+                }
+            });
+            MatchSnapshot built = builder.build();
+            snapshot = built;
+            snapshotBuiltAt = started;
+            log.debug("Match snapshot built with {} vacancies in {} ms", built.size, System.currentTimeMillis() - started);
+            return built;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private record Weights(float field, float country, float experience, float skills,
+                           float deadline, int deadlineHorizonDays) {
+    }
+
+    private record Scorer(MatchSnapshot snapshot, Weights weights, int field, int country, int experience,
+                          int[][] skills, int today) {
+
+        /**
+         * Returns the score of the vacancy at the position, or 0 if it does not match at all.
+         */
+        float score(int position) {
+            int deadline = snapshot.deadlines[position];
+            if (deadline != MatchSnapshot.NO_DEADLINE && deadline < today) {
+                return 0;
+            }
+            float score = 0;
+            if (field >= 0 && snapshot.fields[position] == field) {
+                score += weights.field();
+            }
+            if (country >= 0 && snapshot.countries[position] == country) {
+                score += weights.country();
+            }
+            if (experience >= 0 && snapshot.experiences[position] == experience) {
+                score += weights.experience();
+            }
+            if (skills.length > 0) {
+                int matched = 0;
+                for (int[] skill : skills) {
+                    if (hasAll(position, skill)) {
+                        matched++;
+                    }
+                }
+                score += weights.skills() * matched / skills.length;
+            }
+            if (score > 0 && deadline != MatchSnapshot.NO_DEADLINE) {
+                int daysLeft = deadline - today;
+                if (daysLeft < weights.deadlineHorizonDays()) {
+                    score += weights.deadline() * (1 - (float) daysLeft / weights.deadlineHorizonDays());
+                }
+            }
+            return score;
+        }
+
+        private boolean hasAll(int position, int[] tokens) {
+            if (tokens.length == 0) {
+                return false;
+            }
+            for (int token : tokens) {
+                if (token < 0 || !snapshot.hasToken(position, token)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class ScoreTask extends RecursiveTask<TopK> {
+
+        private final Scorer scorer;
+
+        private final int limit;
+
+        private final int from;
+
+        private final int to;
+
+        private ScoreTask(Scorer scorer, int limit, int from, int to) {
+            this.scorer = scorer;
+            this.limit = limit;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                TopK top = new TopK(limit);
+                for (int position = from; position < to; position++) {
+                    float score = scorer.score(position);
+                    if (score > 0) {
+                        top.offer(position, score);
+                    }
+                }
+                return top;
+            }
+            int middle = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(scorer, limit, from, middle);
+            left.fork();
+            TopK right = new ScoreTask(scorer, limit, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Bounded min-heap of positions, the worst kept match at the root. On equal scores the
+     * lower position wins, which keeps the result independent of how the ranges were split.
+     */
+    static final class TopK {
+
+        private final int[] positions;
+
+        private final float[] scores;
+
+        private int size;
+
+        TopK(int capacity) {
+            this.positions = new int[capacity];
+            this.scores = new float[capacity];
+        }
+
+        void offer(int position, float score) {
+            if (size < positions.length) {
+                positions[size] = position;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (size > 0 && worse(positions[0], scores[0], position, score)) {
+                positions[0] = position;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        TopK merge(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.positions[i], other.scores[i]);
+            }
+            return this;
+        }
+
+        MatchHits toHits(MatchSnapshot snapshot) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> a.equals(b) ? 0 : worse(positions[a], scores[a], positions[b], scores[b]) ? 1 : -1);
+            long[] ids = new long[size];
+            float[] hitScores = new float[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = snapshot.ids[positions[order[i]]];
+                hitScores[i] = scores[order[i]];
+            }
+            return new MatchHits(ids, hitScores);
+        }
+
+        private static boolean worse(int position, float score, int otherPosition, float otherScore) {
+            return score < otherScore || (score == otherScore && position > otherPosition);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(positions[index], scores[index], positions[parent], scores[parent])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && worse(positions[left], scores[left], positions[worst], scores[worst])) {
+                    worst = left;
+                }
+                if (right < size && worse(positions[right], scores[right], positions[worst], scores[worst])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int position = positions[i];
+            positions[i] = positions[j];
+            positions[j] = position;
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+}
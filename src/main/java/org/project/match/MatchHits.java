@@ -0,0 +1,8 @@
+package org.project.match;
+
+/**
+ * Best matches first, {@code scores[i]} belongs to {@code ids[i]}.
+ */
+public record MatchHits(long[] ids,
+                        float[] scores){
+}
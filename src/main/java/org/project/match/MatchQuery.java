@@ -0,0 +1,11 @@
+package org.project.match;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record MatchQuery(String field,
+                         String country,
+                         String experience,
+                         List<String> skills,
+                         LocalDate today){
+}
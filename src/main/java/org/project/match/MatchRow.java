@@ -0,0 +1,15 @@
+package org.project.match;
+
+import java.time.LocalDate;
+
+/**
+ * The part of a vacancy and its project that is scored, read with a constructor expression.
+ */
+public record MatchRow(Long id,
+                       String field,
+                       String country,
+                       String experience,
+                       String name,
+                       String description,
+                       LocalDate deadline){
+}
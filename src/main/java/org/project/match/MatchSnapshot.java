@@ -0,0 +1,210 @@
+package org.project.match;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable columnar copy of everything the match engine scores.
+ * <p>
+ * Attribute values and skill tokens are dictionary encoded after normalization, so scoring a
+ * vacancy only compares ints. The tokens of name and description are stored deduplicated and
+ * sorted in one shared array, {@code tokens[tokenOffsets[i]..tokenOffsets[i + 1])} belong to
+ * the vacancy at position {@code i}.
+ */
+final class MatchSnapshot {
+
+    static final int NO_VALUE = -1;
+
+    static final int UNKNOWN_VALUE = -2;
+
+    static final int NO_DEADLINE = Integer.MIN_VALUE;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}+#]+");
+
+    final long version;
+
+    final int size;
+
+    final long[] ids;
+
+    final int[] fields;
+
+    final int[] countries;
+
+    final int[] experiences;
+
+    final int[] deadlines;
+
+    final int[] tokenOffsets;
+
+    final int[] tokens;
+
+    private final Map<String, Integer> fieldCodes;
+
+    private final Map<String, Integer> countryCodes;
+
+    private final Map<String, Integer> experienceCodes;
+
+    private final Map<String, Integer> tokenCodes;
+
+    private MatchSnapshot(Builder builder) {
+        this.version = builder.version;
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.fields = Arrays.copyOf(builder.fields, size);
+        this.countries = Arrays.copyOf(builder.countries, size);
+        this.experiences = Arrays.copyOf(builder.experiences, size);
+        this.deadlines = Arrays.copyOf(builder.deadlines, size);
+        this.tokenOffsets = Arrays.copyOf(builder.tokenOffsets, size + 1);
+        this.tokens = Arrays.copyOf(builder.tokens, builder.tokenCount);
+        this.fieldCodes = builder.fieldCodes;
+        this.countryCodes = builder.countryCodes;
+        this.experienceCodes = builder.experienceCodes;
+        this.tokenCodes = builder.tokenCodes;
+    }
+
+    static Builder builder(long version) {
+        return new Builder(version);
+    }
+
+    int fieldCode(String value) {
+        return code(fieldCodes, value);
+    }
+
+    int countryCode(String value) {
+        return code(countryCodes, value);
+    }
+
+    int experienceCode(String value) {
+        return code(experienceCodes, value);
+    }
+
+    /**
+     * Codes of the tokens of a skill, {@link #UNKNOWN_VALUE} for tokens no vacancy contains.
+     */
+    int[] skillTokens(String skill) {
+        return TOKEN_SEPARATOR.splitAsStream(skill.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty())
+                .mapToInt(token -> tokenCodes.getOrDefault(token, UNKNOWN_VALUE))
+                .distinct()
+                .toArray();
+    }
+
+    boolean hasToken(int position, int token) {
+        return Arrays.binarySearch(tokens, tokenOffsets[position], tokenOffsets[position + 1], token) >= 0;
+    }
+
+    static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int code(Map<String, Integer> dictionary, String value) {
+        String normalized = normalize(value);
+        if (normalized == null || normalized.isEmpty()) {
+            return NO_VALUE;
+        }
+        return dictionary.getOrDefault(normalized, UNKNOWN_VALUE);
+    }
+
+    static final class Builder {
+
+        private final long version;
+
+        private final Map<String, Integer> fieldCodes = new HashMap<>();
+
+        private final Map<String, Integer> countryCodes = new HashMap<>();
+
+        private final Map<String, Integer> experienceCodes = new HashMap<>();
+
+        private final Map<String, Integer> tokenCodes = new HashMap<>();
+
+        private long[] ids = new long[1024];
+
+        private int[] fields = new int[1024];
+
+        private int[] countries = new int[1024];
+
+        private int[] experiences = new int[1024];
+
+        private int[] deadlines = new int[1024];
+
+        private int[] tokenOffsets = new int[1025];
+
+        private int[] tokens = new int[8192];
+
+        private int[] scratch = new int[64];
+
+        private int size;
+
+        private int tokenCount;
+
+        private Builder(long version) {
+            this.version = version;
+        }
+
+        Builder add(MatchRow row) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                fields = Arrays.copyOf(fields, capacity);
+                countries = Arrays.copyOf(countries, capacity);
+                experiences = Arrays.copyOf(experiences, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+                tokenOffsets = Arrays.copyOf(tokenOffsets, capacity + 1);
+            }
+            ids[size] = row.id();
+            fields[size] = encode(fieldCodes, row.field());
+            countries[size] = encode(countryCodes, row.country());
+            experiences[size] = encode(experienceCodes, row.experience());
+            deadlines[size] = row.deadline() == null ? NO_DEADLINE : (int) row.deadline().toEpochDay();
+            addTokens(row.name(), row.description());
+            tokenOffsets[++size] = tokenCount;
+            return this;
+        }
+
+        MatchSnapshot build() {
+            return new MatchSnapshot(this);
+        }
+
+        private void addTokens(String name, String description) {
+            int count = tokenize(name, 0);
+            count = tokenize(description, count);
+            Arrays.sort(scratch, 0, count);
+            if (tokenCount + count > tokens.length) {
+                tokens = Arrays.copyOf(tokens, Math.max(tokens.length * 2, tokenCount + count));
+            }
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || scratch[i] != scratch[i - 1]) {
+                    tokens[tokenCount++] = scratch[i];
+                }
+            }
+        }
+
+        private int tokenize(String text, int count) {
+            if (text == null) {
+                return count;
+            }
+            for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                if (count == scratch.length) {
+                    scratch = Arrays.copyOf(scratch, count * 2);
+                }
+                scratch[count++] = tokenCodes.computeIfAbsent(token, t -> tokenCodes.size());
+            }
+            return count;
+        }
+
+        private static int encode(Map<String, Integer> dictionary, String value) {
+            String normalized = normalize(value);
+            if (normalized == null || normalized.isEmpty()) {
+                return NO_VALUE;
+            }
+            return dictionary.computeIfAbsent(normalized, v -> dictionary.size());
+        }
+    }
+}
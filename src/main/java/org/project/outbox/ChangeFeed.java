@@ -0,0 +1,383 @@
+package org.project.outbox;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.project.dto.ChangeEventDto;
+import org.project.exception.ChangesExpiredException;
+import org.project.repository.OutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves the change log to long-poll requests and SSE streams.
+ * <p>
+ * A request reads the log right away and only waits if there is nothing after its position.
+ * Waiting requests and open streams are served by {@link #dispatch}, which {@link OutboxRelay}
+ * calls after every run. A dispatch reads the events after the newest position it has seen once
+ * for every consumer that is up to date; a consumer further behind, a new stream or one that
+ * missed a dispatch, reads a page of its own, so it catches up without holding the others back.
+ * {@link ChangeListener}s get every event of the tail. Nothing is read while no consumer waits
+ * and no listener listens.
+ * <p>
+ * Dispatching never writes to a client. A stream buffers the events handed to it, up to
+ * {@code app.changes.stream-buffer}, and the {@link StreamWriters} send them in the order of their
+ * position, with the position as the event id. A stream without room
+ * for another page is skipped by the dispatches until it has drained, then catches up from the log
+ * like any consumer behind, so a slow client only holds back itself. A client reconnects where it
+ * left off with {@code Last-Event-ID}.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    // Events a writer sends before it lets the other streams have its thread
+    private static final int DRAIN_LIMIT = 64;
+
+    private final OutboxRepository outboxRepository;
+
+    private final int batchSize;
+
+    private final Duration streamTimeout;
+
+    private final int streamBuffer;
+
+    private final StreamWriters writers;
+
+    private final List<ChangeListener> listeners;
+
+    private final Set<Consumer> consumers = ConcurrentHashMap.newKeySet();
+
+    // Not a monitor, dispatching reads the log under it
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    // Newest position dispatched, -1 while no consumer has been waiting
+    private long last = -1;
+
+    public ChangeFeed(OutboxRepository outboxRepository,
+                      MeterRegistry meterRegistry,
+                      StreamWriters writers,
+                      List<ChangeListener> listeners,
+                      @Value("${app.changes.batch-size:500}") int batchSize,
+                      @Value("${app.changes.stream-timeout:30m}") Duration streamTimeout,
+                      @Value("${app.changes.stream-buffer:1000}") int streamBuffer) {
+        this.outboxRepository = outboxRepository;
+        this.listeners = List.copyOf(listeners);
+        this.batchSize = batchSize;
+        this.streamTimeout = streamTimeout;
+        // A stream takes a whole page at a time
+        this.streamBuffer = Math.max(streamBuffer, batchSize);
+        this.writers = writers;
+        Gauge.builder("app.changes.consumers", consumers, Set::size)
+                .description("Waiting change feed requests and open change streams")
+                .register(meterRegistry);
+    }
+
+    public long lastPosition() {
+        return outboxRepository.lastPosition();
+    }
+
+    /**
+     * Up to {@code limit} events after {@code since}, failing if some of them have already been pruned.
+     */
+    public List<ChangeEventDto> read(long since, int limit) {
+        List<ChangeEventDto> changes = outboxRepository.findAfter(since, limit);
+        // Positions have no gaps, a missing one was pruned
+        if (!changes.isEmpty() && changes.get(0).position() > since + 1) {
+            throw new ChangesExpiredException("Changes after " + since + " are no longer kept, "
+                    + "read the current state and continue from position " + (changes.get(0).position() - 1));
+        }
+        return changes;
+    }
+
+    /**
+     * The events after {@code since}, right away if there are any, otherwise the first ones
+     * published within {@code wait}, or none.
+     */
+    public CompletableFuture<List<ChangeEventDto>> poll(long since, int limit, Duration wait) {
+        List<ChangeEventDto> changes = read(since, limit);
+        if (!changes.isEmpty() || wait.isZero()) {
+            return CompletableFuture.completedFuture(changes);
+        }
+        Poll poll = new Poll(since, limit);
+        consumers.add(poll);
+        return poll.result
+                .completeOnTimeout(List.of(), wait.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, e) -> consumers.remove(poll));
+    }
+
+    /**
+     * A stream of the events after {@code since}, the ones already published first.
+     */
+    public SseEmitter stream(long since) {
+        // Fails the request, rather than the stream, if the position has expired
+        read(since, 1);
+        SseEmitter emitter = emitter(streamTimeout);
+        Stream stream = new Stream(since, emitter);
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(stream::close);
+        emitter.onError(e -> stream.close());
+        consumers.add(stream);
+        return emitter;
+    }
+
+    // Overridden by tests, for a client that reads slowly
+    SseEmitter emitter(Duration timeout) {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    /**
+     * Makes sure the events published from now on reach the listeners. An idle feed only reads the
+     * position at its next dispatch, so a listener calls this before it reads the state the events
+     * apply to, or it could miss those published in between.
+     */
+    public void listen() {
+        dispatchLock.lock();
+        try {
+            if (last < 0) {
+                last = outboxRepository.lastPosition();
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * Hands the events published since the last call to the consumers.
+     */
+    public void dispatch() {
+        dispatchLock.lock();
+        try {
+            if (consumers.isEmpty() && listeners.stream().noneMatch(ChangeListener::listening)) {
+                last = -1;
+                return;
+            }
+            if (last < 0) {
+                last = outboxRepository.lastPosition();
+            }
+            List<ChangeEventDto> tail = outboxRepository.findAfter(last, batchSize);
+            // Consumers behind the tail mostly share a few positions, those with the same one share a read
+            Map<Long, List<ChangeEventDto>> behind = new HashMap<>();
+            for (Consumer consumer : consumers) {
+                if (!consumer.ready()) {
+                    continue;
+                }
+                long cursor = consumer.cursor;
+                List<ChangeEventDto> events = cursor < last
+                        ? behind.computeIfAbsent(cursor, position -> outboxRepository.findAfter(position, batchSize))
+                        : after(tail, cursor);
+                if (!events.isEmpty() && !consumer.accept(events)) {
+                    consumers.remove(consumer);
+                }
+            }
+            for (ChangeListener listener : listeners) {
+                listener.changed(tail);
+            }
+            if (!tail.isEmpty()) {
+                last = tail.get(tail.size() - 1).position();
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private static List<ChangeEventDto> after(List<ChangeEventDto> events, long cursor) {
+        int from = 0;
+        while (from < events.size() && events.get(from).position() <= cursor) {
+            from++;
+        }
+        return events.subList(from, events.size());
+    }
+
+    private abstract static class Consumer {
+
+        // Position of the last event handed over, written by the dispatching thread only
+        volatile long cursor;
+
+        Consumer(long cursor) {
+            this.cursor = cursor;
+        }
+
+        /**
+         * Whether it takes events now, a consumer that does not is left behind until it does.
+         */
+        boolean ready() {
+            return true;
+        }
+
+        /**
+         * Takes events following the cursor, returns false once it wants no more.
+         */
+        abstract boolean accept(List<ChangeEventDto> events);
+    }
+
+    private static final class Poll extends Consumer {
+
+        private final int limit;
+
+        private final CompletableFuture<List<ChangeEventDto>> result = new CompletableFuture<>();
+
+        Poll(long since, int limit) {
+            super(since);
+            this.limit = limit;
+        }
+
+        @Override
+        boolean accept(List<ChangeEventDto> events) {
+            result.complete(List.copyOf(events.subList(0, Math.min(limit, events.size()))));
+            return false;
+        }
+    }
+
+    private final class Stream extends Consumer {
+
+        private final SseEmitter emitter;
+
+        // Not a monitor, the buffer is filled by the dispatching thread and drained by a writer
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final ArrayDeque<ChangeEventDto> buffer = new ArrayDeque<>();
+
+        // Guarded by lock, whether a writer has the stream
+        private boolean draining;
+
+        // Guarded by lock, whether the stream completes once the buffer is sent
+        private boolean ending;
+
+        // Guarded by lock
+        private boolean closed;
+
+        Stream(long since, SseEmitter emitter) {
+            super(since);
+            this.emitter = emitter;
+        }
+
+        @Override
+        boolean ready() {
+            lock.lock();
+            try {
+                return !closed && !ending && buffer.size() + batchSize <= streamBuffer;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        boolean accept(List<ChangeEventDto> events) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                // A gap means the stream fell behind the retention, the client reconnects and is told so
+                if (events.get(0).position() > cursor + 1) {
+                    ending = true;
+                } else {
+                    buffer.addAll(events);
+                    cursor = events.get(events.size() - 1).position();
+                }
+                if (draining) {
+                    return !ending;
+                }
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+            schedule();
+            return !ending;
+        }
+
+        boolean isClosed() {
+            lock.lock();
+            try {
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                buffer.clear();
+            } finally {
+                lock.unlock();
+            }
+            consumers.remove(this);
+        }
+
+        private void schedule() {
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            for (int sent = 0; sent < DRAIN_LIMIT; sent++) {
+                ChangeEventDto event;
+                boolean complete = false;
+                lock.lock();
+                try {
+                    event = buffer.poll();
+                    if (event == null) {
+                        draining = false;
+                        complete = ending && !closed;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (event == null) {
+                    if (complete) {
+                        close();
+                        emitter.complete();
+                    }
+                    return;
+                }
+                if (!send(event)) {
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        private boolean send(ChangeEventDto event) {
+            try {
+                writers.send(emitter, SseEmitter.event()
+                        .id(Long.toString(event.position()))
+                        .name("change")
+                        .data(event), this::close);
+                if (isClosed()) {
+                    // Closed while the write was blocked, the client resumes after the last event it got
+                    emitter.complete();
+                    return false;
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, or the stream already completed
+                log.debug("Change stream closed at position {}: {}", event.position(), e.getMessage());
+                close();
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
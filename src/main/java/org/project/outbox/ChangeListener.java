@@ -0,0 +1,22 @@
+package org.project.outbox;
+
+import org.project.dto.ChangeEventDto;
+
+import java.util.List;
+
+/**
+ * Receives every event the {@link ChangeFeed} dispatches, in the order of their position.
+ */
+public interface ChangeListener {
+
+    /**
+     * Whether the listener wants events, the feed only reads the log while some consumer does.
+     */
+    boolean listening();
+
+    /**
+     * The events published since the previous call, possibly none. Called on the dispatching
+     * thread, so it must not wait for clients.
+     */
+    void changed(List<ChangeEventDto> events);
+}
@@ -0,0 +1,49 @@
+package org.project.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.project.repository.OutboxRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Single place where writes record their change events.
+ * <p>
+ * Events go to the outbox in the transaction of the write they describe, so an event is
+ * published if and only if its write commits, and {@link OutboxRelay} publishes them in commit
+ * order. Appending outside of a transaction fails rather than publish a write that may roll back.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeOutbox {
+
+    private final OutboxRepository outboxRepository;
+
+    public void project(ChangeType type, Long projectId) {
+        projects(type, List.of(projectId));
+    }
+
+    public void projects(ChangeType type, Collection<Long> projectIds) {
+        append(ChangeSubject.PROJECT, type, null, projectIds);
+    }
+
+    public void vacancy(ChangeType type, Long projectId, Long vacancyId) {
+        vacancies(type, projectId, List.of(vacancyId));
+    }
+
+    public void vacancies(ChangeType type, Long projectId, Collection<Long> vacancyIds) {
+        append(ChangeSubject.VACANCY, type, projectId, vacancyIds);
+    }
+
+    private void append(ChangeSubject subject, ChangeType type, Long projectId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Change events are appended in the transaction of their write");
+        }
+        outboxRepository.append(subject, type, projectId, ids);
+    }
+}
@@ -0,0 +1,10 @@
+package org.project.outbox;
+
+/**
+ * What a change event is about. Events of both subjects carry the project id, so a consumer can
+ * follow the vacancies of one project without looking them up.
+ */
+public enum ChangeSubject {
+    PROJECT,
+    VACANCY
+}
@@ -0,0 +1,13 @@
+package org.project.outbox;
+
+/**
+ * What happened to the subject of a change event. Closed and archived apply to projects only.
+ * Vacancies go along with a project that is deleted, closed or archived, without events of their own.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    CLOSED,
+    ARCHIVED
+}
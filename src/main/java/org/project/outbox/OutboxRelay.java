@@ -0,0 +1,119 @@
+package org.project.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.project.repository.OutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Moves committed outbox rows into the change log and hands them to the {@link ChangeFeed}.
+ * <p>
+ * Every node runs the relay. A run moves batches of {@code app.outbox.batch-size} rows, each
+ * in a transaction of its own that first takes a transaction level advisory lock; a node that
+ * does not get it leaves the batch to the node that does. Since only one batch is moved at a
+ * time, a batch is numbered after the positions of the batch before it have committed, and a
+ * reader never sees a position that is followed by a lower one committed later. Rows become
+ * visible to the relay in the order their writes commit, so that is the order of the log.
+ * <p>
+ * Events older than {@code app.outbox.retention} are pruned from the log.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+
+    private final ChangeFeed changeFeed;
+
+    private final TransactionTemplate transaction;
+
+    private final Clock clock;
+
+    private final Counter published;
+
+    private final long lockKey;
+
+    private final int batchSize;
+
+    private final int maxBatches;
+
+    private final Duration retention;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       ChangeFeed changeFeed,
+                       PlatformTransactionManager transactionManager,
+                       Clock clock,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.lock-key:7253012}") long lockKey,
+                       @Value("${app.outbox.batch-size:1000}") int batchSize,
+                       @Value("${app.outbox.max-batches:20}") int maxBatches,
+                       @Value("${app.outbox.retention:7d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.changeFeed = changeFeed;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.published = Counter.builder("app.outbox.published")
+                .description("Change events moved from the outbox into the change log")
+                .register(meterRegistry);
+        this.lockKey = lockKey;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.retention = retention;
+    }
+
+    /**
+     * Moves up to {@code app.outbox.max-batches} batches, dispatches what is new in the log and
+     * returns the number of events this node moved.
+     */
+    @Scheduled(initialDelayString = "${app.outbox.initial-delay:PT1S}",
+            fixedDelayString = "${app.outbox.interval:PT0.2S}")
+    public int relay() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer moved = transaction.execute(status ->
+                    outboxRepository.tryLockRelay(lockKey) ? outboxRepository.publish(batchSize) : 0);
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            published.increment(total);
+        }
+        // Also after runs that moved nothing, other nodes publish as well
+        changeFeed.dispatch();
+        return total;
+    }
+
+    /**
+     * Deletes events published longer than {@code app.outbox.retention} ago and returns how many.
+     */
+    @Scheduled(initialDelayString = "${app.outbox.prune-initial-delay:PT1M}",
+            fixedDelayString = "${app.outbox.prune-interval:PT10M}")
+    public int prune() {
+        Instant cutoff = clock.instant().minus(retention);
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int pruned = outboxRepository.prune(cutoff, batchSize);
+            total += pruned;
+            if (pruned < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Pruned {} change events published before {}", total, cutoff);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,148 @@
+package org.project.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The threads that write to the change streams and the vacancy streams.
+ * <p>
+ * A write to a client blocks until the client has read enough of what was sent before. A write
+ * still running after {@code app.streams.write-timeout} has its stream closed, and another thread
+ * stands in for the blocked one until its write returns, up to {@code app.streams.max-writers}
+ * threads in all. Stalled clients so hold back the other streams for one write timeout at most.
+ * The blocked write itself fails with the connection timeout of the server.
+ */
+@Component
+public class StreamWriters {
+
+    private final int writers;
+
+    private final int maxWriters;
+
+    private final long writeTimeoutNanos;
+
+    private final ThreadPoolExecutor pool;
+
+    private final Set<Write> writes = ConcurrentHashMap.newKeySet();
+
+    // Writes past the timeout that have not returned yet
+    private final AtomicInteger blocked = new AtomicInteger();
+
+    // Not a monitor, resizing the pool reads the blocked count under it
+    private final ReentrantLock resizeLock = new ReentrantLock();
+
+    private final Counter timeouts;
+
+    public StreamWriters(MeterRegistry meterRegistry,
+                         @Value("${app.streams.writers:4}") int writers,
+                         @Value("${app.streams.max-writers:64}") int maxWriters,
+                         @Value("${app.streams.write-timeout:PT10S}") Duration writeTimeout) {
+        this.writers = writers;
+        this.maxWriters = Math.max(writers, maxWriters);
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(writers, this.maxWriters, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "stream-writer-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.timeouts = Counter.builder("app.streams.write-timeouts")
+                .description("Stream writes that took longer than the write timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the task on a writer, throws {@link java.util.concurrent.RejectedExecutionException} once shut down.
+     */
+    public void execute(Runnable task) {
+        pool.execute(task);
+    }
+
+    /**
+     * Sends the event. Once that takes longer than the write timeout, {@code expired} runs on another
+     * thread while the write goes on; it must not call the emitter, which the write holds.
+     */
+    public void send(SseEmitter emitter, SseEmitter.SseEventBuilder event, Runnable expired) throws IOException {
+        Write write = new Write(expired);
+        writes.add(write);
+        try {
+            emitter.send(event);
+        } finally {
+            writes.remove(write);
+            if (!write.done.compareAndSet(false, true)) {
+                // Its stand-in is no longer needed
+                blocked.decrementAndGet();
+                resize();
+            }
+        }
+    }
+
+    /**
+     * Closes the streams of the writes past the timeout and stands in for their threads.
+     */
+    @Scheduled(initialDelayString = "${app.streams.write-check:PT1S}",
+            fixedDelayString = "${app.streams.write-check:PT1S}")
+    public void expire() {
+        long now = System.nanoTime();
+        for (Write write : writes) {
+            if (now - write.started > writeTimeoutNanos && write.done.compareAndSet(false, true)) {
+                timeouts.increment();
+                blocked.incrementAndGet();
+                resize();
+                write.expired.run();
+            }
+        }
+    }
+
+    int threads() {
+        return pool.getCorePoolSize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void resize() {
+        resizeLock.lock();
+        try {
+            int size = writers + Math.min(blocked.get(), maxWriters - writers);
+            if (size != pool.getCorePoolSize()) {
+                pool.setCorePoolSize(size);
+            }
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+
+    private static final class Write {
+
+        private final long started = System.nanoTime();
+
+        private final Runnable expired;
+
+        // Set by whichever comes first, the end of the write or its expiry
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Write(Runnable expired) {
+            this.expired = expired;
+        }
+    }
+}
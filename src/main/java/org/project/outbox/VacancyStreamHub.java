@@ -0,0 +1,490 @@
+package org.project.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.project.dto.ChangeEventDto;
+import org.project.dto.VacancyDeltaDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.entity.ProjectStatus;
+import org.project.exception.StreamUnavailableException;
+import org.project.repository.ProjectJpaRepository;
+import org.project.repository.VacancyJpaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes the vacancy changes of a project to SSE streams, for live vacancy boards.
+ * <p>
+ * The hub listens to the {@link ChangeFeed}, so it sees the writes of every node. A stream starts
+ * with a snapshot of the vacancies of its project, read when it subscribes, and goes on with a
+ * delta per vacancy event of the project: the vacancy as it is when the event is dispatched, or its
+ * id once deleted. A delta may repeat what the snapshot already shows, applied by id the deltas
+ * still end at the current list. A stream ends once its project is deleted, closed or archived.
+ * Streams need the dispatches of the {@link OutboxRelay}, without it they are refused.
+ * <p>
+ * Dispatching never writes to a client. Every stream buffers up to {@code app.vacancy-stream.buffer}
+ * frames, drained by the {@link StreamWriters}, so an open stream holds no thread while there is
+ * nothing to send, and a client that stops reading is closed after the write timeout. A client
+ * reading too slowly to keep its buffer below that has the buffer dropped for a new snapshot, read
+ * by the next dispatch once for all such streams of the project, never by a writer. A stream quiet
+ * for {@code app.vacancy-stream.heartbeat} gets a comment, which keeps proxies from closing it and
+ * finds clients that went away.
+ */
+@Slf4j
+@Component
+public class VacancyStreamHub implements ChangeListener {
+
+    // Frames a writer sends before it lets the other streams have its thread
+    private static final int DRAIN_LIMIT = 64;
+
+    private final VacancyJpaRepository vacancyRepository;
+
+    private final ProjectJpaRepository projectRepository;
+
+    private final ChangeFeed changeFeed;
+
+    private final int bufferSize;
+
+    private final long heartbeatNanos;
+
+    private final Duration timeout;
+
+    private final boolean relayed;
+
+    private final StreamWriters writers;
+
+    private final Counter resyncs;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // Projects with streams waiting for a new snapshot, read by the next dispatch
+    private final Set<Long> resyncing = ConcurrentHashMap.newKeySet();
+
+    // Counts snapshot reads, a stream only takes a snapshot read after it started waiting for one
+    private final AtomicLong snapshots = new AtomicLong();
+
+    private final AtomicInteger open = new AtomicInteger();
+
+    public VacancyStreamHub(VacancyJpaRepository vacancyRepository,
+                            ProjectJpaRepository projectRepository,
+                            @Lazy ChangeFeed changeFeed,
+                            MeterRegistry meterRegistry,
+                            StreamWriters writers,
+                            @Value("${app.vacancy-stream.buffer:256}") int bufferSize,
+                            @Value("${app.vacancy-stream.heartbeat:PT15S}") Duration heartbeat,
+                            @Value("${app.vacancy-stream.timeout:PT30M}") Duration timeout,
+                            @Value("${app.outbox.enabled:false}") boolean relayed) {
+        this.vacancyRepository = vacancyRepository;
+        this.projectRepository = projectRepository;
+        this.changeFeed = changeFeed;
+        this.bufferSize = bufferSize;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.timeout = timeout;
+        this.relayed = relayed;
+        this.writers = writers;
+        this.resyncs = Counter.builder("app.vacancy-stream.resyncs")
+                .description("Vacancy stream buffers dropped for a new snapshot")
+                .register(meterRegistry);
+        Gauge.builder("app.vacancy-stream.open", open, AtomicInteger::get)
+                .description("Open vacancy streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A stream of the vacancies of the project, starting with a snapshot read right away.
+     */
+    public SseEmitter subscribe(Long projectId) {
+        if (!relayed) {
+            throw new StreamUnavailableException("Vacancy streams need the change feed, set app.outbox.enabled=true");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(projectId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        open.incrementAndGet();
+        // Listens before the snapshot is read, a change in between follows it as a delta
+        subscribers.compute(projectId, (id, streams) -> {
+            Set<Subscriber> started = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            started.add(subscriber);
+            return started;
+        });
+        try {
+            // Before the read, or an idle feed could skip a change relayed right after it
+            changeFeed.listen();
+            long stamp = snapshots.incrementAndGet();
+            subscriber.snapshot(stamp, snapshot(projectId));
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        return emitter;
+    }
+
+    @Override
+    public boolean listening() {
+        return !subscribers.isEmpty();
+    }
+
+    @Override
+    public void changed(List<ChangeEventDto> events) {
+        List<ChangeEventDto> watched = events.stream()
+                .filter(event -> subscribers.containsKey(event.projectId()))
+                .toList();
+        if (!watched.isEmpty()) {
+            offer(watched);
+        }
+        sendSnapshots();
+    }
+
+    /**
+     * Sends a heartbeat to the streams that sent nothing within the last interval.
+     */
+    @Scheduled(initialDelayString = "${app.vacancy-stream.heartbeat:PT15S}",
+            fixedDelayString = "${app.vacancy-stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> streams : subscribers.values()) {
+            for (Subscriber subscriber : streams) {
+                if (now - subscriber.lastSent >= heartbeatNanos) {
+                    subscriber.offer(Frame.HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(streams -> streams.forEach(Subscriber::complete));
+    }
+
+    private void offer(List<ChangeEventDto> watched) {
+        Map<Long, VacancyResponseDto> vacancies;
+        try {
+            vacancies = read(watched);
+        } catch (RuntimeException e) {
+            // The deltas are lost, the streams start over from the current list
+            log.warn("Could not read the vacancies of {} changes, resyncing their streams", watched.size(), e);
+            watched.stream().map(ChangeEventDto::projectId).distinct()
+                    .forEach(projectId -> subscribers.getOrDefault(projectId, Set.of()).forEach(Subscriber::resync));
+            return;
+        }
+        for (ChangeEventDto event : watched) {
+            Frame frame = frame(event, vacancies);
+            if (frame != null) {
+                offer(event.projectId(), frame);
+            }
+        }
+    }
+
+    /**
+     * Reads one snapshot per project with streams waiting for one, and hands it to them.
+     */
+    private void sendSnapshots() {
+        if (resyncing.isEmpty()) {
+            return;
+        }
+        List<Long> projectIds = List.copyOf(resyncing);
+        resyncing.removeAll(projectIds);
+        for (Long projectId : projectIds) {
+            long stamp = snapshots.incrementAndGet();
+            Frame snapshot;
+            try {
+                snapshot = snapshot(projectId);
+            } catch (RuntimeException e) {
+                log.warn("Could not read the vacancies of project {} for its streams, retrying", projectId, e);
+                resyncing.add(projectId);
+                continue;
+            }
+            subscribers.getOrDefault(projectId, Set.of()).forEach(subscriber -> subscriber.snapshot(stamp, snapshot));
+        }
+    }
+
+    private Frame snapshot(Long projectId) {
+        Optional<ProjectStatus> status = projectRepository.findStatusById(projectId);
+        if (status.isEmpty()) {
+            return Frame.end(ChangeType.DELETED);
+        }
+        // Its vacancies are hidden, and no close follows to end the stream
+        if (status.get() == ProjectStatus.CLOSED) {
+            return Frame.end(ChangeType.CLOSED);
+        }
+        return Frame.snapshot(vacancyRepository.findResponsesByProjectId(projectId));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.projectId, (projectId, streams) -> {
+            streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private void offer(Long projectId, Frame frame) {
+        subscribers.getOrDefault(projectId, Set.of()).forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    private Map<Long, VacancyResponseDto> read(List<ChangeEventDto> events) {
+        Set<Long> ids = events.stream()
+                .filter(event -> event.subject() == ChangeSubject.VACANCY && event.type() != ChangeType.DELETED)
+                .map(ChangeEventDto::id)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return vacancyRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(VacancyResponseDto::id, Function.identity()));
+    }
+
+    private static Frame frame(ChangeEventDto event, Map<Long, VacancyResponseDto> vacancies) {
+        if (event.subject() == ChangeSubject.PROJECT) {
+            // The vacancies of a closed project are hidden, like those of a deleted one
+            return event.type() == ChangeType.UPDATED || event.type() == ChangeType.CREATED
+                    ? null
+                    : Frame.end(event.type());
+        }
+        if (event.type() == ChangeType.DELETED) {
+            return Frame.delta(event.position(), new VacancyDeltaDto(ChangeType.DELETED, event.id(), null));
+        }
+        VacancyResponseDto vacancy = vacancies.get(event.id());
+        // Deleted since, its own event follows
+        return vacancy == null ? null : Frame.delta(event.position(), new VacancyDeltaDto(event.type(), event.id(), vacancy));
+    }
+
+    private enum Kind { SNAPSHOT, DELTA, HEARTBEAT, END }
+
+    private record Frame(Kind kind, String id, Object data) {
+
+        static final Frame HEARTBEAT = new Frame(Kind.HEARTBEAT, null, null);
+
+        static Frame snapshot(List<VacancyResponseDto> vacancies) {
+            return new Frame(Kind.SNAPSHOT, null, vacancies);
+        }
+
+        static Frame delta(long position, VacancyDeltaDto delta) {
+            return new Frame(Kind.DELTA, Long.toString(position), delta);
+        }
+
+        static Frame end(ChangeType type) {
+            return new Frame(Kind.END, null, type);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long projectId;
+
+        private final SseEmitter emitter;
+
+        // Not a monitor, the buffer is filled by the dispatching thread and drained by a writer
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final ArrayDeque<Frame> buffer = new ArrayDeque<>();
+
+        // Guarded by lock, whether a writer has the stream
+        private boolean draining;
+
+        // Guarded by lock
+        private boolean closed;
+
+        // Guarded by lock, whether the buffer waits for a snapshot, nothing is sent until it comes
+        private boolean snapshotDue = true;
+
+        // Guarded by lock, the snapshot read count when it started waiting
+        private long dueSince = snapshots.get();
+
+        private volatile long lastSent = System.nanoTime();
+
+        Subscriber(Long projectId, SseEmitter emitter) {
+            this.projectId = projectId;
+            this.emitter = emitter;
+        }
+
+        void offer(Frame frame) {
+            lock.lock();
+            try {
+                Frame last = buffer.peekLast();
+                if (closed || (last != null && last.kind() == Kind.END)) {
+                    return;
+                }
+                if (frame.kind() == Kind.HEARTBEAT && (draining || snapshotDue || last != null)) {
+                    // Something goes out anyway
+                    return;
+                }
+                if (frame.kind() == Kind.END) {
+                    buffer.clear();
+                    buffer.add(frame);
+                    snapshotDue = false;
+                } else if (buffer.size() < bufferSize) {
+                    buffer.add(frame);
+                } else {
+                    resync();
+                    return;
+                }
+                if (draining || snapshotDue) {
+                    return;
+                }
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+            schedule();
+        }
+
+        /**
+         * Drops the buffer, the stream waits for a new snapshot.
+         */
+        void resync() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                buffer.clear();
+                snapshotDue = true;
+                dueSince = snapshots.get();
+            } finally {
+                lock.unlock();
+            }
+            resyncs.increment();
+            resyncing.add(projectId);
+        }
+
+        /**
+         * Starts the buffer with the snapshot, unless it was read before the stream started waiting.
+         */
+        void snapshot(long stamp, Frame snapshot) {
+            lock.lock();
+            try {
+                if (closed || !snapshotDue || stamp <= dueSince) {
+                    return;
+                }
+                snapshotDue = false;
+                if (snapshot.kind() == Kind.END) {
+                    buffer.clear();
+                    buffer.add(snapshot);
+                } else {
+                    buffer.addFirst(snapshot);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+            schedule();
+        }
+
+        boolean isClosed() {
+            lock.lock();
+            try {
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                buffer.clear();
+            } finally {
+                lock.unlock();
+            }
+            open.decrementAndGet();
+            remove(this);
+        }
+
+        void complete() {
+            close();
+            emitter.complete();
+        }
+
+        private void schedule() {
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                complete();
+            }
+        }
+
+        private void drain() {
+            for (int sent = 0; sent < DRAIN_LIMIT; sent++) {
+                Frame frame;
+                lock.lock();
+                try {
+                    frame = snapshotDue ? null : buffer.poll();
+                    if (frame == null) {
+                        draining = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (!send(frame)) {
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        private boolean send(Frame frame) {
+            try {
+                switch (frame.kind()) {
+                    case SNAPSHOT -> writers.send(emitter, SseEmitter.event()
+                            .name("snapshot")
+                            .data(frame.data()), this::close);
+                    case DELTA -> writers.send(emitter, SseEmitter.event()
+                            .id(frame.id())
+                            .name("vacancy")
+                            .data(frame.data()), this::close);
+                    case HEARTBEAT -> writers.send(emitter, SseEmitter.event().comment("heartbeat"), this::close);
+                    case END -> {
+                        writers.send(emitter, SseEmitter.event().name("end").data(frame.data()), this::close);
+                        complete();
+                        return false;
+                    }
+                }
+                if (isClosed()) {
+                    // Closed while the write was blocked
+                    emitter.complete();
+                    return false;
+                }
+                lastSent = System.nanoTime();
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, or the stream already completed
+                log.debug("Vacancy stream of project {} closed: {}", projectId, e.getMessage());
+                close();
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
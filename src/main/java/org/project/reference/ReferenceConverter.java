@@ -0,0 +1,50 @@
+package org.project.reference;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Maps a reference attribute of an entity between its value and the id stored in the row.
+ * JPQL projections of the attribute go through the converter as well, so they return values.
+ */
+public abstract class ReferenceConverter implements AttributeConverter<String, Integer> {
+
+    private final ReferenceDictionary dictionary;
+
+    private final ReferenceType type;
+
+    protected ReferenceConverter(ReferenceDictionary dictionary, ReferenceType type) {
+        this.dictionary = dictionary;
+        this.type = type;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String value) {
+        return dictionary.id(type, value);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return dictionary.value(type, id);
+    }
+
+    public static class Field extends ReferenceConverter {
+
+        public Field(ReferenceDictionary dictionary) {
+            super(dictionary, ReferenceType.FIELD);
+        }
+    }
+
+    public static class Country extends ReferenceConverter {
+
+        public Country(ReferenceDictionary dictionary) {
+            super(dictionary, ReferenceType.COUNTRY);
+        }
+    }
+
+    public static class Experience extends ReferenceConverter {
+
+        public Experience(ReferenceDictionary dictionary) {
+            super(dictionary, ReferenceType.EXPERIENCE);
+        }
+    }
+}
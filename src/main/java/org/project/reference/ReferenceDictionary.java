@@ -0,0 +1,254 @@
+package org.project.reference;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.jdbc.SqlStatementStats;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * In-memory, bidirectional copy of the reference tables, see {@link ReferenceType}.
+ * <p>
+ * Reads resolve ids to the one String instance kept here, so a million rows with the same
+ * country share one string. Writes resolve values to ids; a value no row has used yet is
+ * added to its table in the transaction of the row that uses it, on the connection that
+ * transaction already holds. Its id is only shared once that transaction commits, until then
+ * the transaction keeps it to itself, so an id learned here always exists for every other
+ * transaction. A concurrent transaction adding the same value waits for the first one.
+ * <p>
+ * Entries never change once added, so there is nothing to invalidate: ids or values added by
+ * other nodes are read from the table on the first miss.
+ */
+@Slf4j
+@Component
+public class ReferenceDictionary {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final Map<ReferenceType, Table> tables = new EnumMap<>(ReferenceType.class);
+
+    public ReferenceDictionary(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (ReferenceType type : ReferenceType.values()) {
+            tables.put(type, new Table());
+        }
+    }
+
+    /**
+     * The value stored under the id, null for a null id.
+     */
+    public String value(ReferenceType type, Integer id) {
+        if (id == null) {
+            return null;
+        }
+        Table table = tables.get(type);
+        String value = table.values.get(id);
+        if (value == null) {
+            Added added = added(false);
+            value = added != null ? added.value(type, id) : null;
+        }
+        if (value == null) {
+            reload(type, () -> table.values.containsKey(id));
+            value = table.values.get(id);
+            if (value == null) {
+                throw new IllegalStateException("No " + type.attribute() + " with id " + id);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * The id of the value, null for a null value. A new value is added to the reference table.
+     */
+    public Integer id(ReferenceType type, String value) {
+        if (value == null) {
+            return null;
+        }
+        Table table = tables.get(type);
+        Integer id = table.ids.get(value);
+        if (id == null) {
+            Added added = added(false);
+            id = added != null ? added.id(type, value) : null;
+        }
+        if (id == null) {
+            lookup(type, List.of(value));
+            id = table.ids.get(value);
+        }
+        return id != null ? id : insert(type, value);
+    }
+
+    /**
+     * The ids of those values that are stored, for filters: a value without an id matches no row.
+     */
+    public List<Integer> existingIds(ReferenceType type, Collection<String> values) {
+        Table table = tables.get(type);
+        List<String> missing = values.stream().filter(value -> !table.ids.containsKey(value)).toList();
+        if (!missing.isEmpty()) {
+            lookup(type, missing);
+        }
+        List<Integer> ids = new ArrayList<>(values.size());
+        for (String value : values) {
+            Integer id = table.ids.get(value);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private Integer insert(ReferenceType type, String value) {
+        Integer id;
+        try (SqlStatementStats ignored = ownStats()) {
+            // No-op update on conflict, so RETURNING also yields the id of a value another node added meanwhile
+            id = jdbcTemplate.queryForObject(
+                    "INSERT INTO " + type.table() + " (value) VALUES (:value)"
+                            + " ON CONFLICT (value) DO UPDATE SET value = EXCLUDED.value RETURNING id",
+                    new MapSqlParameterSource("value", value), Integer.class);
+        }
+        log.debug("Added {} '{}' with id {}", type.attribute(), value, id);
+        Added added = added(true);
+        if (added == null) {
+            // Not in a transaction, the insert has committed already
+            return tables.get(type).put(id, value);
+        }
+        added.put(type, id, value);
+        return id;
+    }
+
+    /**
+     * The values added by the current transaction, null outside a transaction, or if it has added
+     * none and {@code register} is false.
+     */
+    private Added added(boolean register) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        // Synchronizations are suspended along with their transaction, a resource would leak into an inner one
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Added added && added.dictionary() == this) {
+                return added;
+            }
+        }
+        if (!register) {
+            return null;
+        }
+        Added added = new Added();
+        TransactionSynchronizationManager.registerSynchronization(added);
+        return added;
+    }
+
+    /**
+     * Reads the whole table, rows only ever reference ids that exist, so a miss means new entries.
+     */
+    private void reload(ReferenceType type, BooleanSupplier loaded) {
+        Table table = tables.get(type);
+        table.loadLock.lock();
+        try (SqlStatementStats ignored = ownStats()) {
+            // Another caller may have loaded the table while this one waited
+            if (loaded.getAsBoolean()) {
+                return;
+            }
+            Added added = added(false);
+            jdbcTemplate.query("SELECT id, value FROM " + type.table(), rs -> {
+                share(type, added, rs.getInt("id"), rs.getString("value"));
+            });
+        } finally {
+            table.loadLock.unlock();
+        }
+    }
+
+    /**
+     * Reads only the given values, a filter on a value nobody uses must not reload the whole table.
+     */
+    private void lookup(ReferenceType type, Collection<String> values) {
+        Added added = added(false);
+        try (SqlStatementStats ignored = ownStats()) {
+            jdbcTemplate.query("SELECT id, value FROM " + type.table() + " WHERE value IN (:values)",
+                    new MapSqlParameterSource("values", values), rs -> {
+                        share(type, added, rs.getInt("id"), rs.getString("value"));
+                    });
+        }
+    }
+
+    /**
+     * Keeps a row read from the table, unless the current transaction added it and has not committed yet.
+     */
+    private void share(ReferenceType type, Added added, int id, String value) {
+        if (added == null || added.value(type, id) == null) {
+            tables.get(type).put(id, value);
+        }
+    }
+
+    /**
+     * Keeps the statements of a miss out of the SQL budget of the request that happened to miss first.
+     */
+    private static SqlStatementStats ownStats() {
+        return SqlStatementStats.start(ReferenceDictionary.class.getSimpleName(), SqlStatementStats.UNLIMITED, false);
+    }
+
+    /**
+     * Values the current transaction added, shared with everybody once it commits.
+     */
+    private final class Added implements TransactionSynchronization {
+
+        private final Map<ReferenceType, Map<Integer, String>> values = new EnumMap<>(ReferenceType.class);
+
+        private ReferenceDictionary dictionary() {
+            return ReferenceDictionary.this;
+        }
+
+        private void put(ReferenceType type, Integer id, String value) {
+            values.computeIfAbsent(type, key -> new HashMap<>()).put(id, value);
+        }
+
+        private String value(ReferenceType type, Integer id) {
+            return values.getOrDefault(type, Map.of()).get(id);
+        }
+
+        private Integer id(ReferenceType type, String value) {
+            for (Map.Entry<Integer, String> entry : values.getOrDefault(type, Map.of()).entrySet()) {
+                if (entry.getValue().equals(value)) {
+                    return entry.getKey();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void afterCommit() {
+            values.forEach((type, added) -> added.forEach(tables.get(type)::put));
+        }
+    }
+
+    private static final class Table {
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+        private final Map<Integer, String> values = new ConcurrentHashMap<>();
+
+        // Not synchronized, the loading thread may be a virtual thread blocked on JDBC
+        private final ReentrantLock loadLock = new ReentrantLock();
+
+        /**
+         * Adds the entry and returns its id, keeping the instance already stored for the value.
+         */
+        private Integer put(Integer id, String value) {
+            String stored = values.computeIfAbsent(id, key -> value);
+            ids.putIfAbsent(stored, id);
+            return id;
+        }
+    }
+}
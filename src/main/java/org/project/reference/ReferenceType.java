@@ -0,0 +1,51 @@
+package org.project.reference;
+
+/**
+ * Low-cardinality attributes stored as ids into a reference table instead of repeating the
+ * text on every row. Projects reference fields and experiences, vacancies all three.
+ */
+public enum ReferenceType {
+
+    FIELD("field", "ref_fields"),
+    COUNTRY("country", "ref_countries"),
+    EXPERIENCE("experience", "ref_experiences");
+
+    private final String attribute;
+
+    private final String table;
+
+    ReferenceType(String attribute, String table) {
+        this.attribute = attribute;
+        this.table = table;
+    }
+
+    /**
+     * The attribute name used by the entities and DTOs.
+     */
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * The id column referencing the table, in {@code projects} and {@code vacancies}.
+     */
+    public String column() {
+        return attribute + "_id";
+    }
+
+    public String table() {
+        return table;
+    }
+
+    /**
+     * The type stored under the attribute, or null for a plain column.
+     */
+    public static ReferenceType ofAttribute(String attribute) {
+        for (ReferenceType type : values()) {
+            if (type.attribute.equals(attribute)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
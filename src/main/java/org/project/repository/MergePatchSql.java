@@ -0,0 +1,46 @@
+package org.project.repository;
+
+import org.project.dto.MergePatch;
+import org.project.reference.ReferenceDictionary;
+import org.project.reference.ReferenceType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+/**
+ * SET clause and parameters of a targeted UPDATE for a {@link MergePatch}. The member names
+ * were checked against the request record, so they are safe to use as column names. Reference
+ * attributes are written as ids into their {@link ReferenceType#column()}.
+ */
+final class MergePatchSql {
+
+    private MergePatchSql() {
+    }
+
+    static String assignments(MergePatch patch) {
+        return patch.values().keySet().stream()
+                .map(MergePatchSql::column)
+                .map(column -> column + " = :" + column)
+                .collect(Collectors.joining(", "));
+    }
+
+    static MapSqlParameterSource params(Long id, MergePatch patch, ReferenceDictionary dictionary) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", id);
+        patch.values().forEach((member, value) -> {
+            ReferenceType type = ReferenceType.ofAttribute(member);
+            if (type != null) {
+                params.addValue(type.column(), dictionary.id(type, (String) value));
+            } else {
+                params.addValue(member, value instanceof LocalDate date ? Date.valueOf(date) : value);
+            }
+        });
+        return params;
+    }
+
+    private static String column(String member) {
+        ReferenceType type = ReferenceType.ofAttribute(member);
+        return type == null ? member : type.column();
+    }
+}
@@ -0,0 +1,98 @@
+package org.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.project.dto.ChangeEventDto;
+import org.project.outbox.ChangeSubject;
+import org.project.outbox.ChangeType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends change events to {@code outbox}, moves them into {@code change_log} and reads them
+ * back from there by position.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private static final String EVENT_COLUMNS = "subject, subject_id, project_id, type, recorded_at";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends one event per subject id in a single batch, in the transaction of the caller. The
+     * project id of a project event is its own id.
+     */
+    public void append(ChangeSubject subject, ChangeType type, Long projectId, Collection<Long> subjectIds) {
+        SqlParameterSource[] rows = subjectIds.stream()
+                .map(id -> new MapSqlParameterSource("subject", subject.name())
+                        .addValue("subjectId", id)
+                        .addValue("projectId", subject == ChangeSubject.PROJECT ? id : projectId)
+                        .addValue("type", type.name()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO outbox (subject, subject_id, project_id, type)"
+                + " VALUES (:subject, :subjectId, :projectId, :type)", rows);
+    }
+
+    /**
+     * Takes the relay lock until the end of the transaction of the caller, unless another
+     * transaction holds it.
+     */
+    public boolean tryLockRelay(long key) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", key), Boolean.class));
+    }
+
+    /**
+     * Moves up to {@code limit} committed outbox rows into the change log, numbered in outbox order
+     * right after the last position, and returns how many were moved. The caller holds the relay
+     * lock, so the positions of one move are committed before the next move reads the last one.
+     */
+    public int publish(int limit) {
+        return jdbcTemplate.update("WITH moved AS (DELETE FROM outbox WHERE id IN ("
+                        + "SELECT id FROM outbox ORDER BY id LIMIT :limit) RETURNING id, " + EVENT_COLUMNS + ")"
+                        + " INSERT INTO change_log (position, " + EVENT_COLUMNS + ")"
+                        + " SELECT (SELECT coalesce(max(position), 0) FROM change_log) + row_number() OVER (ORDER BY id), "
+                        + EVENT_COLUMNS + " FROM moved",
+                new MapSqlParameterSource("limit", limit));
+    }
+
+    public List<ChangeEventDto> findAfter(long position, int limit) {
+        return jdbcTemplate.query("SELECT position, " + EVENT_COLUMNS + " FROM change_log"
+                        + " WHERE position > :position ORDER BY position LIMIT :limit",
+                new MapSqlParameterSource("position", position).addValue("limit", limit), this::toEvent);
+    }
+
+    public long lastPosition() {
+        Long last = jdbcTemplate.queryForObject("SELECT coalesce(max(position), 0) FROM change_log",
+                new MapSqlParameterSource(), Long.class);
+        return last == null ? 0 : last;
+    }
+
+    /**
+     * Deletes events published before {@code cutoff}, at most {@code limit} of them, and returns how
+     * many. Only the head of the log is read, publish times grow with the position. The last event
+     * is always kept, the next position is counted on from it.
+     */
+    public int prune(Instant cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM change_log WHERE position <= (SELECT max(position) FROM ("
+                        + "SELECT position, published_at FROM change_log ORDER BY position LIMIT :limit) head"
+                        + " WHERE published_at < :cutoff) AND position < (SELECT max(position) FROM change_log)",
+                new MapSqlParameterSource("cutoff", Timestamp.from(cutoff)).addValue("limit", limit));
+    }
+
+    private ChangeEventDto toEvent(ResultSet rs, int rowNum) throws SQLException {
+        return new ChangeEventDto(rs.getLong("position"), ChangeSubject.valueOf(rs.getString("subject")),
+                rs.getLong("subject_id"), rs.getLong("project_id"), ChangeType.valueOf(rs.getString("type")),
+                rs.getTimestamp("recorded_at").toInstant());
+    }
+}
@@ -0,0 +1,163 @@
+package org.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.Versioned;
+import org.project.entity.ProjectStatus;
+import org.project.reference.ReferenceDictionary;
+import org.project.reference.ReferenceType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves expired projects with their vacancies into {@code projects_archive} and
+ * {@code vacancies_archive}, and reads them back for requests that include archived projects.
+ * <p>
+ * Page reads run over the live and the archive table together, ids are unique across both,
+ * so the same keyset cursor works with and without archived projects.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectArchiveRepository {
+
+    private static final String PROJECT_COLUMNS = "id, name, field_id, experience_id, description, deadline, version";
+
+    // Archived projects are past their deadline, so they are always closed
+    private static final String ARCHIVED_PROJECT_COLUMNS = PROJECT_COLUMNS + ", 'CLOSED' AS status";
+
+    private static final String VACANCY_COLUMNS =
+            "id, name, field_id, experience_id, country_id, description, project_id, version";
+
+    // The status of the project is filled in, projects and projects_archive select it differently
+    private static final String VACANCY_ROW = "SELECT p.id, p.name, p.field_id, p.experience_id, p.description,"
+            + " p.deadline, %s AS status, v.id AS v_id, v.name AS v_name, v.field_id AS v_field_id,"
+            + " v.experience_id AS v_experience_id, v.country_id AS v_country_id, v.description AS v_description";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final ReferenceDictionary dictionary;
+
+    /**
+     * Moves up to {@code limit} projects with a deadline before {@code cutoff} and their vacancies
+     * into the archive, in the transaction of the caller, and returns their ids.
+     * <p>
+     * Rows locked by a running write are skipped and picked up by a later batch, so concurrent
+     * archivers on several nodes never wait for each other or move a project twice.
+     */
+    public List<Long> archiveExpired(LocalDate cutoff, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM projects WHERE deadline < :cutoff"
+                        + " ORDER BY deadline, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource("cutoff", Date.valueOf(cutoff)).addValue("limit", limit), Long.class);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        // Projects first, the archived vacancies reference them. Copied before the vacancies are
+        // deleted, whose triggers would bump the project versions once more
+        jdbcTemplate.update("INSERT INTO projects_archive (" + PROJECT_COLUMNS + ")"
+                + " SELECT " + PROJECT_COLUMNS + " FROM projects WHERE id IN (:ids)", params);
+        jdbcTemplate.update("WITH moved AS (DELETE FROM vacancies WHERE project_id IN (:ids) RETURNING "
+                + VACANCY_COLUMNS + ") INSERT INTO vacancies_archive (" + VACANCY_COLUMNS + ")"
+                + " SELECT " + VACANCY_COLUMNS + " FROM moved", params);
+        jdbcTemplate.update("DELETE FROM projects WHERE id IN (:ids)", params);
+        return ids;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Versioned<ProjectResponseDto>> findById(Long id) {
+        return jdbcTemplate.query("SELECT " + ARCHIVED_PROJECT_COLUMNS + " FROM projects_archive WHERE id = :id",
+                new MapSqlParameterSource("id", id), this::versioned).stream().findFirst();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersionById(Long id) {
+        return jdbcTemplate.queryForList("SELECT version FROM projects_archive WHERE id = :id",
+                new MapSqlParameterSource("id", id), Long.class).stream().findFirst();
+    }
+
+    /**
+     * The archived project left joined with its archived vacancies, ordered by vacancy id.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectVacancyRow> findVacancyRowsById(Long id) {
+        return jdbcTemplate.query(VACANCY_ROW.formatted("'CLOSED'")
+                        + " FROM projects_archive p LEFT JOIN vacancies_archive v ON v.project_id = p.id"
+                        + " WHERE p.id = :id ORDER BY v.id",
+                new MapSqlParameterSource("id", id), this::vacancyRow);
+    }
+
+    /**
+     * Page of live and archived projects after {@code afterId}, ordered by id.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectResponseDto> findResponsesByIdGreaterThan(Long afterId, int limit) {
+        // Each side is limited on its own first, so both read at most one page from their id index
+        return jdbcTemplate.query("(SELECT " + PROJECT_COLUMNS + ", status FROM projects"
+                        + " WHERE id > :afterId ORDER BY id LIMIT :limit)"
+                        + " UNION ALL (SELECT " + ARCHIVED_PROJECT_COLUMNS + " FROM projects_archive"
+                        + " WHERE id > :afterId ORDER BY id LIMIT :limit)"
+                        + " ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource("afterId", afterId).addValue("limit", limit), this::project);
+    }
+
+    /**
+     * Page of live and archived projects after {@code afterId} joined with their vacancies, in one
+     * statement. As in {@link ProjectJpaRepository#findVacancyRowsByIdGreaterThan} the limit counts projects.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectVacancyRow> findVacancyRowsByIdGreaterThan(Long afterId, int limit) {
+        return jdbcTemplate.query("WITH page AS ("
+                        + "(SELECT id FROM projects WHERE id > :afterId ORDER BY id LIMIT :limit)"
+                        + " UNION ALL"
+                        + " (SELECT id FROM projects_archive WHERE id > :afterId ORDER BY id LIMIT :limit)"
+                        + " ORDER BY id LIMIT :limit)"
+                        + " " + VACANCY_ROW.formatted("p.status") + " FROM projects p JOIN page ON page.id = p.id"
+                        + " LEFT JOIN vacancies v ON v.project_id = p.id"
+                        + " UNION ALL " + VACANCY_ROW.formatted("'CLOSED'")
+                        + " FROM projects_archive p JOIN page ON page.id = p.id"
+                        + " LEFT JOIN vacancies_archive v ON v.project_id = p.id"
+                        + " ORDER BY id, v_id",
+                new MapSqlParameterSource("afterId", afterId).addValue("limit", limit), this::vacancyRow);
+    }
+
+    private ProjectResponseDto project(ResultSet rs, int rowNum) throws SQLException {
+        return new ProjectResponseDto(
+                rs.getLong("id"),
+                rs.getString("name"),
+                dictionary.value(ReferenceType.FIELD, rs.getObject("field_id", Integer.class)),
+                dictionary.value(ReferenceType.EXPERIENCE, rs.getObject("experience_id", Integer.class)),
+                rs.getString("description"),
+                rs.getObject("deadline", LocalDate.class),
+                ProjectStatus.valueOf(rs.getString("status")));
+    }
+
+    private Versioned<ProjectResponseDto> versioned(ResultSet rs, int rowNum) throws SQLException {
+        return new Versioned<>(project(rs, rowNum), rs.getLong("version"));
+    }
+
+    private ProjectVacancyRow vacancyRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ProjectVacancyRow(
+                rs.getLong("id"),
+                rs.getString("name"),
+                dictionary.value(ReferenceType.FIELD, rs.getObject("field_id", Integer.class)),
+                dictionary.value(ReferenceType.EXPERIENCE, rs.getObject("experience_id", Integer.class)),
+                rs.getString("description"),
+                rs.getObject("deadline", LocalDate.class),
+                ProjectStatus.valueOf(rs.getString("status")),
+                rs.getObject("v_id", Long.class),
+                rs.getString("v_name"),
+                dictionary.value(ReferenceType.FIELD, rs.getObject("v_field_id", Integer.class)),
+                dictionary.value(ReferenceType.EXPERIENCE, rs.getObject("v_experience_id", Integer.class)),
+                dictionary.value(ReferenceType.COUNTRY, rs.getObject("v_country_id", Integer.class)),
+                rs.getString("v_description"));
+    }
+}
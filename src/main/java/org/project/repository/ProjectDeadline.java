@@ -0,0 +1,9 @@
+package org.project.repository;
+
+import java.time.LocalDate;
+
+/**
+ * An open project and the deadline it will be closed after.
+ */
+public record ProjectDeadline(Long projectId, LocalDate deadline) {
+}
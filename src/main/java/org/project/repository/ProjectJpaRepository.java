@@ -1,11 +1,82 @@
 package org.project.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.project.dto.ProjectResponseDto;
 import org.project.entity.Project;
+import org.project.entity.ProjectStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Read methods returning DTOs select straight into the response records, nothing is put into
+ * the persistence context. They run in read-only transactions, so Hibernate does not flush.
+ */
 public interface ProjectJpaRepository extends JpaRepository<Project, Long> {
 
-    Optional<Object> findByName(String name);
+    @Transactional(readOnly = true)
+    @Query("select new org.project.repository.VersionedProjectRow(p.id, p.name, p.field, p.experience, p.description, "
+            + "p.deadline, p.status, p.version) from Project p where p.id = :id")
+    Optional<VersionedProjectRow> findVersionedById(Long id);
+
+    /**
+     * The version alone, enough to answer a conditional request without reading the project.
+     */
+    @Transactional(readOnly = true)
+    @Query("select p.version from Project p where p.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Transactional(readOnly = true)
+    @Query("select p.status from Project p where p.id = :id")
+    Optional<ProjectStatus> findStatusById(Long id);
+
+    @Transactional(readOnly = true)
+    @Query("select new org.project.dto.ProjectResponseDto(p.id, p.name, p.field, p.experience, p.description, "
+            + "p.deadline, p.status) "
+            + "from Project p where p.id > :afterId order by p.id")
+    List<ProjectResponseDto> findResponsesByIdGreaterThan(Long afterId, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("select new org.project.repository.ProjectVacancyRow(p.id, p.name, p.field, p.experience, p.description, "
+            + "p.deadline, p.status, v.id, v.name, v.field, v.experience, v.country, v.description) "
+            + "from Project p left join p.vacancies v where p.id = :id order by v.id")
+    List<ProjectVacancyRow> findVacancyRowsById(Long id);
+
+    /**
+     * Page of projects after {@code afterId} joined with their vacancies, in one statement. The
+     * page is limited in a subquery, so the limit counts projects and not joined rows.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new org.project.repository.ProjectVacancyRow(p.id, p.name, p.field, p.experience, p.description, "
+            + "p.deadline, p.status, v.id, v.name, v.field, v.experience, v.country, v.description) "
+            + "from Project p left join p.vacancies v "
+            + "where p.id in (select q.id from Project q where q.id > :afterId order by q.id limit :limit) "
+            + "order by p.id, v.id")
+    List<ProjectVacancyRow> findVacancyRowsByIdGreaterThan(Long afterId, int limit);
+
+    /**
+     * Deletes the project in one statement and returns the number of deleted rows. Its vacancies
+     * go with it through the ON DELETE CASCADE foreign key, not through orphan removal.
+     */
+    @Modifying
+    @Query("delete from Project p where p.id = :id")
+    int deleteProjectById(Long id);
+
+    @Modifying
+    @Query("delete from Project p where p.id = :id and p.version = :version")
+    int deleteProjectByIdAndVersion(Long id, long version);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new org.project.dto.ProjectResponseDto(p.id, p.name, p.field, p.experience, p.description, "
+            + "p.deadline, p.status) "
+            + "from Project p order by p.id")
+    Stream<ProjectResponseDto> streamResponses();
 }
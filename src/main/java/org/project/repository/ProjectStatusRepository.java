@@ -0,0 +1,71 @@
+package org.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Finds and closes open projects by deadline. Every statement is a range over the partial
+ * {@code idx_projects_open_deadline} index, which only holds open projects, so none of them
+ * reads closed projects or scans the table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectStatusRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Up to {@code limit} open projects with a deadline from {@code from}, or from any date if it
+     * is null, up to but excluding {@code until}, ordered by deadline.
+     */
+    public List<ProjectDeadline> findOpenByDeadline(LocalDate from, LocalDate until, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("until", Date.valueOf(until))
+                .addValue("limit", limit);
+        String lowerBound = "";
+        if (from != null) {
+            lowerBound = " AND deadline >= :from";
+            params.addValue("from", Date.valueOf(from));
+        }
+        return jdbcTemplate.query("SELECT id, deadline FROM projects WHERE status = 'OPEN'" + lowerBound
+                        + " AND deadline < :until ORDER BY deadline, id LIMIT :limit",
+                params, (rs, rowNum) -> new ProjectDeadline(rs.getLong("id"), rs.getObject("deadline", LocalDate.class)));
+    }
+
+    /**
+     * Closes those of the projects that are still open and past their deadline, and returns their
+     * ids. Projects deleted, closed or given a later deadline in the meantime are left alone.
+     */
+    public List<Long> close(Collection<Long> ids, LocalDate today) {
+        return jdbcTemplate.queryForList("UPDATE projects SET status = 'CLOSED'"
+                        + " WHERE id IN (:ids) AND status = 'OPEN' AND deadline < :today RETURNING id",
+                new MapSqlParameterSource("ids", ids).addValue("today", Date.valueOf(today)), Long.class);
+    }
+
+    /**
+     * Closes up to {@code limit} open projects past their deadline, whatever the caller knew
+     * about them, and returns their ids. Rows locked by a running write are left to a later call.
+     */
+    public List<Long> closeExpired(LocalDate today, int limit) {
+        return jdbcTemplate.queryForList("UPDATE projects SET status = 'CLOSED' WHERE id IN ("
+                        + "SELECT id FROM projects WHERE status = 'OPEN' AND deadline < :today"
+                        + " ORDER BY deadline, id LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING id",
+                new MapSqlParameterSource("today", Date.valueOf(today)).addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * Whether some open project is past its deadline, such as one {@link #closeExpired} skipped
+     * because a write held its row.
+     */
+    public boolean existsExpired(LocalDate today) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM projects"
+                        + " WHERE status = 'OPEN' AND deadline < :today)",
+                new MapSqlParameterSource("today", Date.valueOf(today)), Boolean.class));
+    }
+}
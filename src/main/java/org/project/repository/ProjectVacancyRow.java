@@ -0,0 +1,24 @@
+package org.project.repository;
+
+import org.project.entity.ProjectStatus;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a project left joined with its vacancies, the vacancy columns are null for a
+ * project without vacancies.
+ */
+public record ProjectVacancyRow(Long projectId,
+                                String projectName,
+                                String projectField,
+                                String projectExperience,
+                                String projectDescription,
+                                LocalDate projectDeadline,
+                                ProjectStatus projectStatus,
+                                Long vacancyId,
+                                String vacancyName,
+                                String vacancyField,
+                                String vacancyExperience,
+                                String vacancyCountry,
+                                String vacancyDescription) {
+}
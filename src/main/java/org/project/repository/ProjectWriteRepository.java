@@ -0,0 +1,137 @@
+package org.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.project.dto.MergePatch;
+import org.project.dto.ProjectRequestDto;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.ProjectUpsertResult;
+import org.project.dto.Versioned;
+import org.project.entity.ProjectStatus;
+import org.project.reference.ReferenceDictionary;
+import org.project.reference.ReferenceType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Project writes as single statements. Inserts rely on the unique index on {@code projects.name}
+ * instead of checking for the name first, so two concurrent writes of the same name cannot both
+ * insert.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectWriteRepository {
+
+    private static final String INSERT = "INSERT INTO projects (name, field_id, experience_id, description, deadline)"
+            + " VALUES (:name, :field_id, :experience_id, :description, :deadline)";
+
+    private static final String COLUMNS = "id, name, field_id, experience_id, description, deadline, status";
+
+    private static final String RETURNING = " RETURNING " + COLUMNS;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final ReferenceDictionary dictionary;
+
+    /**
+     * Inserts the project, or returns empty if a project with the same name already exists.
+     */
+    public Optional<ProjectResponseDto> insertIfAbsent(ProjectRequestDto project) {
+        List<ProjectResponseDto> inserted = jdbcTemplate.query(
+                INSERT + " ON CONFLICT (name) DO NOTHING" + RETURNING, params(project), this::project);
+        return inserted.stream().findFirst();
+    }
+
+    /**
+     * Inserts the project, or overwrites the project with the same name. A row that already holds
+     * the same values is not rewritten, so repeating an upsert leaves no dead tuples behind.
+     */
+    public ProjectUpsertResult upsertByName(ProjectRequestDto project) {
+        MapSqlParameterSource params = params(project);
+        while (true) {
+            List<ProjectUpsertResult> written = jdbcTemplate.query(INSERT
+                            + " ON CONFLICT (name) DO UPDATE SET field_id = EXCLUDED.field_id,"
+                            + " experience_id = EXCLUDED.experience_id, description = EXCLUDED.description, deadline = EXCLUDED.deadline"
+                            + " WHERE (projects.field_id, projects.experience_id, projects.description, projects.deadline)"
+                            + " IS DISTINCT FROM (EXCLUDED.field_id, EXCLUDED.experience_id, EXCLUDED.description, EXCLUDED.deadline)"
+                            // xmax is only 0 for a row version this statement inserted
+                            + RETURNING + ", xmax = 0 AS created",
+                    params, (rs, rowNum) -> new ProjectUpsertResult(
+                            project(rs, rowNum), rs.getBoolean("created")));
+            if (!written.isEmpty()) {
+                return written.get(0);
+            }
+            // Nothing changed, read the row as it is. Empty only if it was deleted in between, then insert again
+            List<ProjectResponseDto> unchanged = jdbcTemplate.query(
+                    "SELECT " + COLUMNS + " FROM projects WHERE name = :name", params, this::project);
+            if (!unchanged.isEmpty()) {
+                return new ProjectUpsertResult(unchanged.get(0), false);
+            }
+        }
+    }
+
+    /**
+     * Overwrites the project and returns it as stored with its new version, or empty if there is
+     * no project with this id or, when {@code expectedVersion} is given, its version differs.
+     */
+    public Optional<Versioned<ProjectResponseDto>> update(Long id, ProjectRequestDto project, Long expectedVersion) {
+        MapSqlParameterSource params = params(project)
+                .addValue("id", id)
+                .addValue("version", expectedVersion);
+        return jdbcTemplate.query("UPDATE projects SET name = :name, field_id = :field_id,"
+                        + " experience_id = :experience_id, description = :description, deadline = :deadline WHERE id = :id"
+                        + versionCondition(expectedVersion) + RETURNING + ", version",
+                params, this::versioned).stream().findFirst();
+    }
+
+    /**
+     * Sets only the columns present in the patch, in one UPDATE without reading the row first.
+     * Returns the project as stored with its version, or empty if there is no project with this
+     * id or, when {@code expectedVersion} is given, its version differs.
+     */
+    public Optional<Versioned<ProjectResponseDto>> patch(Long id, MergePatch patch, Long expectedVersion) {
+        String sql = (patch.isEmpty()
+                ? "SELECT " + COLUMNS + ", version FROM projects WHERE id = :id"
+                : "UPDATE projects SET " + MergePatchSql.assignments(patch) + " WHERE id = :id")
+                + versionCondition(expectedVersion)
+                + (patch.isEmpty() ? "" : RETURNING + ", version");
+        return jdbcTemplate.query(sql, MergePatchSql.params(id, patch, dictionary).addValue("version", expectedVersion),
+                        this::versioned)
+                .stream().findFirst();
+    }
+
+    private static String versionCondition(Long expectedVersion) {
+        return expectedVersion == null ? "" : " AND version = :version";
+    }
+
+    private MapSqlParameterSource params(ProjectRequestDto project) {
+        return new MapSqlParameterSource()
+                .addValue("name", project.name())
+                .addValue("field_id", dictionary.id(ReferenceType.FIELD, project.field()))
+                .addValue("experience_id", dictionary.id(ReferenceType.EXPERIENCE, project.experience()))
+                .addValue("description", project.description())
+                .addValue("deadline", project.deadline() == null ? null : Date.valueOf(project.deadline()));
+    }
+
+    private ProjectResponseDto project(ResultSet rs, int rowNum) throws SQLException {
+        return new ProjectResponseDto(
+                rs.getLong("id"),
+                rs.getString("name"),
+                dictionary.value(ReferenceType.FIELD, rs.getObject("field_id", Integer.class)),
+                dictionary.value(ReferenceType.EXPERIENCE, rs.getObject("experience_id", Integer.class)),
+                rs.getString("description"),
+                rs.getObject("deadline", LocalDate.class),
+                ProjectStatus.valueOf(rs.getString("status")));
+    }
+
+    private Versioned<ProjectResponseDto> versioned(ResultSet rs, int rowNum) throws SQLException {
+        return new Versioned<>(project(rs, rowNum), rs.getLong("version"));
+    }
+}
@@ -1,11 +1,59 @@
 package org.project.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.project.dto.VacancyResponseDto;
 import org.project.entity.Vacancy;
+import org.project.index.VacancyIndexRow;
+import org.project.match.MatchRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 public interface VacancyJpaRepository extends JpaRepository<Vacancy, Long> {
 
-    List<Vacancy> findByProjectId(Long projectId);
+    /**
+     * The vacancies of the project, none once it is closed.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new org.project.dto.VacancyResponseDto(v.id, v.name, v.field, v.experience, v.country, "
+            + "v.description, p.id) from Vacancy v join v.project p "
+            + "where p.id = :projectId and p.status = org.project.entity.ProjectStatus.OPEN order by v.id")
+    List<VacancyResponseDto> findResponsesByProjectId(Long projectId);
+
+    @Transactional(readOnly = true)
+    @Query("select new org.project.dto.VacancyResponseDto(v.id, v.name, v.field, v.experience, v.country, "
+            + "v.description, v.project.id) from Vacancy v where v.id in :ids")
+    List<VacancyResponseDto> findResponsesByIdIn(Collection<Long> ids);
+
+    List<Vacancy> findByProjectIdAndIdIn(Long projectId, Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new org.project.dto.VacancyResponseDto(v.id, v.name, v.field, v.experience, v.country, "
+            + "v.description, v.project.id) from Vacancy v order by v.id")
+    Stream<VacancyResponseDto> streamResponses();
+
+    /**
+     * Index rows of the vacancies of open projects, the index and matching skip closed ones.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new org.project.index.VacancyIndexRow(v.id, p.id, v.field, v.country, v.experience) "
+            + "from Vacancy v join v.project p where p.status = org.project.entity.ProjectStatus.OPEN")
+    Stream<VacancyIndexRow> streamIndexRows();
+
+    @Query("select new org.project.index.VacancyIndexRow(v.id, p.id, v.field, v.country, v.experience) "
+            + "from Vacancy v join v.project p "
+            + "where p.id in :projectIds and p.status = org.project.entity.ProjectStatus.OPEN")
+    List<VacancyIndexRow> findIndexRowsByProjectIdIn(Collection<Long> projectIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new org.project.match.MatchRow(v.id, v.field, v.country, v.experience, v.name, v.description, p.deadline) "
+            + "from Vacancy v join v.project p where p.status = org.project.entity.ProjectStatus.OPEN")
+    Stream<MatchRow> streamMatchRows();
 }
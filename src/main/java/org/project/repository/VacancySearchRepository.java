@@ -0,0 +1,109 @@
+package org.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.VacancySearchCriteria;
+import org.project.reference.ReferenceDictionary;
+import org.project.reference.ReferenceType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vacancy search on top of the generated {@code search_vector} column (GIN index)
+ * and the btree indexes on the facet columns. Facets are filtered and grouped by their
+ * reference ids, values are only resolved for the rows and groups returned. Vacancies of closed
+ * projects are not found.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VacancySearchRepository {
+
+    public static final String FIELD = "field";
+
+    public static final String COUNTRY = "country";
+
+    public static final String EXPERIENCE = "experience";
+
+    private static final String FROM = " FROM vacancies v JOIN projects p ON p.id = v.project_id AND p.status = 'OPEN'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final ReferenceDictionary dictionary;
+
+    public List<VacancyResponseDto> search(VacancySearchCriteria criteria, Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        String sql = "SELECT v.id, v.name, v.field_id, v.experience_id, v.country_id, v.description, v.project_id"
+                + FROM
+                + where(criteria, params) + " AND v.id > :afterId"
+                + " ORDER BY v.id LIMIT :limit";
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new VacancyResponseDto(
+                rs.getLong("id"),
+                rs.getString("name"),
+                dictionary.value(ReferenceType.FIELD, rs.getObject("field_id", Integer.class)),
+                dictionary.value(ReferenceType.EXPERIENCE, rs.getObject("experience_id", Integer.class)),
+                dictionary.value(ReferenceType.COUNTRY, rs.getObject("country_id", Integer.class)),
+                rs.getString("description"),
+                rs.getLong("project_id")));
+    }
+
+    /**
+     * Counts of every facet value over all vacancies matching the criteria, computed with one
+     * GROUPING SETS aggregate instead of one query per facet.
+     */
+    public Map<String, Map<String, Long>> facets(VacancySearchCriteria criteria) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT v.field_id, v.country_id, v.experience_id,"
+                + " GROUPING(v.field_id) AS by_field, GROUPING(v.country_id) AS by_country, COUNT(*) AS total"
+                + FROM
+                + where(criteria, params)
+                + " GROUP BY GROUPING SETS ((v.field_id), (v.country_id), (v.experience_id))"
+                + " ORDER BY total DESC";
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put(FIELD, new LinkedHashMap<>());
+        facets.put(COUNTRY, new LinkedHashMap<>());
+        facets.put(EXPERIENCE, new LinkedHashMap<>());
+        jdbcTemplate.query(sql, params, rs -> {
+            ReferenceType type = rs.getInt("by_field") == 0 ? ReferenceType.FIELD
+                    : rs.getInt("by_country") == 0 ? ReferenceType.COUNTRY : ReferenceType.EXPERIENCE;
+            String value = dictionary.value(type, rs.getObject(type.column(), Integer.class));
+            if (value != null) {
+                facets.get(type.attribute()).put(value, rs.getLong("total"));
+            }
+        });
+        return facets;
+    }
+
+    private String where(VacancySearchCriteria criteria, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder(" WHERE TRUE");
+        if (StringUtils.hasText(criteria.text())) {
+            where.append(" AND v.search_vector @@ websearch_to_tsquery('simple', :text)");
+            params.addValue("text", criteria.text());
+        }
+        appendIn(where, params, ReferenceType.FIELD, criteria.fields());
+        appendIn(where, params, ReferenceType.COUNTRY, criteria.countries());
+        appendIn(where, params, ReferenceType.EXPERIENCE, criteria.experiences());
+        return where.toString();
+    }
+
+    private void appendIn(StringBuilder where, MapSqlParameterSource params, ReferenceType type, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = dictionary.existingIds(type, values);
+        if (ids.isEmpty()) {
+            // No vacancy has any of these values
+            where.append(" AND FALSE");
+            return;
+        }
+        where.append(" AND v.").append(type.column()).append(" IN (:").append(type.column()).append(')');
+        params.addValue(type.column(), ids);
+    }
+}
@@ -0,0 +1,116 @@
+package org.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.project.dto.MergePatch;
+import org.project.dto.VacancyRequestDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
+import org.project.reference.ReferenceDictionary;
+import org.project.reference.ReferenceType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Vacancy updates and deletes as single statements, without loading the entities first. The
+ * rows they touch come back with RETURNING, so callers learn the owning project (for cache
+ * eviction and the index) and whether the vacancy existed at all from the same round trip.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VacancyWriteRepository {
+
+    private static final String COLUMNS = "id, name, field_id, experience_id, country_id, description, project_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final ReferenceDictionary dictionary;
+
+    /**
+     * Overwrites the vacancy and returns it as stored with its new version, or empty if there is
+     * no vacancy with this id or, when {@code expectedVersion} is given, its version differs.
+     */
+    public Optional<Versioned<VacancyResponseDto>> update(Long id, VacancyRequestDto vacancy, Long expectedVersion) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("name", vacancy.name())
+                .addValue("field_id", dictionary.id(ReferenceType.FIELD, vacancy.field()))
+                .addValue("experience_id", dictionary.id(ReferenceType.EXPERIENCE, vacancy.experience()))
+                .addValue("country_id", dictionary.id(ReferenceType.COUNTRY, vacancy.country()))
+                .addValue("description", vacancy.description())
+                .addValue("version", expectedVersion);
+        return jdbcTemplate.query("UPDATE vacancies SET name = :name, field_id = :field_id,"
+                        + " experience_id = :experience_id, country_id = :country_id, description = :description"
+                        + " WHERE id = :id" + versionCondition(expectedVersion)
+                        + " RETURNING " + COLUMNS + ", version",
+                params, this::versioned).stream().findFirst();
+    }
+
+    /**
+     * Sets only the columns present in the patch, in one UPDATE without reading the row first.
+     * Returns the vacancy as stored with its version, or empty if there is no vacancy with this
+     * id or, when {@code expectedVersion} is given, its version differs.
+     */
+    public Optional<Versioned<VacancyResponseDto>> patch(Long id, MergePatch patch, Long expectedVersion) {
+        String sql = (patch.isEmpty()
+                ? "SELECT " + COLUMNS + ", version FROM vacancies WHERE id = :id"
+                : "UPDATE vacancies SET " + MergePatchSql.assignments(patch) + " WHERE id = :id")
+                + versionCondition(expectedVersion)
+                + (patch.isEmpty() ? "" : " RETURNING " + COLUMNS + ", version");
+        return jdbcTemplate.query(sql, MergePatchSql.params(id, patch, dictionary).addValue("version", expectedVersion),
+                        this::versioned)
+                .stream().findFirst();
+    }
+
+    /**
+     * Deletes the vacancy and returns the id of its project, or empty if there is no vacancy with
+     * this id or, when {@code expectedVersion} is given, its version differs.
+     */
+    public Optional<Long> delete(Long id, Long expectedVersion) {
+        return jdbcTemplate.queryForList("DELETE FROM vacancies WHERE id = :id"
+                        + versionCondition(expectedVersion) + " RETURNING project_id",
+                new MapSqlParameterSource("id", id).addValue("version", expectedVersion), Long.class)
+                .stream().findFirst();
+    }
+
+    /**
+     * The version of the vacancy, or empty if there is no vacancy with this id.
+     */
+    public Optional<Long> findVersion(Long id) {
+        return jdbcTemplate.queryForList("SELECT version FROM vacancies WHERE id = :id",
+                new MapSqlParameterSource("id", id), Long.class).stream().findFirst();
+    }
+
+    /**
+     * Deletes those of the vacancies that belong to the project and returns their ids.
+     */
+    public List<Long> deleteByProjectId(Long projectId, Collection<Long> ids) {
+        return jdbcTemplate.queryForList("DELETE FROM vacancies WHERE project_id = :projectId AND id IN (:ids) RETURNING id",
+                new MapSqlParameterSource()
+                        .addValue("projectId", projectId)
+                        .addValue("ids", ids),
+                Long.class);
+    }
+
+    private static String versionCondition(Long expectedVersion) {
+        return expectedVersion == null ? "" : " AND version = :version";
+    }
+
+    private Versioned<VacancyResponseDto> versioned(ResultSet rs, int rowNum) throws SQLException {
+        return new Versioned<>(new VacancyResponseDto(
+                rs.getLong("id"),
+                rs.getString("name"),
+                dictionary.value(ReferenceType.FIELD, rs.getObject("field_id", Integer.class)),
+                dictionary.value(ReferenceType.EXPERIENCE, rs.getObject("experience_id", Integer.class)),
+                dictionary.value(ReferenceType.COUNTRY, rs.getObject("country_id", Integer.class)),
+                rs.getString("description"),
+                rs.getLong("project_id")),
+                rs.getLong("version"));
+    }
+}
@@ -0,0 +1,25 @@
+package org.project.repository;
+
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.Versioned;
+import org.project.entity.ProjectStatus;
+
+import java.time.LocalDate;
+
+/**
+ * A project response with its version, read in one row so the two cannot disagree.
+ */
+public record VersionedProjectRow(Long id,
+                                  String name,
+                                  String field,
+                                  String experience,
+                                  String description,
+                                  LocalDate deadline,
+                                  ProjectStatus status,
+                                  long version) {
+
+    public Versioned<ProjectResponseDto> toVersioned() {
+        return new Versioned<>(new ProjectResponseDto(id, name, field, experience, description, deadline, status),
+                version);
+    }
+}
@@ -0,0 +1,14 @@
+package org.project.service;
+
+import org.project.dto.ChangeFeedResponseDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface ChangeService {
+
+    CompletableFuture<ChangeFeedResponseDto> getChanges(Long since, int limit, Duration wait);
+
+    SseEmitter streamChanges(Long since);
+}
@@ -0,0 +1,38 @@
+package org.project.service;
+
+import lombok.RequiredArgsConstructor;
+import org.project.dto.ChangeEventDto;
+import org.project.dto.ChangeFeedResponseDto;
+import org.project.outbox.ChangeFeed;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+public class ChangeServiceImpl implements ChangeService {
+
+    private final ChangeFeed changeFeed;
+
+    /**
+     * The changes after {@code since}, waiting up to {@code wait} for the next ones if there are
+     * none yet. Without {@code since} only changes from now on are returned.
+     */
+    @Override
+    public CompletableFuture<ChangeFeedResponseDto> getChanges(Long since, int limit, Duration wait) {
+        long from = since == null ? changeFeed.lastPosition() : since;
+        return changeFeed.poll(from, limit, wait).thenApply(changes -> new ChangeFeedResponseDto(changes, next(from, changes)));
+    }
+
+    @Override
+    public SseEmitter streamChanges(Long since) {
+        return changeFeed.stream(since == null ? changeFeed.lastPosition() : since);
+    }
+
+    private static long next(long since, List<ChangeEventDto> changes) {
+        return changes.isEmpty() ? since : changes.get(changes.size() - 1).position();
+    }
+}
@@ -0,0 +1,14 @@
+package org.project.service;
+
+import org.project.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+public interface ExportService {
+
+    void exportProjects(ExportFormat format, OutputStream out) throws IOException;
+
+    void exportVacancies(ExportFormat format, OutputStream out) throws IOException;
+}
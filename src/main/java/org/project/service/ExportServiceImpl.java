@@ -0,0 +1,193 @@
+package org.project.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.project.dto.ExportFormat;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.repository.ProjectJpaRepository;
+import org.project.repository.VacancyJpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to the client. Rows are read through a forward-only cursor straight
+ * into the response records and written out one by one, the output is flushed every
+ * {@link #CHUNK_SIZE} rows. Nothing enters the persistence context, so memory use does not
+ * depend on the table size.
+ */
+@Timed(value = "app.service", histogram = true)
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final Map<String, Function<ProjectResponseDto, Object>> PROJECT_COLUMNS = new LinkedHashMap<>();
+
+    private static final Map<String, Function<VacancyResponseDto, Object>> VACANCY_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        PROJECT_COLUMNS.put("id", ProjectResponseDto::id);
+        PROJECT_COLUMNS.put("name", ProjectResponseDto::name);
+        PROJECT_COLUMNS.put("field", ProjectResponseDto::field);
+        PROJECT_COLUMNS.put("experience", ProjectResponseDto::experience);
+        PROJECT_COLUMNS.put("description", ProjectResponseDto::description);
+        PROJECT_COLUMNS.put("deadline", ProjectResponseDto::deadline);
+        PROJECT_COLUMNS.put("status", ProjectResponseDto::status);
+
+        VACANCY_COLUMNS.put("id", VacancyResponseDto::id);
+        VACANCY_COLUMNS.put("name", VacancyResponseDto::name);
+        VACANCY_COLUMNS.put("field", VacancyResponseDto::field);
+        VACANCY_COLUMNS.put("experience", VacancyResponseDto::experience);
+        VACANCY_COLUMNS.put("country", VacancyResponseDto::country);
+        VACANCY_COLUMNS.put("description", VacancyResponseDto::description);
+        VACANCY_COLUMNS.put("projectId", VacancyResponseDto::projectId);
+    }
+
+    private final ProjectJpaRepository projectRepository;
+
+    private final VacancyJpaRepository vacancyRepository;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProjects(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ProjectResponseDto> projects = projectRepository.streamResponses();
+             RowWriter<ProjectResponseDto> writer = createWriter(format, ProjectResponseDto.class, PROJECT_COLUMNS, out)) {
+            export(projects, writer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportVacancies(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<VacancyResponseDto> vacancies = vacancyRepository.streamResponses();
+             RowWriter<VacancyResponseDto> writer = createWriter(format, VacancyResponseDto.class, VACANCY_COLUMNS, out)) {
+            export(vacancies, writer);
+        }
+    }
+
+    private <D> void export(Stream<D> rows, RowWriter<D> writer) throws IOException {
+        Iterator<D> iterator = rows.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            writer.write(iterator.next());
+            if (++count % CHUNK_SIZE == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private <D> RowWriter<D> createWriter(ExportFormat format, Class<D> type,
+                                          Map<String, Function<D, Object>> columns, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonRowWriter<>(objectMapper, type, out);
+            case CSV -> new CsvRowWriter<>(columns, out);
+        };
+    }
+
+    private interface RowWriter<D> extends Closeable {
+
+        void write(D row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter<D> implements RowWriter<D> {
+
+        private final JsonGenerator generator;
+
+        private final ObjectWriter writer;
+
+        NdjsonRowWriter(ObjectMapper objectMapper, Class<D> type, OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+            this.writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(D row) throws IOException {
+            writer.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter<D> implements RowWriter<D> {
+
+        private final Map<String, Function<D, Object>> columns;
+
+        private final Writer writer;
+
+        CsvRowWriter(Map<String, Function<D, Object>> columns, OutputStream out) throws IOException {
+            this.columns = columns;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(String.join(",", columns.keySet()));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(D row) throws IOException {
+            boolean first = true;
+            for (Function<D, Object> column : columns.values()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                Object value = column.apply(row);
+                if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.project.service;
+
+import org.project.dto.MatchRequestDto;
+import org.project.dto.VacancyMatchDto;
+
+import java.util.List;
+
+public interface MatchService {
+
+    List<VacancyMatchDto> match(MatchRequestDto request);
+}
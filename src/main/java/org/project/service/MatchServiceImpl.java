@@ -0,0 +1,57 @@
+package org.project.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.project.dto.MatchRequestDto;
+import org.project.dto.VacancyMatchDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.match.MatchEngine;
+import org.project.match.MatchHits;
+import org.project.match.MatchQuery;
+import org.project.repository.VacancyJpaRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Timed(value = "app.service", histogram = true)
+@Service
+@RequiredArgsConstructor
+public class MatchServiceImpl implements MatchService {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final MatchEngine matchEngine;
+
+    private final VacancyJpaRepository vacancyRepository;
+
+    private final Clock clock;
+
+    @Override
+    public List<VacancyMatchDto> match(MatchRequestDto request) {
+        int limit = request.limit() == null ? DEFAULT_LIMIT : request.limit();
+        MatchQuery query = new MatchQuery(request.field(), request.country(), request.experience(),
+                request.skills(), LocalDate.now(clock));
+        MatchHits hits = matchEngine.match(query, limit);
+
+        // Only the winners are read from the database
+        Map<Long, VacancyResponseDto> vacancies = vacancyRepository.findResponsesByIdIn(Arrays.stream(hits.ids()).boxed().toList())
+                .stream()
+                .collect(Collectors.toMap(VacancyResponseDto::id, Function.identity()));
+        List<VacancyMatchDto> matches = new ArrayList<>(hits.ids().length);
+        for (int i = 0; i < hits.ids().length; i++) {
+            VacancyResponseDto vacancy = vacancies.get(hits.ids()[i]);
+            // Deleted since the snapshot was taken
+            if (vacancy != null) {
+                matches.add(new VacancyMatchDto(hits.scores()[i], vacancy));
+            }
+        }
+        return matches;
+    }
+}
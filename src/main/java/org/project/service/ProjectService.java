@@ -1,20 +1,34 @@
 package org.project.service;
 
+import org.project.dto.MergePatch;
+import org.project.dto.ProjectDetailsResponseDto;
 import org.project.dto.ProjectRequestDto;
-import org.project.entity.Project;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.ProjectUpsertResult;
+import org.project.dto.Versioned;
 
 import java.util.List;
 
 
 public interface ProjectService {
 
-    List<Project> getAll();
+    List<ProjectResponseDto> getAll(Long afterId, int limit, boolean includeArchived);
 
-    Project getById(Long id);
+    Versioned<ProjectResponseDto> getById(Long id, boolean includeArchived);
 
-    Project create(Project category);
+    long getVersion(Long id, boolean includeArchived);
 
-    Project update(Long id, ProjectRequestDto requestDto);
+    ProjectDetailsResponseDto getByIdWithVacancies(Long id, boolean includeArchived);
 
-    void delete(Long id);
+    List<ProjectDetailsResponseDto> getAllWithVacancies(Long afterId, int limit, boolean includeArchived);
+
+    ProjectResponseDto create(ProjectRequestDto requestDto);
+
+    ProjectUpsertResult upsertByName(String name, ProjectRequestDto requestDto);
+
+    Versioned<ProjectResponseDto> update(Long id, ProjectRequestDto requestDto, Long expectedVersion);
+
+    Versioned<ProjectResponseDto> patch(Long id, MergePatch patch, Long expectedVersion);
+
+    void delete(Long id, Long expectedVersion);
 }
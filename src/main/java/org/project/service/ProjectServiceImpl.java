@@ -1,62 +1,251 @@
 package org.project.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.project.cache.CacheInvalidator;
+import org.project.cache.ReadThroughCache;
+import org.project.dto.MergePatch;
+import org.project.dto.ProjectDetailsResponseDto;
 import org.project.dto.ProjectRequestDto;
-import org.project.entity.Project;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.ProjectUpsertResult;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
+import org.project.entity.ProjectStatus;
+import org.project.exception.PreconditionFailedException;
 import org.project.exception.ProjectAlreadyExistsException;
+import org.project.exception.ProjectNameMismatchException;
 import org.project.exception.ProjectNotFoundException;
+import org.project.index.VacancyIndex;
+import org.project.lifecycle.DeadlineScheduler;
+import org.project.outbox.ChangeOutbox;
+import org.project.outbox.ChangeType;
+import org.project.repository.ProjectArchiveRepository;
 import org.project.repository.ProjectJpaRepository;
+import org.project.repository.ProjectWriteRepository;
+import org.project.repository.ProjectVacancyRow;
+import org.project.repository.VersionedProjectRow;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+@Timed(value = "app.service", histogram = true)
 @Service
 @RequiredArgsConstructor
 public class ProjectServiceImpl implements ProjectService {
 
     private final ProjectJpaRepository repository;
 
+    private final ProjectWriteRepository writeRepository;
+
+    private final ProjectArchiveRepository archiveRepository;
+
+    private final ReadThroughCache<Long, Versioned<ProjectResponseDto>> projectCache;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    private final VacancyIndex vacancyIndex;
+
+    private final DeadlineScheduler deadlineScheduler;
+
+    private final ChangeOutbox changeOutbox;
+
+    @Override
+    public List<ProjectResponseDto> getAll(Long afterId, int limit, boolean includeArchived) {
+        if (includeArchived) {
+            return archiveRepository.findResponsesByIdGreaterThan(afterId, limit);
+        }
+        return repository.findResponsesByIdGreaterThan(afterId, Limit.of(limit));
+    }
+
+    /**
+     * The live project, served from the cache. Archived projects never change and are rarely
+     * read, they are looked up in the archive only when asked for and never cached.
+     */
+    @Override
+    public Versioned<ProjectResponseDto> getById(Long id, boolean includeArchived) {
+        Versioned<ProjectResponseDto> project = projectCache.get(id,
+                key -> repository.findVersionedById(key).map(VersionedProjectRow::toVersioned).orElse(null));
+        if (project == null && includeArchived) {
+            project = archiveRepository.findById(id).orElse(null);
+        }
+        if (project == null) {
+            throw new ProjectNotFoundException("Project not found with id: " + id);
+        }
+        return project;
+    }
+
+    /**
+     * The version of the project, from the cached project if there is one, otherwise from a
+     * lookup of the version column alone.
+     */
+    @Override
+    public long getVersion(Long id, boolean includeArchived) {
+        Versioned<ProjectResponseDto> cached = projectCache.nativeCache().getIfPresent(id);
+        if (cached != null) {
+            return cached.version();
+        }
+        Optional<Long> version = repository.findVersionById(id);
+        if (version.isEmpty() && includeArchived) {
+            version = archiveRepository.findVersionById(id);
+        }
+        return version.orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + id));
+    }
+
+    @Override
+    public ProjectDetailsResponseDto getByIdWithVacancies(Long id, boolean includeArchived) {
+        List<ProjectDetailsResponseDto> projects = toDetails(repository.findVacancyRowsById(id), includeArchived);
+        if (projects.isEmpty() && includeArchived) {
+            projects = toDetails(archiveRepository.findVacancyRowsById(id), true);
+        }
+        if (projects.isEmpty()) {
+            throw new ProjectNotFoundException("Project not found with id: " + id);
+        }
+        return projects.get(0);
+    }
+
     @Override
-    public List<Project> getAll() {
-        return repository.findAll();
+    public List<ProjectDetailsResponseDto> getAllWithVacancies(Long afterId, int limit, boolean includeArchived) {
+        if (includeArchived) {
+            return toDetails(archiveRepository.findVacancyRowsByIdGreaterThan(afterId, limit), true);
+        }
+        return toDetails(repository.findVacancyRowsByIdGreaterThan(afterId, limit), false);
     }
 
     @Override
-    public Project getById(Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + id));
+    @Transactional
+    public ProjectResponseDto create(ProjectRequestDto requestDto) {
+        ProjectResponseDto created = writeRepository.insertIfAbsent(requestDto)
+                .orElseThrow(() -> new ProjectAlreadyExistsException("Project already exists with name: " + requestDto.name()));
+        changeOutbox.project(ChangeType.CREATED, created.id());
+        if (created.status() == ProjectStatus.OPEN) {
+            deadlineScheduler.schedule(created.id(), created.deadline());
+        } else {
+            changeOutbox.project(ChangeType.CLOSED, created.id());
+        }
+        return created;
     }
 
     @Override
     @Transactional
-    public Project create(Project project) {
-        if (repository.findByName(project.getName()).isPresent()) {
-            throw new ProjectAlreadyExistsException("Project already exists with name: " + project.getName());
+    public ProjectUpsertResult upsertByName(String name, ProjectRequestDto requestDto) {
+        if (!name.equals(requestDto.name())) {
+            throw new ProjectNameMismatchException("Project name in the body must be: " + name);
         }
-        return repository.save(project);
+        ProjectUpsertResult result = writeRepository.upsertByName(requestDto);
+        changeOutbox.project(result.created() ? ChangeType.CREATED : ChangeType.UPDATED, result.project().id());
+        if (!result.created()) {
+            cacheInvalidator.evictProject(result.project().id());
+        }
+        deadlineWritten(result.project());
+        return result;
     }
 
     @Override
     @Transactional
-    public void delete(Long id) {
-        Project project = getById(id);
-        repository.deleteById(project.getId());
+    public void delete(Long id, Long expectedVersion) {
+        int deleted = expectedVersion == null
+                ? repository.deleteProjectById(id)
+                : repository.deleteProjectByIdAndVersion(id, expectedVersion);
+        if (deleted == 0) {
+            throw notWritten(id, expectedVersion);
+        }
+        changeOutbox.project(ChangeType.DELETED, id);
+        cacheInvalidator.evictProject(id);
+        cacheInvalidator.evictProjectVacancies(id);
+        vacancyIndex.removeProject(id);
+        deadlineScheduler.cancel(id);
     }
 
     @Override
     @Transactional
-    public Project update(Long id, ProjectRequestDto requestDto) {
-        Project project = getById(id);
+    public Versioned<ProjectResponseDto> update(Long id, ProjectRequestDto requestDto, Long expectedVersion) {
+        Versioned<ProjectResponseDto> updated;
+        try {
+            updated = writeRepository.update(id, requestDto, expectedVersion)
+                    .orElseThrow(() -> notWritten(id, expectedVersion));
+        } catch (DataIntegrityViolationException e) {
+            throw new ProjectAlreadyExistsException("Project already exists with name: " + requestDto.name());
+        }
+        changeOutbox.project(ChangeType.UPDATED, id);
+        cacheInvalidator.evictProject(id);
+        deadlineWritten(updated.value());
+        return updated;
+    }
 
-        project.setName(requestDto.name());
-        project.setField(requestDto.field());
-        project.setExperience(requestDto.experience());
-        project.setDescription(requestDto.description());
-        project.setDeadline(requestDto.deadline());
+    @Override
+    @Transactional
+    public Versioned<ProjectResponseDto> patch(Long id, MergePatch patch, Long expectedVersion) {
+        Versioned<ProjectResponseDto> patched;
+        try {
+            patched = writeRepository.patch(id, patch, expectedVersion)
+                    .orElseThrow(() -> notWritten(id, expectedVersion));
+        } catch (DataIntegrityViolationException e) {
+            throw new ProjectAlreadyExistsException("Project already exists with name: " + patch.values().get("name"));
+        }
+        if (!patch.isEmpty()) {
+            changeOutbox.project(ChangeType.UPDATED, id);
+            cacheInvalidator.evictProject(id);
+        }
+        if (patch.values().containsKey("deadline")) {
+            deadlineWritten(patched.value());
+        }
+        return patched;
+    }
 
-        return repository.save(project);
+    /**
+     * Keeps the deadline scheduler and the vacancy index in line after a write of the deadline. A
+     * deadline moved into the past closes the project in the same statement, see the status trigger,
+     * so its vacancies leave the index here and on the other nodes, and the change feed records the
+     * close as the deadline scheduler does.
+     */
+    private void deadlineWritten(ProjectResponseDto project) {
+        if (project.status() == ProjectStatus.OPEN) {
+            deadlineScheduler.schedule(project.id(), project.deadline());
+            return;
+        }
+        deadlineScheduler.cancel(project.id());
+        changeOutbox.project(ChangeType.CLOSED, project.id());
+        cacheInvalidator.evictProjectVacancies(project.id());
+        vacancyIndex.removeProject(project.id());
     }
-}
 
+    /**
+     * A conditional write that touched no row failed its precondition if the project still exists.
+     */
+    private RuntimeException notWritten(Long id, Long expectedVersion) {
+        if (expectedVersion != null && repository.findVersionById(id).isPresent()) {
+            return new PreconditionFailedException("Project " + id + " has changed, version is no longer " + expectedVersion);
+        }
+        return new ProjectNotFoundException("Project not found with id: " + id);
+    }
 
+    /**
+     * Folds rows ordered by project id into one project per run of equal project ids. Closed projects
+     * come without their vacancies, unless the caller asked for past projects.
+     */
+    private static List<ProjectDetailsResponseDto> toDetails(List<ProjectVacancyRow> rows, boolean includeClosed) {
+        List<ProjectDetailsResponseDto> projects = new ArrayList<>();
+        List<VacancyResponseDto> vacancies = null;
+        Long current = null;
+        for (ProjectVacancyRow row : rows) {
+            if (!row.projectId().equals(current)) {
+                current = row.projectId();
+                vacancies = new ArrayList<>();
+                projects.add(new ProjectDetailsResponseDto(row.projectId(), row.projectName(), row.projectField(),
+                        row.projectExperience(), row.projectDescription(), row.projectDeadline(), row.projectStatus(),
+                        vacancies));
+            }
+            if (row.vacancyId() != null && (includeClosed || row.projectStatus() == ProjectStatus.OPEN)) {
+                vacancies.add(new VacancyResponseDto(row.vacancyId(), row.vacancyName(), row.vacancyField(),
+                        row.vacancyExperience(), row.vacancyCountry(), row.vacancyDescription(), row.projectId()));
+            }
+        }
+        return projects;
+    }
+}
@@ -1,18 +1,46 @@
 package org.project.service;
 
+import org.project.dto.MergePatch;
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyBatchUpdateItemDto;
+import org.project.dto.VacancyLookupResponseDto;
 import org.project.dto.VacancyRequestDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.VacancySearchCriteria;
+import org.project.dto.Versioned;
 import org.project.entity.Vacancy;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 public interface VacancyService {
 
-    List<Vacancy> getByProjectId(Long projectId);
+    Versioned<List<VacancyResponseDto>> getByProjectId(Long projectId);
+
+    long getProjectVersion(Long projectId);
+
+    SseEmitter streamByProjectId(Long projectId);
 
     Vacancy addVacancyToProject(VacancyRequestDto requestDto, Long projectId);
 
-    Vacancy updateVacancy(Long id, VacancyRequestDto requestDto);
+    Versioned<VacancyResponseDto> updateVacancy(Long id, VacancyRequestDto requestDto, Long expectedVersion);
+
+    Versioned<VacancyResponseDto> patchVacancy(Long id, MergePatch patch, Long expectedVersion);
+
+    void deleteVacancy(Long id, Long expectedVersion);
+
+    List<Vacancy> addVacanciesToProject(List<VacancyRequestDto> requestDtos, Long projectId);
+
+    List<Vacancy> updateVacancies(Long projectId, List<VacancyBatchUpdateItemDto> items);
+
+    Set<Long> deleteVacancies(Long projectId, List<Long> ids);
+
+    List<VacancyResponseDto> search(VacancySearchCriteria criteria, Long afterId, int limit);
+
+    Map<String, Map<String, Long>> searchFacets(VacancySearchCriteria criteria);
 
-    void deleteVacancy(Long id);
+    VacancyLookupResponseDto lookup(VacancyAttributeFilter filter, int limit);
 }
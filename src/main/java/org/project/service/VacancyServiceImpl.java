@@ -1,17 +1,42 @@
 package org.project.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.project.cache.CacheInvalidator;
+import org.project.cache.ReadThroughCache;
+import org.project.dto.MergePatch;
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyBatchUpdateItemDto;
+import org.project.dto.VacancyLookupResponseDto;
 import org.project.dto.VacancyRequestDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
+import org.project.dto.VacancySearchCriteria;
 import org.project.entity.Project;
+import org.project.entity.ProjectStatus;
 import org.project.entity.Vacancy;
+import org.project.exception.PreconditionFailedException;
 import org.project.exception.ProjectNotFoundException;
 import org.project.exception.VacancyNotFoundException;
+import org.project.index.VacancyIndex;
+import org.project.index.VacancyIndexRow;
+import org.project.outbox.ChangeOutbox;
+import org.project.outbox.ChangeType;
+import org.project.outbox.VacancyStreamHub;
 import org.project.repository.ProjectJpaRepository;
 import org.project.repository.VacancyJpaRepository;
+import org.project.repository.VacancySearchRepository;
+import org.project.repository.VacancyWriteRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+@Timed(value = "app.service", histogram = true)
 @Service
 @RequiredArgsConstructor
 public class VacancyServiceImpl implements VacancyService {
@@ -20,12 +45,53 @@ public class VacancyServiceImpl implements VacancyService {
 
     private final ProjectJpaRepository projectRepository;
 
+    private final VacancySearchRepository vacancySearchRepository;
+
+    private final VacancyWriteRepository vacancyWriteRepository;
+
+    private final ReadThroughCache<Long, Versioned<List<VacancyResponseDto>>> projectVacanciesCache;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    private final VacancyIndex vacancyIndex;
+
+    private final ChangeOutbox changeOutbox;
+
+    private final VacancyStreamHub vacancyStreamHub;
+
     @Override
-    public List<Vacancy> getByProjectId(Long projectId) {
-        if (!projectRepository.existsById(projectId)) {
-            throw new ProjectNotFoundException("Project not found with id: " + projectId);
+    public Versioned<List<VacancyResponseDto>> getByProjectId(Long projectId) {
+        return projectVacanciesCache.get(projectId, key -> {
+            // Read before the vacancies, a change committed in between leaves the version behind the
+            // list, which only costs the client one more full response
+            long version = projectRepository.findVersionById(key)
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + key));
+            return new Versioned<>(vacancyRepository.findResponsesByProjectId(key), version);
+        });
+    }
+
+    /**
+     * The version of the project, which covers its vacancies, from the cached list if there is
+     * one, otherwise from a lookup of the version column alone.
+     */
+    @Override
+    public long getProjectVersion(Long projectId) {
+        Versioned<List<VacancyResponseDto>> cached = projectVacanciesCache.nativeCache().getIfPresent(projectId);
+        if (cached != null) {
+            return cached.version();
         }
-        return vacancyRepository.findByProjectId(projectId);
+        return projectRepository.findVersionById(projectId)
+                .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+    }
+
+    /**
+     * A stream of the vacancies of the project, a snapshot first and then every change to them.
+     */
+    @Override
+    public SseEmitter streamByProjectId(Long projectId) {
+        // Fails the request, rather than the stream, for a project that does not exist
+        getProjectVersion(projectId);
+        return vacancyStreamHub.subscribe(projectId);
     }
 
     @Override
@@ -34,7 +100,132 @@ public class VacancyServiceImpl implements VacancyService {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
 
-        Vacancy vacancy = Vacancy.builder()
+        Vacancy saved = vacancyRepository.save(toVacancy(requestDto, project));
+        changeOutbox.vacancy(ChangeType.CREATED, projectId, saved.getId());
+        cacheInvalidator.evictProjectVacancies(projectId);
+        if (project.getStatus() != ProjectStatus.CLOSED) {
+            vacancyIndex.put(List.of(saved));
+        }
+        return saved;
+    }
+
+    @Transactional
+    @Override
+    public Versioned<VacancyResponseDto> updateVacancy(Long id, VacancyRequestDto requestDto, Long expectedVersion) {
+        Versioned<VacancyResponseDto> updated = vacancyWriteRepository.update(id, requestDto, expectedVersion)
+                .orElseThrow(() -> notWritten(id, expectedVersion));
+        changeOutbox.vacancy(ChangeType.UPDATED, updated.value().projectId(), id);
+        cacheInvalidator.evictProjectVacancies(updated.value().projectId());
+        vacancyIndex.replaceRows(List.of(VacancyIndexRow.of(updated.value())));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public Versioned<VacancyResponseDto> patchVacancy(Long id, MergePatch patch, Long expectedVersion) {
+        Versioned<VacancyResponseDto> patched = vacancyWriteRepository.patch(id, patch, expectedVersion)
+                .orElseThrow(() -> notWritten(id, expectedVersion));
+        if (!patch.isEmpty()) {
+            changeOutbox.vacancy(ChangeType.UPDATED, patched.value().projectId(), id);
+            cacheInvalidator.evictProjectVacancies(patched.value().projectId());
+            vacancyIndex.replaceRows(List.of(VacancyIndexRow.of(patched.value())));
+        }
+        return patched;
+    }
+
+    @Override
+    @Transactional
+    public void deleteVacancy(Long id, Long expectedVersion) {
+        Long projectId = vacancyWriteRepository.delete(id, expectedVersion)
+                .orElseThrow(() -> notWritten(id, expectedVersion));
+        changeOutbox.vacancy(ChangeType.DELETED, projectId, id);
+        cacheInvalidator.evictProjectVacancies(projectId);
+        vacancyIndex.remove(projectId, List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public List<Vacancy> addVacanciesToProject(List<VacancyRequestDto> requestDtos, Long projectId) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+
+        List<Vacancy> vacancies = requestDtos.stream()
+                .map(requestDto -> toVacancy(requestDto, project))
+                .toList();
+        // Pooled ids and hibernate.jdbc.batch_size turn this into batched INSERTs flushed on commit
+        List<Vacancy> saved = vacancyRepository.saveAll(vacancies);
+        changeOutbox.vacancies(ChangeType.CREATED, projectId, saved.stream().map(Vacancy::getId).toList());
+        cacheInvalidator.evictProjectVacancies(projectId);
+        if (project.getStatus() != ProjectStatus.CLOSED) {
+            vacancyIndex.put(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<Vacancy> updateVacancies(Long projectId, List<VacancyBatchUpdateItemDto> items) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException("Project not found with id: " + projectId);
+        }
+        Map<Long, VacancyRequestDto> changes = new LinkedHashMap<>();
+        items.forEach(item -> changes.put(item.id(), item.vacancy()));
+
+        List<Vacancy> vacancies = vacancyRepository.findByProjectIdAndIdIn(projectId, changes.keySet());
+        vacancies.forEach(vacancy -> apply(vacancy, changes.get(vacancy.getId())));
+        List<Vacancy> saved = vacancyRepository.saveAll(vacancies);
+        changeOutbox.vacancies(ChangeType.UPDATED, projectId, saved.stream().map(Vacancy::getId).toList());
+        cacheInvalidator.evictProjectVacancies(projectId);
+        vacancyIndex.replaceRows(saved.stream().map(VacancyIndexRow::of).toList());
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public Set<Long> deleteVacancies(Long projectId, List<Long> ids) {
+        Set<Long> deleted = ids.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(vacancyWriteRepository.deleteByProjectId(projectId, new HashSet<>(ids)));
+        if (deleted.isEmpty()) {
+            // Only nothing deleted can mean the project does not exist
+            if (!projectRepository.existsById(projectId)) {
+                throw new ProjectNotFoundException("Project not found with id: " + projectId);
+            }
+            return deleted;
+        }
+        changeOutbox.vacancies(ChangeType.DELETED, projectId, deleted);
+        cacheInvalidator.evictProjectVacancies(projectId);
+        vacancyIndex.remove(projectId, deleted);
+        return deleted;
+    }
+
+    @Override
+    public List<VacancyResponseDto> search(VacancySearchCriteria criteria, Long afterId, int limit) {
+        return vacancySearchRepository.search(criteria, afterId, limit);
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> searchFacets(VacancySearchCriteria criteria) {
+        return vacancySearchRepository.facets(criteria);
+    }
+
+    @Override
+    public VacancyLookupResponseDto lookup(VacancyAttributeFilter filter, int limit) {
+        return vacancyIndex.query(filter, limit);
+    }
+
+    /**
+     * A conditional write that touched no row failed its precondition if the vacancy still exists.
+     */
+    private RuntimeException notWritten(Long id, Long expectedVersion) {
+        if (expectedVersion != null && vacancyWriteRepository.findVersion(id).isPresent()) {
+            return new PreconditionFailedException("Vacancy " + id + " has changed, version is no longer " + expectedVersion);
+        }
+        return new VacancyNotFoundException("Vacancy not found with id: " + id);
+    }
+
+    private Vacancy toVacancy(VacancyRequestDto requestDto, Project project) {
+        return Vacancy.builder()
                 .name(requestDto.name())
                 .field(requestDto.field())
                 .experience(requestDto.experience())
@@ -42,31 +233,14 @@ public class VacancyServiceImpl implements VacancyService {
                 .description(requestDto.description())
                 .project(project)
                 .build();
-        return vacancyRepository.save(vacancy);
     }
 
-    @Transactional
-    @Override
-    public Vacancy updateVacancy(Long id, VacancyRequestDto requestDto) {
-        Vacancy vacancy = vacancyRepository.findById(id)
-                .orElseThrow(() -> new VacancyNotFoundException("Vacancy not found with id: " + id));
-
+    private void apply(Vacancy vacancy, VacancyRequestDto requestDto) {
         vacancy.setName(requestDto.name());
         vacancy.setField(requestDto.field());
         vacancy.setExperience(requestDto.experience());
         vacancy.setCountry(requestDto.country());
         vacancy.setDescription(requestDto.description());
-        return vacancyRepository.save(vacancy);
-    }
-
-    @Override
-    @Transactional
-    public void deleteVacancy(Long id) {
-        if (!vacancyRepository.existsById(id)) {
-            throw new VacancyNotFoundException("Vacancy not found with id: " + id);
-        }
-        vacancyRepository.deleteById(id);
     }
 }
 
-
@@ -0,0 +1,96 @@
+package org.project.archive;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.cache.CacheInvalidator;
+import org.project.index.VacancyIndex;
+import org.project.outbox.ChangeOutbox;
+import org.project.outbox.ChangeType;
+import org.project.repository.ProjectArchiveRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProjectArchiver Unit Tests")
+class ProjectArchiverTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2026, 5, 1);
+
+    @Mock
+    private ProjectArchiveRepository archiveRepository;
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
+    @Mock
+    private VacancyIndex vacancyIndex;
+
+    @Mock
+    private ChangeOutbox changeOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProjectArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        Clock clock = Clock.fixed(Instant.parse("2026-05-31T12:00:00Z"), ZoneOffset.UTC);
+        archiver = new ProjectArchiver(archiveRepository, cacheInvalidator, vacancyIndex, changeOutbox,
+                transactionManager, clock, meterRegistry, 30, 2, 3);
+    }
+
+    @Test
+    @DisplayName("Should move full batches until a batch comes back short, one transaction each")
+    void archiveExpired_shouldStopAfterShortBatch() {
+        when(archiveRepository.archiveExpired(CUTOFF, 2)).thenReturn(List.of(1L, 2L), List.of(3L));
+
+        assertEquals(3, archiver.archiveExpired());
+
+        verify(archiveRepository, times(2)).archiveExpired(CUTOFF, 2);
+        verify(transactionManager, times(2)).commit(any());
+        verify(cacheInvalidator).evictProjectVacancies(3L);
+        verify(vacancyIndex).removeProjects(List.of(1L, 2L));
+        verify(changeOutbox).projects(ChangeType.ARCHIVED, List.of(3L));
+        assertEquals(3.0, meterRegistry.get("app.archive.projects").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should leave the rest to the next run after the maximum number of batches")
+    void archiveExpired_shouldStopAtMaxBatches() {
+        when(archiveRepository.archiveExpired(CUTOFF, 2)).thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L, 6L));
+
+        assertEquals(6, archiver.archiveExpired());
+
+        verify(archiveRepository, times(3)).archiveExpired(CUTOFF, 2);
+    }
+
+    @Test
+    @DisplayName("Should do nothing else when no project is expired")
+    void archiveExpired_shouldDoNothing_whenNothingExpired() {
+        when(archiveRepository.archiveExpired(CUTOFF, 2)).thenReturn(List.of());
+
+        assertEquals(0, archiver.archiveExpired());
+
+        verifyNoInteractions(cacheInvalidator);
+        assertEquals(0.0, meterRegistry.get("app.archive.projects").counter().count());
+    }
+}
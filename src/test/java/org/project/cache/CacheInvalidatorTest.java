@@ -0,0 +1,90 @@
+package org.project.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheInvalidator Unit Tests")
+class CacheInvalidatorTest {
+
+    @Mock
+    private ReadThroughCache<Long, Versioned<ProjectResponseDto>> projectCache;
+
+    @Mock
+    private ReadThroughCache<Long, Versioned<List<VacancyResponseDto>>> projectVacanciesCache;
+
+    @Mock
+    private PgInvalidationPublisher publisher;
+
+    private CacheInvalidator cacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidator = new CacheInvalidator(projectCache, projectVacanciesCache, Optional.of(publisher));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict and publish right away outside of a transaction")
+    void evictProject_WithoutTransaction() {
+        cacheInvalidator.evictProject(1L);
+
+        verify(projectCache, times(1)).invalidate(1L);
+        verify(publisher, times(1)).publish(List.of("p:1"));
+    }
+
+    @Test
+    @DisplayName("Should publish all keys of a transaction in one message before commit and evict again after commit")
+    void evict_WithinTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheInvalidator.evictProject(1L);
+        cacheInvalidator.evictProjectVacancies(1L);
+        cacheInvalidator.evictProjectVacancies(1L);
+
+        verify(publisher, never()).publish(anyCollection());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        verify(publisher, times(1)).publish(Set.of("p:1", "v:1"));
+        // Every vacancies key also drops the project, whose version it bumped
+        verify(projectCache, times(5)).invalidate(1L);
+        verify(projectVacanciesCache, times(3)).invalidate(1L);
+    }
+
+    @Test
+    @DisplayName("Should apply keys received from other nodes to the local caches")
+    void evictLocally() {
+        cacheInvalidator.evictLocally(List.of("p:5", "v:7", "unknown"));
+
+        verify(projectCache, times(1)).invalidate(5L);
+        verify(projectVacanciesCache, times(1)).invalidate(7L);
+        verify(projectCache, times(1)).invalidate(7L);
+        verify(publisher, never()).publish(anyCollection());
+    }
+}
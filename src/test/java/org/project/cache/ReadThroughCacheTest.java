@@ -0,0 +1,203 @@
+package org.project.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReadThroughCache Unit Tests")
+class ReadThroughCacheTest {
+
+    private ReadThroughCache<Long, String> cache;
+
+    private AtomicInteger loads;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReadThroughCache<>(Caffeine.newBuilder().maximumSize(10).build());
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should load a missing value once and serve it from the cache afterwards")
+    void get_shouldCacheLoadedValue() {
+        assertEquals("v1", cache.get(1L, key -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get(1L, key -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache null values")
+    void get_shouldNotCacheNull() {
+        assertNull(cache.get(1L, key -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        cache.get(1L, key -> "v" + loads.incrementAndGet());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidation")
+    void invalidate_shouldForceReload() {
+        cache.get(1L, key -> "v" + loads.incrementAndGet());
+        cache.invalidate(1L);
+
+        assertEquals("v2", cache.get(1L, key -> "v" + loads.incrementAndGet()));
+    }
+
+    @Test
+    @DisplayName("Should not keep a value whose load overlapped with an invalidation")
+    void get_shouldDropValueLoadedDuringInvalidation() {
+        String stale = cache.get(1L, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertEquals("stale", stale);
+        assertEquals("fresh", cache.get(1L, key -> "fresh"));
+    }
+
+    @Test
+    @DisplayName("Should keep a value whose load overlapped only with invalidations of other keys")
+    void get_shouldKeepValue_whenOtherKeyInvalidated() {
+        cache.get(1L, key -> {
+            cache.invalidate(2L);
+            return "v" + loads.incrementAndGet();
+        });
+
+        assertEquals("v1", cache.get(1L, key -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should run one load for concurrent misses of the same key")
+    void get_shouldShareConcurrentLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, String> loader = key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "v" + key;
+        };
+
+        Future<String> leader = executor.submit(() -> cache.get(1L, loader));
+        loading.await();
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            followers.add(executor.submit(() -> cache.get(1L, loader)));
+        }
+        awaitCoalesced(7);
+        release.countDown();
+
+        assertEquals("v1", leader.get());
+        for (Future<String> follower : followers) {
+            assertEquals("v1", follower.get());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(7, cache.coalescedLoads());
+    }
+
+    @Test
+    @DisplayName("Should pass the exception of a shared load to every waiting caller")
+    void get_shouldPropagateLoadException() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        Future<String> leader = executor.submit(() -> cache.get(1L, key -> {
+            loading.countDown();
+            await(release);
+            throw failure;
+        }));
+        loading.await();
+        Future<String> follower = executor.submit(() -> cache.get(1L, key -> "unused"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, leader::get).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, follower::get).getCause());
+        assertEquals("v2", cache.get(1L, key -> "v2"));
+    }
+
+    @Test
+    @DisplayName("Should fail a waiting caller once the shared load takes longer than the timeout")
+    void get_shouldTimeOutWaitingForSharedLoad() throws Exception {
+        cache = new ReadThroughCache<>(Caffeine.newBuilder().maximumSize(10).build(), Duration.ofMillis(50));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> cache.get(1L, key -> {
+            loading.countDown();
+            await(release);
+            return "slow";
+        }));
+        loading.await();
+
+        assertThrows(QueryTimeoutException.class, () -> cache.get(1L, key -> "unused"));
+        release.countDown();
+        assertEquals("slow", leader.get());
+    }
+
+    @Test
+    @DisplayName("Should not let callers after an invalidation join the load that started before it")
+    void invalidate_shouldDetachLoadInFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> cache.get(1L, key -> {
+            loading.countDown();
+            await(release);
+            return "stale";
+        }));
+        loading.await();
+        cache.invalidate(1L);
+
+        assertEquals("fresh", cache.get(1L, key -> "fresh"));
+        release.countDown();
+        assertEquals("stale", leader.get());
+        assertEquals(0, cache.coalescedLoads());
+        assertNotEquals("stale", cache.get(1L, key -> "reloaded"));
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.coalescedLoads() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.project.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.project.dto.ChangeEventDto;
+import org.project.dto.ChangeFeedResponseDto;
+import org.project.exception.ChangesExpiredException;
+import org.project.outbox.ChangeSubject;
+import org.project.outbox.ChangeType;
+import org.project.service.ChangeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ActiveProfiles("test")
+@WebMvcTest(ChangeController.class)
+class ChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeService changeService;
+
+    @Test
+    @DisplayName("GET /changes should return the changes after since and the position to continue from")
+    void getChanges() throws Exception {
+        ChangeEventDto change = new ChangeEventDto(6L, ChangeSubject.VACANCY, 101L, 1L, ChangeType.CREATED,
+                Instant.parse("2026-05-10T12:00:00Z"));
+        when(changeService.getChanges(5L, 100, Duration.ofSeconds(25)))
+                .thenReturn(CompletableFuture.completedFuture(new ChangeFeedResponseDto(List.of(change), 6L)));
+
+        MvcResult result = mockMvc.perform(get("/changes").param("since", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].position").value(6))
+                .andExpect(jsonPath("$.changes[0].subject").value("VACANCY"))
+                .andExpect(jsonPath("$.changes[0].projectId").value(1))
+                .andExpect(jsonPath("$.changes[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.next").value(6));
+    }
+
+    @Test
+    @DisplayName("GET /changes should cap the page size and the wait")
+    void getChanges_CapsLimitAndWait() throws Exception {
+        when(changeService.getChanges(null, 1000, Duration.ofSeconds(30)))
+                .thenReturn(CompletableFuture.completedFuture(new ChangeFeedResponseDto(List.of(), 42L)));
+
+        MvcResult result = mockMvc.perform(get("/changes").param("limit", "5000").param("wait", "600"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes").isEmpty())
+                .andExpect(jsonPath("$.next").value(42));
+    }
+
+    @Test
+    @DisplayName("GET /changes should return 410 when the changes after since are no longer kept")
+    void getChanges_Expired() throws Exception {
+        when(changeService.getChanges(5L, 100, Duration.ofSeconds(25)))
+                .thenThrow(new ChangesExpiredException("Changes after 5 are no longer kept"));
+
+        mockMvc.perform(get("/changes").param("since", "5"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    @DisplayName("GET /changes/stream should resume after Last-Event-ID rather than since")
+    void streamChanges_ResumesAfterLastEventId() throws Exception {
+        when(changeService.streamChanges(12L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/changes/stream").param("since", "5").header("Last-Event-ID", "12"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeService, times(1)).streamChanges(12L);
+    }
+}
@@ -0,0 +1,66 @@
+package org.project.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.project.dto.MatchRequestDto;
+import org.project.dto.VacancyMatchDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.service.MatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ActiveProfiles("test")
+@WebMvcTest(MatchController.class)
+class MatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private MatchService matchService;
+
+    @Test
+    @DisplayName("POST /match should return the ranked vacancies")
+    void match() throws Exception {
+        MatchRequestDto request = new MatchRequestDto("Backend", "Senior", "Germany", List.of("java"), 5);
+        VacancyResponseDto vacancy = new VacancyResponseDto(
+                101L, "Java Dev", "Backend", "Senior", "Germany", "Java developer.", 1L);
+        when(matchService.match(request)).thenReturn(List.of(new VacancyMatchDto(10.5f, vacancy)));
+
+        mockMvc.perform(post("/match")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].score").value(10.5))
+                .andExpect(jsonPath("$[0].vacancy.id").value(101L));
+    }
+
+    @Test
+    @DisplayName("POST /match should reject a limit above 100")
+    void match_InvalidLimit() throws Exception {
+        MatchRequestDto request = new MatchRequestDto("Backend", null, null, null, 500);
+
+        mockMvc.perform(post("/match")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.limit").value("Limit cannot exceed 100"));
+
+        verify(matchService, never()).match(any(MatchRequestDto.class));
+    }
+}
@@ -4,25 +4,40 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.project.dto.ProjectMapper;
+import org.project.dto.MergePatch;
+import org.project.dto.PageCursor;
+import org.project.dto.ProjectDetailsResponseDto;
 import org.project.dto.ProjectRequestDto;
 import org.project.dto.ProjectResponseDto;
+import org.project.dto.ProjectUpsertResult;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
+import org.project.entity.ProjectStatus;
 import org.project.entity.Project;
+import org.project.exception.PreconditionFailedException;
 import org.project.exception.ProjectAlreadyExistsException;
+import org.project.exception.ProjectNameMismatchException;
 import org.project.exception.ProjectNotFoundException;
 import org.project.service.ProjectService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.project.diagnostics.SqlStatementMatchers.sqlBudget;
+import static org.project.diagnostics.SqlStatementMatchers.sqlStatements;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,9 +54,6 @@ class ProjectControllerTest {
     @MockBean
     private ProjectService projectService;
 
-    @MockBean
-    private ProjectMapper projectMapper;
-
     private Project project1;
     private Project project2;
     private ProjectRequestDto projectRequestDto;
@@ -82,7 +94,8 @@ class ProjectControllerTest {
                 "IT",
                 "Mid",
                 "IT project description.",
-                LocalDate.now().plusMonths(6)
+                LocalDate.now().plusMonths(6),
+                ProjectStatus.OPEN
         );
 
         projectResponseDto2 = new ProjectResponseDto(
@@ -91,89 +104,178 @@ class ProjectControllerTest {
                 "Marketing",
                 "Senior",
                 "Marketing project description.",
-                LocalDate.now().plusMonths(3)
+                LocalDate.now().plusMonths(3),
+                ProjectStatus.OPEN
         );
     }
 
     @Test
-    @DisplayName("GET /projects should return all projects")
+    @DisplayName("GET /projects should return the first page of projects")
     void getAllProjects() throws Exception {
-        List<Project> projects = Arrays.asList(project1, project2);
+        List<ProjectResponseDto> projects = Arrays.asList(projectResponseDto1, projectResponseDto2);
 
-        when(projectService.getAll()).thenReturn(projects);
-        when(projectMapper.toDto(project1)).thenReturn(projectResponseDto1);
-        when(projectMapper.toDto(project2)).thenReturn(projectResponseDto2);
+        when(projectService.getAll(0L, 21, false)).thenReturn(projects);
 
         mockMvc.perform(get("/projects"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].id").value(projectResponseDto1.id()))
-                .andExpect(jsonPath("$[1].name").value(projectResponseDto2.name()));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(projectResponseDto1.id()))
+                .andExpect(jsonPath("$.items[1].name").value(projectResponseDto2.name()))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        verify(projectService, times(1)).getAll(0L, 21, false);
+    }
+
+    @Test
+    @DisplayName("GET /projects should return a cursor when more projects are available")
+    void getAllProjects_NextPage() throws Exception {
+        String cursor = PageCursor.encode(1L);
 
-        verify(projectService, times(1)).getAll();
-        verify(projectMapper, times(2)).toDto(any(Project.class));
+        when(projectService.getAll(0L, 2, false)).thenReturn(Arrays.asList(projectResponseDto1, projectResponseDto2));
+
+        mockMvc.perform(get("/projects").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(projectResponseDto1.id()))
+                .andExpect(jsonPath("$.next").value(cursor));
+
+        when(projectService.getAll(1L, 2, false)).thenReturn(List.of(projectResponseDto2));
+
+        mockMvc.perform(get("/projects").param("limit", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(projectResponseDto2.id()))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /projects should return 400 for a malformed cursor")
+    void getAllProjects_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/projects").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(projectService, never()).getAll(anyLong(), anyInt(), anyBoolean());
     }
 
     @Test
     @DisplayName("GET /projects/{id} should return project by ID")
     void getProjectById() throws Exception {
-        when(projectService.getById(1L)).thenReturn(project1);
-        when(projectMapper.toDto(project1)).thenReturn(projectResponseDto1);
+        when(projectService.getById(1L, false)).thenReturn(new Versioned<>(projectResponseDto1, 3L));
 
         mockMvc.perform(get("/projects/{id}", 1L))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
                 .andExpect(jsonPath("$.id").value(projectResponseDto1.id()))
-                .andExpect(jsonPath("$.name").value(projectResponseDto1.name()));
+                .andExpect(jsonPath("$.name").value(projectResponseDto1.name()))
+                .andExpect(sqlBudget(2))
+                .andExpect(sqlStatements(0));
 
-        verify(projectService, times(1)).getById(1L);
-        verify(projectMapper, times(1)).toDto(project1);
+        verify(projectService, times(1)).getById(1L, false);
+        verify(projectService, never()).getVersion(anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("GET /projects/{id} should return 304 after only a version lookup when the ETag is current")
+    void getProjectById_NotModified() throws Exception {
+        when(projectService.getVersion(1L, false)).thenReturn(3L);
+
+        mockMvc.perform(get("/projects/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(projectService, never()).getById(anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("GET /projects/{id} should return the project when the ETag is outdated")
+    void getProjectById_Modified() throws Exception {
+        when(projectService.getVersion(1L, false)).thenReturn(4L);
+        when(projectService.getById(1L, false)).thenReturn(new Versioned<>(projectResponseDto1, 4L));
+
+        mockMvc.perform(get("/projects/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.id").value(projectResponseDto1.id()));
     }
 
     @Test
     @DisplayName("GET /projects/{id} should return 404 for not found project")
     void getProjectById_NotFound() throws Exception {
-        when(projectService.getById(anyLong())).thenThrow(new ProjectNotFoundException("Project not found"));
+        when(projectService.getById(anyLong(), eq(false))).thenThrow(new ProjectNotFoundException("Project not found"));
 
         mockMvc.perform(get("/projects/{id}", 99L))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Project not found"));
 
-        verify(projectService, times(1)).getById(99L);
-        verify(projectMapper, never()).toDto(any(Project.class));
+        verify(projectService, times(1)).getById(99L, false);
+    }
+
+    @Test
+    @DisplayName("GET /projects/{id}?includeArchived=true should also look up archived projects")
+    void getProjectById_IncludeArchived() throws Exception {
+        when(projectService.getById(1L, true)).thenReturn(new Versioned<>(projectResponseDto1, 5L));
+
+        mockMvc.perform(get("/projects/{id}", 1L).param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
+                .andExpect(jsonPath("$.id").value(projectResponseDto1.id()));
+
+        verify(projectService, never()).getById(anyLong(), eq(false));
+    }
+
+    @Test
+    @DisplayName("GET /projects/{id}?include=vacancies should return the project with its vacancies")
+    void getProjectByIdWithVacancies() throws Exception {
+        ProjectDetailsResponseDto details = new ProjectDetailsResponseDto(1L, "Project Alpha", "IT", "Mid",
+                "IT project description.", LocalDate.of(2025, 12, 31), ProjectStatus.CLOSED,
+                List.of(new VacancyResponseDto(10L, "Java Developer", "IT", "Mid", "Germany", "Backend", 1L)));
+        when(projectService.getByIdWithVacancies(1L, false)).thenReturn(details);
+
+        mockMvc.perform(get("/projects/{id}", 1L).param("include", "vacancies"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.vacancies.length()").value(1))
+                .andExpect(jsonPath("$.vacancies[0].id").value(10))
+                .andExpect(jsonPath("$.vacancies[0].projectId").value(1));
+
+        verify(projectService, never()).getById(anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("GET /projects?include=vacancies should page projects with their vacancies")
+    void getAllProjectsWithVacancies() throws Exception {
+        ProjectDetailsResponseDto details1 = new ProjectDetailsResponseDto(1L, "Project Alpha", "IT", "Mid",
+                "IT project description.", LocalDate.of(2025, 12, 31), ProjectStatus.CLOSED, List.of());
+        ProjectDetailsResponseDto details2 = new ProjectDetailsResponseDto(2L, "Project Beta", "Marketing", "Senior",
+                "Marketing project description.", LocalDate.of(2025, 12, 31), ProjectStatus.CLOSED,
+                List.of());
+        when(projectService.getAllWithVacancies(0L, 2, false)).thenReturn(List.of(details1, details2));
+
+        mockMvc.perform(get("/projects").param("include", "vacancies").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].vacancies").isArray())
+                .andExpect(jsonPath("$.next").value(PageCursor.encode(1L)));
+
+        verify(projectService, never()).getAll(anyLong(), anyInt(), anyBoolean());
     }
 
     @Test
     @DisplayName("POST /projects should create a new project")
     void createProject() throws Exception {
-        Project newProject = Project.builder()
-                .name(projectRequestDto.name())
-                .field(projectRequestDto.field())
-                .experience(projectRequestDto.experience())
-                .description(projectRequestDto.description())
-                .deadline(projectRequestDto.deadline())
-                .build();
-        Project createdProject = Project.builder()
-                .id(3L)
-                .name(projectRequestDto.name())
-                .field(projectRequestDto.field())
-                .experience(projectRequestDto.experience())
-                .description(projectRequestDto.description())
-                .deadline(projectRequestDto.deadline())
-                .build();
         ProjectResponseDto createdProjectDto = new ProjectResponseDto(
                 3L,
                 projectRequestDto.name(),
                 projectRequestDto.field(),
                 projectRequestDto.experience(),
                 projectRequestDto.description(),
-                projectRequestDto.deadline()
+                projectRequestDto.deadline(),
+                ProjectStatus.OPEN
         );
 
-        when(projectMapper.toEntity(any(ProjectRequestDto.class))).thenReturn(newProject);
-        when(projectService.create(any(Project.class))).thenReturn(createdProject);
-        when(projectMapper.toDto(any(Project.class))).thenReturn(createdProjectDto);
+        when(projectService.create(any(ProjectRequestDto.class))).thenReturn(createdProjectDto);
 
         mockMvc.perform(post("/projects")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -183,9 +285,7 @@ class ProjectControllerTest {
                 .andExpect(jsonPath("$.id").value(createdProjectDto.id()))
                 .andExpect(jsonPath("$.name").value(createdProjectDto.name()));
 
-        verify(projectMapper, times(1)).toEntity(projectRequestDto);
-        verify(projectService, times(1)).create(newProject);
-        verify(projectMapper, times(1)).toDto(createdProject);
+        verify(projectService, times(1)).create(projectRequestDto);
     }
 
     @Test
@@ -205,14 +305,13 @@ class ProjectControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.name").value("Name must not be empty")); // Expecting specific validation error
 
-        verify(projectService, never()).create(any(Project.class));
+        verify(projectService, never()).create(any(ProjectRequestDto.class));
     }
 
     @Test
     @DisplayName("POST /projects should return 409 for existing project name")
     void createProject_AlreadyExists() throws Exception {
-        when(projectMapper.toEntity(any(ProjectRequestDto.class))).thenReturn(project1);
-        when(projectService.create(any(Project.class))).thenThrow(new ProjectAlreadyExistsException("Project already exists"));
+        when(projectService.create(any(ProjectRequestDto.class))).thenThrow(new ProjectAlreadyExistsException("Project already exists"));
 
         mockMvc.perform(post("/projects")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -220,49 +319,114 @@ class ProjectControllerTest {
                 .andExpect(status().isConflict())
                 .andExpect(content().string("Project already exists"));
 
-        verify(projectService, times(1)).create(any(Project.class));
+        verify(projectService, times(1)).create(any(ProjectRequestDto.class));
+    }
+
+    @Test
+    @DisplayName("PUT /projects/by-name/{name} should return 201 when the project was created")
+    void upsertByName_Created() throws Exception {
+        ProjectResponseDto upserted = new ProjectResponseDto(3L, projectRequestDto.name(), projectRequestDto.field(),
+                projectRequestDto.experience(), projectRequestDto.description(), projectRequestDto.deadline(),
+                ProjectStatus.OPEN);
+        when(projectService.upsertByName(projectRequestDto.name(), projectRequestDto))
+                .thenReturn(new ProjectUpsertResult(upserted, true));
+
+        mockMvc.perform(put("/projects/by-name/{name}", projectRequestDto.name())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(projectRequestDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(3L));
+    }
+
+    @Test
+    @DisplayName("PUT /projects/by-name/{name} should return 200 when the project existed")
+    void upsertByName_Replaced() throws Exception {
+        ProjectResponseDto upserted = new ProjectResponseDto(1L, projectRequestDto.name(), projectRequestDto.field(),
+                projectRequestDto.experience(), projectRequestDto.description(), projectRequestDto.deadline(),
+                ProjectStatus.OPEN);
+        when(projectService.upsertByName(projectRequestDto.name(), projectRequestDto))
+                .thenReturn(new ProjectUpsertResult(upserted, false));
+
+        mockMvc.perform(put("/projects/by-name/{name}", projectRequestDto.name())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(projectRequestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
+    @Test
+    @DisplayName("PUT /projects/by-name/{name} should return 400 when the body names another project")
+    void upsertByName_NameMismatch() throws Exception {
+        when(projectService.upsertByName(eq("Other"), any(ProjectRequestDto.class)))
+                .thenThrow(new ProjectNameMismatchException("Project name in the body must be: Other"));
+
+        mockMvc.perform(put("/projects/by-name/{name}", "Other")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(projectRequestDto)))
+                .andExpect(status().isBadRequest());
     }
 
 
     @Test
     @DisplayName("PUT /projects/{id} should update an existing project")
     void updateProject() throws Exception {
-        Project updatedProject = Project.builder()
-                .id(1L)
-                .name(projectRequestDto.name())
-                .field(projectRequestDto.field())
-                .experience(projectRequestDto.experience())
-                .description(projectRequestDto.description())
-                .deadline(projectRequestDto.deadline())
-                .build();
         ProjectResponseDto updatedProjectDto = new ProjectResponseDto(
                 1L,
                 projectRequestDto.name(),
                 projectRequestDto.field(),
                 projectRequestDto.experience(),
                 projectRequestDto.description(),
-                projectRequestDto.deadline()
+                projectRequestDto.deadline(),
+                ProjectStatus.OPEN
         );
 
-        when(projectService.update(eq(1L), any(ProjectRequestDto.class))).thenReturn(updatedProject);
-        when(projectMapper.toDto(any(Project.class))).thenReturn(updatedProjectDto);
+        when(projectService.update(eq(1L), any(ProjectRequestDto.class), any())).thenReturn(new Versioned<>(updatedProjectDto, 4L));
 
         mockMvc.perform(put("/projects/{id}", 1L)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(projectRequestDto)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
                 .andExpect(jsonPath("$.id").value(updatedProjectDto.id()))
                 .andExpect(jsonPath("$.name").value(updatedProjectDto.name()));
 
-        verify(projectService, times(1)).update(1L, projectRequestDto);
-        verify(projectMapper, times(1)).toDto(updatedProject);
+        verify(projectService, times(1)).update(1L, projectRequestDto, null);
+    }
+
+    @Test
+    @DisplayName("PUT /projects/{id} should pass the If-Match version and return 412 when it is outdated")
+    void updateProject_PreconditionFailed() throws Exception {
+        when(projectService.update(eq(1L), any(ProjectRequestDto.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException("Project 1 has changed, version is no longer 3"));
+
+        mockMvc.perform(put("/projects/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(projectRequestDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(projectService, times(1)).update(1L, projectRequestDto, 3L);
+    }
+
+    @Test
+    @DisplayName("PUT /projects/{id} should return 400 and not write an invalid body")
+    void updateProject_InvalidInput() throws Exception {
+        ProjectRequestDto invalidDto = new ProjectRequestDto("Project Alpha", "Field", "Exp", "Desc", null);
+
+        mockMvc.perform(put("/projects/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalidDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.deadline").value("Deadline cannot be null"));
+
+        verify(projectService, never()).update(anyLong(), any(ProjectRequestDto.class), any());
     }
 
     @Test
     @DisplayName("PUT /projects/{id} should return 404 for not found project during update")
     void updateProject_NotFound() throws Exception {
-        when(projectService.update(anyLong(), any(ProjectRequestDto.class)))
+        when(projectService.update(anyLong(), any(ProjectRequestDto.class), any()))
                 .thenThrow(new ProjectNotFoundException("Project not found"));
 
         mockMvc.perform(put("/projects/{id}", 99L)
@@ -271,30 +435,58 @@ class ProjectControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Project not found"));
 
-        verify(projectService, times(1)).update(99L, projectRequestDto);
-        verify(projectMapper, never()).toDto(any(Project.class));
+        verify(projectService, times(1)).update(99L, projectRequestDto, null);
+    }
+
+    @Test
+    @DisplayName("PATCH /projects/{id} should pass only the present members to the service")
+    void patchProject() throws Exception {
+        ProjectResponseDto patched = new ProjectResponseDto(1L, "Project Alpha", "IT", "Mid",
+                "IT project description.", LocalDate.of(2027, 3, 1), ProjectStatus.OPEN);
+        when(projectService.patch(eq(1L), any(MergePatch.class), any())).thenReturn(new Versioned<>(patched, 5L));
+
+        mockMvc.perform(patch("/projects/{id}", 1L)
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"deadline\":\"2027-03-01\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deadline").value("2027-03-01"));
+
+        verify(projectService, times(1)).patch(1L, new MergePatch(Map.of("deadline", LocalDate.of(2027, 3, 1))), null);
+    }
+
+    @Test
+    @DisplayName("PATCH /projects/{id} should return 400 for invalid members")
+    void patchProject_Invalid() throws Exception {
+        mockMvc.perform(patch("/projects/{id}", 1L)
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"name\":\"\",\"owner\":\"x\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.name").value("Name must not be empty"))
+                .andExpect(jsonPath("$.owner").value("Unknown member"));
+
+        verify(projectService, never()).patch(anyLong(), any(MergePatch.class), any());
     }
 
     @Test
     @DisplayName("DELETE /projects/{id} should delete a project")
     void deleteProject() throws Exception {
-        doNothing().when(projectService).delete(1L);
+        doNothing().when(projectService).delete(1L, 3L);
 
-        mockMvc.perform(delete("/projects/{id}", 1L))
+        mockMvc.perform(delete("/projects/{id}", 1L).header(HttpHeaders.IF_MATCH, "\"3\""))
                 .andExpect(status().isNoContent());
 
-        verify(projectService, times(1)).delete(1L);
+        verify(projectService, times(1)).delete(1L, 3L);
     }
 
     @Test
     @DisplayName("DELETE /projects/{id} should return 404 for not found project during delete")
     void deleteProject_NotFound() throws Exception {
-        doThrow(new ProjectNotFoundException("Project not found")).when(projectService).delete(anyLong());
+        doThrow(new ProjectNotFoundException("Project not found")).when(projectService).delete(anyLong(), any());
 
         mockMvc.perform(delete("/projects/{id}", 99L))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Project not found"));
 
-        verify(projectService, times(1)).delete(99L);
+        verify(projectService, times(1)).delete(99L, null);
     }
 }
\ No newline at end of file
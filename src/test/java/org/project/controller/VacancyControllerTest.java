@@ -4,27 +4,40 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.project.dto.VacancyBatchCreateRequestDto;
+import org.project.dto.VacancyBatchDeleteRequestDto;
+import org.project.dto.VacancyBatchUpdateItemDto;
+import org.project.dto.VacancyBatchUpdateRequestDto;
 import org.project.dto.VacancyMapper;
 import org.project.dto.VacancyRequestDto;
 import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
 import org.project.entity.Project;
 import org.project.entity.Vacancy;
+import org.project.exception.PreconditionFailedException;
 import org.project.exception.ProjectNotFoundException;
+import org.project.exception.StreamUnavailableException;
 import org.project.exception.VacancyNotFoundException;
 import org.project.service.VacancyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
+import static org.project.diagnostics.SqlStatementMatchers.sqlBudget;
+import static org.project.diagnostics.SqlStatementMatchers.sqlStatements;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -107,22 +120,55 @@ class VacancyControllerTest {
     @Test
     @DisplayName("GET /projects/{id}/vacancies should return vacancies for a project")
     void getVacanciesByProjectId() throws Exception {
-        List<Vacancy> vacancies = Arrays.asList(vacancy1, vacancy2);
         List<VacancyResponseDto> dtos = Arrays.asList(vacancyResponseDto1, vacancyResponseDto2);
 
-        when(vacancyService.getByProjectId(1L)).thenReturn(vacancies);
-        when(vacancyMapper.toDto(vacancy1)).thenReturn(vacancyResponseDto1);
-        when(vacancyMapper.toDto(vacancy2)).thenReturn(vacancyResponseDto2);
+        when(vacancyService.getByProjectId(1L)).thenReturn(new Versioned<>(dtos, 6L));
 
         mockMvc.perform(get("/projects/{id}/vacancies", 1L))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"6\""))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].id").value(vacancyResponseDto1.id()))
-                .andExpect(jsonPath("$[1].name").value(vacancyResponseDto2.name()));
+                .andExpect(jsonPath("$[1].name").value(vacancyResponseDto2.name()))
+                .andExpect(sqlBudget(2))
+                .andExpect(sqlStatements(0));
 
         verify(vacancyService, times(1)).getByProjectId(1L);
-        verify(vacancyMapper, times(2)).toDto(any(Vacancy.class));
+        verify(vacancyMapper, never()).toDto(any(Vacancy.class));
+    }
+
+    @Test
+    @DisplayName("GET /projects/{id}/vacancies/stream should open a stream of the project vacancies")
+    void streamVacanciesByProjectId() throws Exception {
+        when(vacancyService.streamByProjectId(1L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/projects/{id}/vacancies/stream", 1L))
+                .andExpect(request().asyncStarted());
+
+        verify(vacancyService, times(1)).streamByProjectId(1L);
+    }
+
+    @Test
+    @DisplayName("GET /projects/{id}/vacancies/stream should return 503 when the change feed is off")
+    void streamVacanciesByProjectId_Unavailable() throws Exception {
+        when(vacancyService.streamByProjectId(1L)).thenThrow(new StreamUnavailableException("Change feed is off"));
+
+        mockMvc.perform(get("/projects/{id}/vacancies/stream", 1L))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string("Change feed is off"));
+    }
+
+    @Test
+    @DisplayName("GET /projects/{id}/vacancies should return 304 without reading the vacancies when the ETag is current")
+    void getVacanciesByProjectId_NotModified() throws Exception {
+        when(vacancyService.getProjectVersion(1L)).thenReturn(6L);
+
+        mockMvc.perform(get("/projects/{id}/vacancies", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"6\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(vacancyService, never()).getByProjectId(anyLong());
     }
 
     @Test
@@ -169,12 +215,28 @@ class VacancyControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(createdVacancyDto.id()))
-                .andExpect(jsonPath("$.name").value(createdVacancyDto.name()));
+                .andExpect(jsonPath("$.name").value(createdVacancyDto.name()))
+                .andExpect(sqlBudget(5))
+                .andExpect(sqlStatements(0));
 
         verify(vacancyService, times(1)).addVacancyToProject(vacancyRequestDto, 1L);
         verify(vacancyMapper, times(1)).toDto(createdVacancy);
     }
 
+    @Test
+    @DisplayName("POST /projects/{id}/vacancies should return 400 and not write an invalid body")
+    void createVacancyForProject_InvalidInput() throws Exception {
+        VacancyRequestDto invalidDto = new VacancyRequestDto(null, "Backend", "Mid", "Germany", "Desc");
+
+        mockMvc.perform(post("/projects/{id}/vacancies", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalidDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.name").value("Name cannot be empty"));
+
+        verify(vacancyService, never()).addVacancyToProject(any(VacancyRequestDto.class), anyLong());
+    }
+
     @Test
     @DisplayName("POST /projects/{id}/vacancies should return 404 if project not found when creating vacancy")
     void createVacancyForProject_ProjectNotFound() throws Exception {
@@ -194,15 +256,6 @@ class VacancyControllerTest {
     @Test
     @DisplayName("PUT /projects/vacancies/{id} should update an existing vacancy")
     void updateVacancy() throws Exception {
-        Vacancy updatedVacancy = Vacancy.builder()
-                .id(101L)
-                .name(vacancyRequestDto.name())
-                .field(vacancyRequestDto.field())
-                .experience(vacancyRequestDto.experience())
-                .country(vacancyRequestDto.country())
-                .description(vacancyRequestDto.description())
-                .project(project)
-                .build();
         VacancyResponseDto updatedVacancyDto = new VacancyResponseDto(
                 101L,
                 vacancyRequestDto.name(),
@@ -213,25 +266,26 @@ class VacancyControllerTest {
                 1L
         );
 
-        when(vacancyService.updateVacancy(eq(101L), any(VacancyRequestDto.class))).thenReturn(updatedVacancy);
-        when(vacancyMapper.toDto(any(Vacancy.class))).thenReturn(updatedVacancyDto);
+        when(vacancyService.updateVacancy(eq(101L), any(VacancyRequestDto.class), eq(1L)))
+                .thenReturn(new Versioned<>(updatedVacancyDto, 2L));
 
         mockMvc.perform(put("/projects/vacancies/{id}", 101L)
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(vacancyRequestDto)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
                 .andExpect(jsonPath("$.id").value(updatedVacancyDto.id()))
                 .andExpect(jsonPath("$.name").value(updatedVacancyDto.name()));
 
-        verify(vacancyService, times(1)).updateVacancy(101L, vacancyRequestDto);
-        verify(vacancyMapper, times(1)).toDto(updatedVacancy);
+        verify(vacancyService, times(1)).updateVacancy(101L, vacancyRequestDto, 1L);
     }
 
     @Test
     @DisplayName("PUT /projects/vacancies/{id} should return 404 for not found vacancy during update")
     void updateVacancy_NotFound() throws Exception {
-        when(vacancyService.updateVacancy(anyLong(), any(VacancyRequestDto.class)))
+        when(vacancyService.updateVacancy(anyLong(), any(VacancyRequestDto.class), any()))
                 .thenThrow(new VacancyNotFoundException("Vacancy not found"));
 
         mockMvc.perform(put("/projects/vacancies/{id}", 999L)
@@ -240,30 +294,107 @@ class VacancyControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Vacancy not found"));
 
-        verify(vacancyService, times(1)).updateVacancy(999L, vacancyRequestDto);
+        verify(vacancyService, times(1)).updateVacancy(999L, vacancyRequestDto, null);
         verify(vacancyMapper, never()).toDto(any(Vacancy.class));
     }
 
     @Test
     @DisplayName("DELETE /projects/vacancies/{id} should delete a vacancy")
     void deleteVacancy() throws Exception {
-        doNothing().when(vacancyService).deleteVacancy(101L);
+        doNothing().when(vacancyService).deleteVacancy(101L, null);
 
         mockMvc.perform(delete("/projects/vacancies/{id}", 101L))
                 .andExpect(status().isNoContent()); // ResponseEntity.noContent().build() returns 204
 
-        verify(vacancyService, times(1)).deleteVacancy(101L);
+        verify(vacancyService, times(1)).deleteVacancy(101L, null);
+    }
+
+    @Test
+    @DisplayName("DELETE /projects/vacancies/{id} should return 412 for an outdated or weak If-Match tag")
+    void deleteVacancy_PreconditionFailed() throws Exception {
+        doThrow(new PreconditionFailedException("Vacancy 101 has changed, version is no longer -1"))
+                .when(vacancyService).deleteVacancy(101L, -1L);
+
+        mockMvc.perform(delete("/projects/vacancies/{id}", 101L).header(HttpHeaders.IF_MATCH, "W/\"1\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(vacancyService, times(1)).deleteVacancy(101L, -1L);
     }
 
     @Test
     @DisplayName("DELETE /projects/vacancies/{id} should return 404 for not found vacancy during delete")
     void deleteVacancy_NotFound() throws Exception {
-        doThrow(new VacancyNotFoundException("Vacancy not found")).when(vacancyService).deleteVacancy(anyLong());
+        doThrow(new VacancyNotFoundException("Vacancy not found")).when(vacancyService).deleteVacancy(anyLong(), any());
 
         mockMvc.perform(delete("/projects/vacancies/{id}", 999L))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Vacancy not found"));
 
-        verify(vacancyService, times(1)).deleteVacancy(999L);
+        verify(vacancyService, times(1)).deleteVacancy(999L, null);
+    }
+
+    @Test
+    @DisplayName("POST /projects/{id}/vacancies:batch should create all vacancies and return per-item results")
+    void createBatch() throws Exception {
+        when(vacancyService.addVacanciesToProject(anyList(), eq(1L))).thenReturn(List.of(vacancy1, vacancy2));
+        when(vacancyMapper.toDto(vacancy1)).thenReturn(vacancyResponseDto1);
+        when(vacancyMapper.toDto(vacancy2)).thenReturn(vacancyResponseDto2);
+
+        mockMvc.perform(post("/projects/{id}/vacancies:batch", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new VacancyBatchCreateRequestDto(List.of(vacancyRequestDto, vacancyRequestDto)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(101L))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].vacancy.name").value(vacancyResponseDto2.name()));
+
+        verify(vacancyService, times(1)).addVacanciesToProject(List.of(vacancyRequestDto, vacancyRequestDto), 1L);
+    }
+
+    @Test
+    @DisplayName("POST /projects/{id}/vacancies:batch should reject the whole batch if one item is invalid")
+    void createBatch_InvalidItem() throws Exception {
+        VacancyRequestDto invalid = new VacancyRequestDto("", "Field", "Exp", "Country", "Desc");
+
+        mockMvc.perform(post("/projects/{id}/vacancies:batch", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new VacancyBatchCreateRequestDto(List.of(vacancyRequestDto, invalid)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['items[1].name']").value("Name cannot be empty"));
+
+        verify(vacancyService, never()).addVacanciesToProject(anyList(), anyLong());
+    }
+
+    @Test
+    @DisplayName("PUT /projects/{id}/vacancies:batch should report ids that were not updated")
+    void updateBatch() throws Exception {
+        when(vacancyService.updateVacancies(eq(1L), anyList())).thenReturn(List.of(vacancy1));
+        when(vacancyMapper.toDto(vacancy1)).thenReturn(vacancyResponseDto1);
+
+        mockMvc.perform(put("/projects/{id}/vacancies:batch", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new VacancyBatchUpdateRequestDto(List.of(
+                                new VacancyBatchUpdateItemDto(101L, vacancyRequestDto),
+                                new VacancyBatchUpdateItemDto(999L, vacancyRequestDto))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[1].id").value(999L))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("POST /projects/{id}/vacancies:batchDelete should return per-id results")
+    void deleteBatch() throws Exception {
+        when(vacancyService.deleteVacancies(1L, List.of(101L, 999L))).thenReturn(Set.of(101L));
+
+        mockMvc.perform(post("/projects/{id}/vacancies:batchDelete", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new VacancyBatchDeleteRequestDto(List.of(101L, 999L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package org.project.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.project.dto.PageCursor;
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyLookupResponseDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.VacancySearchCriteria;
+import org.project.service.VacancyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ActiveProfiles("test")
+@WebMvcTest(VacancySearchController.class)
+class VacancySearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private VacancyService vacancyService;
+
+    private final VacancyResponseDto vacancy1 = new VacancyResponseDto(
+            101L, "Java Dev", "Backend", "Mid", "Germany", "Java developer for Spring Boot.", 1L);
+
+    private final VacancyResponseDto vacancy2 = new VacancyResponseDto(
+            102L, "Kotlin Dev", "Backend", "Senior", "Germany", "Kotlin developer for Spring Boot.", 2L);
+
+    @Test
+    @DisplayName("GET /vacancies/search should return the first page with facets and a cursor")
+    void search_FirstPage() throws Exception {
+        VacancySearchCriteria criteria = new VacancySearchCriteria("spring", List.of("Backend"), List.of("Germany", "France"), null);
+        when(vacancyService.search(criteria, 0L, 2)).thenReturn(List.of(vacancy1, vacancy2));
+        when(vacancyService.searchFacets(criteria)).thenReturn(Map.of("field", Map.of("Backend", 2L)));
+
+        mockMvc.perform(get("/vacancies/search")
+                        .param("q", "spring")
+                        .param("field", "Backend")
+                        .param("country", "Germany", "France")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(101L))
+                .andExpect(jsonPath("$.next").value(PageCursor.encode(101L)))
+                .andExpect(jsonPath("$.facets.field.Backend").value(2));
+
+        verify(vacancyService, times(1)).search(criteria, 0L, 2);
+    }
+
+    @Test
+    @DisplayName("GET /vacancies/search should not recount facets for following pages")
+    void search_NextPage() throws Exception {
+        when(vacancyService.search(any(VacancySearchCriteria.class), eq(101L), eq(21))).thenReturn(List.of(vacancy2));
+
+        mockMvc.perform(get("/vacancies/search").param("cursor", PageCursor.encode(101L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(102L))
+                .andExpect(jsonPath("$.next").doesNotExist())
+                .andExpect(jsonPath("$.facets").doesNotExist());
+
+        verify(vacancyService, never()).searchFacets(any(VacancySearchCriteria.class));
+    }
+
+    @Test
+    @DisplayName("GET /vacancies/lookup should return the total and the ids from the index")
+    void lookup() throws Exception {
+        VacancyAttributeFilter filter = new VacancyAttributeFilter(List.of("Backend"), null, List.of("Mid", "Senior"));
+        when(vacancyService.lookup(filter, 1000)).thenReturn(new VacancyLookupResponseDto(2, new long[]{101L, 102L}));
+
+        mockMvc.perform(get("/vacancies/lookup")
+                        .param("field", "Backend")
+                        .param("experience", "Mid", "Senior")
+                        .param("limit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.ids[1]").value(102L));
+    }
+}
@@ -0,0 +1,31 @@
+package org.project.diagnostics;
+
+import org.project.jdbc.SqlStatementStats;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * MockMvc matchers on the SQL statements {@link SqlBudgetInterceptor} counted for a request.
+ */
+public final class SqlStatementMatchers {
+
+    private SqlStatementMatchers() {
+    }
+
+    public static ResultMatcher sqlStatements(int expected) {
+        return result -> assertEquals(expected, stats(result.getRequest().getAttribute(SqlBudgetInterceptor.STATS_ATTRIBUTE)).statements(),
+                "SQL statements");
+    }
+
+    public static ResultMatcher sqlBudget(int expected) {
+        return result -> assertEquals(expected, stats(result.getRequest().getAttribute(SqlBudgetInterceptor.STATS_ATTRIBUTE)).budget(),
+                "SQL statement budget");
+    }
+
+    private static SqlStatementStats stats(Object attribute) {
+        assertNotNull(attribute, "No SQL statement stats, is app.sql.monitoring.enabled set?");
+        return (SqlStatementStats) attribute;
+    }
+}
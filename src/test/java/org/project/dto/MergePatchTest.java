@@ -0,0 +1,70 @@
+package org.project.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.project.exception.InvalidPatchException;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    @DisplayName("Should keep only the present members, converted to the types of the request record")
+    void of_presentMembersOnly() throws Exception {
+        MergePatch patch = parse("{\"deadline\":\"2027-03-01\"}", ProjectRequestDto.class);
+
+        assertEquals(Map.of("deadline", LocalDate.of(2027, 3, 1)), patch.values());
+    }
+
+    @Test
+    @DisplayName("Should turn null into a cleared optional column")
+    void of_nullClearsOptionalMember() throws Exception {
+        MergePatch patch = parse("{\"country\":null}", VacancyRequestDto.class);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("country", null);
+        assertEquals(expected, patch.values());
+    }
+
+    @Test
+    @DisplayName("Should validate the present members against the constraints of the request record")
+    void of_invalidMembers() {
+        InvalidPatchException e = assertThrows(InvalidPatchException.class,
+                () -> parse("{\"name\":null,\"description\":\"" + "x".repeat(1001) + "\"}", ProjectRequestDto.class));
+
+        assertEquals("Name must not be empty", e.getErrors().get("name"));
+        assertEquals("Length of the description should be between 2 and 1000 symbols", e.getErrors().get("description"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown members and values of the wrong type")
+    void of_unknownAndMistypedMembers() {
+        InvalidPatchException e = assertThrows(InvalidPatchException.class,
+                () -> parse("{\"id\":5,\"deadline\":\"soon\"}", ProjectRequestDto.class));
+
+        assertEquals(Map.of("id", "Unknown member", "deadline", "Invalid value"), e.getErrors());
+    }
+
+    @Test
+    @DisplayName("Should accept an empty patch")
+    void of_empty() throws Exception {
+        assertTrue(parse("{}", VacancyRequestDto.class).isEmpty());
+    }
+
+    private MergePatch parse(String json, Class<? extends Record> requestType) throws Exception {
+        return MergePatch.of(objectMapper.readTree(json), requestType, objectMapper, validator);
+    }
+}
@@ -0,0 +1,109 @@
+package org.project.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyLookupResponseDto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AttributeIndex Unit Tests")
+class AttributeIndexTest {
+
+    private AttributeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AttributeIndex();
+        index.put(new VacancyIndexRow(1L, 10L, "Backend", "Germany", "Mid"));
+        index.put(new VacancyIndexRow(2L, 10L, "Backend", "Poland", "Senior"));
+        index.put(new VacancyIndexRow(3L, 20L, "Frontend", "Germany", "Mid"));
+        index.put(new VacancyIndexRow(4L, 20L, "Backend", "Germany", null));
+    }
+
+    private long[] ids(VacancyLookupResponseDto result) {
+        long[] ids = result.ids().clone();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Should AND different attributes and OR values of one attribute")
+    void query_AndAcrossAttributesOrWithin() {
+        VacancyLookupResponseDto result = index.query(
+                new VacancyAttributeFilter(List.of("Backend"), List.of("Germany", "Poland"), List.of("Mid", "Senior")), 10);
+
+        assertEquals(2, result.total());
+        assertArrayEquals(new long[]{1L, 2L}, ids(result));
+    }
+
+    @Test
+    @DisplayName("Should return all vacancies when nothing is constrained")
+    void query_NoConstraints() {
+        VacancyLookupResponseDto result = index.query(new VacancyAttributeFilter(null, List.of(), null), 10);
+
+        assertEquals(4, result.total());
+        assertArrayEquals(new long[]{1L, 2L, 3L, 4L}, ids(result));
+    }
+
+    @Test
+    @DisplayName("Should count all matches but return at most limit ids")
+    void query_Limit() {
+        VacancyLookupResponseDto result = index.query(new VacancyAttributeFilter(null, List.of("Germany"), null), 2);
+
+        assertEquals(3, result.total());
+        assertEquals(2, result.ids().length);
+    }
+
+    @Test
+    @DisplayName("Should find nothing for unknown values")
+    void query_UnknownValue() {
+        VacancyLookupResponseDto result = index.query(new VacancyAttributeFilter(List.of("Backend"), List.of("Mars"), null), 10);
+
+        assertEquals(0, result.total());
+        assertEquals(0, result.ids().length);
+    }
+
+    @Test
+    @DisplayName("Should move an updated vacancy to its new values")
+    void put_Update() {
+        index.put(new VacancyIndexRow(1L, 10L, "Backend", "Poland", "Mid"));
+
+        assertArrayEquals(new long[]{4L},
+                ids(index.query(new VacancyAttributeFilter(List.of("Backend"), List.of("Germany"), null), 10)));
+        assertArrayEquals(new long[]{1L, 2L},
+                ids(index.query(new VacancyAttributeFilter(null, List.of("Poland"), null), 10)));
+        assertEquals(4, index.liveCount());
+    }
+
+    @Test
+    @DisplayName("Should drop removed vacancies and projects")
+    void remove() {
+        index.remove(2L);
+        index.removeProjects(Set.of(20L));
+
+        assertEquals(1, index.liveCount());
+        assertArrayEquals(new long[]{1L}, ids(index.query(new VacancyAttributeFilter(null, null, null), 10)));
+    }
+
+    @Test
+    @DisplayName("Should compact once tombstones outnumber live vacancies")
+    void compactIfNeeded() {
+        for (long id = 100; id < 3100; id++) {
+            index.put(new VacancyIndexRow(id, 30L, "Data", "Spain", "Junior"));
+        }
+        index.removeProjects(Set.of(30L));
+
+        AttributeIndex compacted = index.compactIfNeeded();
+
+        assertNotSame(index, compacted);
+        assertEquals(4, compacted.liveCount());
+        assertEquals(2, compacted.query(new VacancyAttributeFilter(List.of("Backend"), List.of("Germany"), null), 10).total());
+        assertSame(compacted, compacted.compactIfNeeded());
+    }
+}
@@ -0,0 +1,71 @@
+package org.project.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.repository.VacancyJpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VacancyIndex Unit Tests")
+class VacancyIndexTest {
+
+    @Mock
+    private VacancyJpaRepository vacancyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private VacancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new VacancyIndex(vacancyRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should keep a reload whose projects had no local write while it read them")
+    void reloadProjects_shouldApply_whenOtherProjectWritten() {
+        when(vacancyRepository.findIndexRowsByProjectIdIn(Set.of(10L))).thenAnswer(invocation -> {
+            index.putRows(List.of(new VacancyIndexRow(3L, 20L, "Frontend", "Germany", "Mid")));
+            return List.of(new VacancyIndexRow(1L, 10L, "Backend", "Germany", "Mid"));
+        });
+
+        index.reloadProjects(Set.of(10L));
+
+        verify(vacancyRepository, times(1)).findIndexRowsByProjectIdIn(Set.of(10L));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should read the projects again, outside the lock, when one of them had a local write meanwhile")
+    void reloadProjects_shouldReadAgain_whenSameProjectWritten() {
+        VacancyIndexRow written = new VacancyIndexRow(2L, 10L, "Backend", "Poland", "Senior");
+        when(vacancyRepository.findIndexRowsByProjectIdIn(Set.of(10L)))
+                .thenAnswer(invocation -> {
+                    index.putRows(List.of(written));
+                    return List.of(new VacancyIndexRow(1L, 10L, "Backend", "Germany", "Mid"));
+                })
+                .thenAnswer(invocation -> {
+                    // A lookup from another thread goes through while the reload reads
+                    assertEquals(1, CompletableFuture.supplyAsync(index::size).get(1, TimeUnit.SECONDS));
+                    return List.of(new VacancyIndexRow(1L, 10L, "Backend", "Germany", "Mid"), written);
+                });
+
+        index.reloadProjects(Set.of(10L));
+
+        verify(vacancyRepository, times(2)).findIndexRowsByProjectIdIn(Set.of(10L));
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,99 @@
+package org.project.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConcurrencyLimitedDataSource Unit Tests")
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitedDataSource(target, 2, 10, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Should fail fast once all permits are taken")
+    void getConnection_shouldFailWhenLimitReached() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(2, dataSource.inUse());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should report the wait of every caller, including one that timed out")
+    void getConnection_shouldRecordWait() throws Exception {
+        List<Long> waits = new ArrayList<>();
+        dataSource.setWaitRecorder(waits::add);
+        when(target.getConnection()).thenReturn(connection);
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        assertEquals(3, waits.size());
+        assertTrue(waits.get(2) >= Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    @DisplayName("Should reject at once when too many callers are already waiting")
+    void getConnection_shouldRejectWhenQueueFull() throws Exception {
+        ConcurrencyLimitedDataSource noQueue = new ConcurrencyLimitedDataSource(target, 1, 0, Duration.ofSeconds(10));
+        when(target.getConnection()).thenReturn(connection);
+        noQueue.getConnection();
+
+        long started = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, noQueue::getConnection);
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the connection is closed, only once")
+    void close_shouldReleasePermitOnce() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertEquals(0, dataSource.inUse());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the pool fails to hand out a connection")
+    void getConnection_shouldReleasePermitOnFailure() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("pool down"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.inUse());
+    }
+}
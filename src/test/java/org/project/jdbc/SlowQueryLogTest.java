@@ -0,0 +1,58 @@
+package org.project.jdbc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SlowQueryLog Unit Tests")
+class SlowQueryLogTest {
+
+    private final SlowQueryLog log = new SlowQueryLog(Duration.ofMillis(100), 3);
+
+    @Test
+    @DisplayName("Should keep the latest entries up to the capacity, newest first")
+    void add_shouldOverwriteOldestEntries() {
+        for (int i = 1; i <= 5; i++) {
+            log.add(query("select " + i));
+        }
+
+        assertEquals(List.of("select 5", "select 4", "select 3"),
+                log.entries().stream().map(SlowQueryLog.SlowQuery::sql).toList());
+    }
+
+    @Test
+    @DisplayName("Should drop all entries on clear")
+    void clear_shouldEmptyLog() {
+        log.add(query("select 1"));
+
+        log.clear();
+        log.add(query("select 2"));
+
+        assertEquals(List.of("select 2"), log.entries().stream().map(SlowQueryLog.SlowQuery::sql).toList());
+    }
+
+    @Test
+    @DisplayName("Should treat statements from the threshold on as slow")
+    void isSlow_shouldCompareWithThreshold() {
+        assertFalse(log.isSlow(Duration.ofMillis(99).toNanos()));
+        assertTrue(log.isSlow(Duration.ofMillis(100).toNanos()));
+    }
+
+    @Test
+    @DisplayName("Should truncate long bind parameter values")
+    void truncate_shouldShortenLongValues() {
+        String value = "x".repeat(SlowQueryLog.MAX_VALUE_LENGTH + 50);
+
+        assertEquals(SlowQueryLog.MAX_VALUE_LENGTH + 3, SlowQueryLog.truncate(value).length());
+        assertEquals("short", SlowQueryLog.truncate("short"));
+    }
+
+    private static SlowQueryLog.SlowQuery query(String sql) {
+        return new SlowQueryLog.SlowQuery(Instant.now(), 150, sql, List.of(), null);
+    }
+}
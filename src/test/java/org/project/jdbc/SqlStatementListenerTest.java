@@ -0,0 +1,97 @@
+package org.project.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SqlStatementListener Unit Tests")
+class SqlStatementListenerTest {
+
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofHours(1), 10);
+
+    private final SqlStatementListener listener = new SqlStatementListener(slowQueryLog);
+
+    @Test
+    @DisplayName("Should count every execution into the stats of the current thread")
+    void afterQuery_shouldCountStatements() {
+        try (SqlStatementStats stats = SqlStatementStats.start()) {
+            execute(new ExecutionInfo(), List.of(new QueryInfo("select 1")));
+            execute(new ExecutionInfo(), List.of(new QueryInfo("select 2")));
+
+            assertEquals(2, stats.statements());
+            assertFalse(stats.time().isNegative());
+        }
+        assertNull(SqlStatementStats.current());
+    }
+
+    @Test
+    @DisplayName("Should fail the statement beyond the budget before it runs")
+    void beforeQuery_shouldFailOverBudget() {
+        try (SqlStatementStats stats = SqlStatementStats.start("handler", 1, true)) {
+            execute(new ExecutionInfo(), List.of(new QueryInfo("select 1")));
+
+            assertThrows(SqlBudgetExceededException.class,
+                    () -> listener.beforeQuery(new ExecutionInfo(), List.of(new QueryInfo("select 2"))));
+            assertEquals(1, stats.statements());
+            assertFalse(stats.overBudget());
+        }
+    }
+
+    @Test
+    @DisplayName("Should only report a request over its budget when budgets are not enforced")
+    void beforeQuery_shouldNotFailWhenNotEnforced() {
+        try (SqlStatementStats stats = SqlStatementStats.start("handler", 1, false)) {
+            execute(new ExecutionInfo(), List.of(new QueryInfo("select 1")));
+            execute(new ExecutionInfo(), List.of(new QueryInfo("select 2")));
+
+            assertEquals(2, stats.statements());
+            assertTrue(stats.overBudget());
+        }
+    }
+
+    @Test
+    @DisplayName("Should log slow statements with their bind parameters and request")
+    void afterQuery_shouldLogSlowStatements() throws Exception {
+        SlowQueryLog everyQuery = new SlowQueryLog(Duration.ZERO, 10);
+        SqlStatementListener slowListener = new SqlStatementListener(everyQuery);
+        QueryInfo query = new QueryInfo("select * from projects where name = ? and deadline = ?");
+        query.getParametersList().add(List.of(
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class),
+                        new Object[]{1, "Alpha"}),
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setNull", int.class, int.class),
+                        new Object[]{2, 91})));
+        ExecutionInfo execInfo = new ExecutionInfo();
+
+        try (SqlStatementStats stats = SqlStatementStats.start("ProjectController.getAll", 5, false)) {
+            slowListener.beforeQuery(execInfo, List.of(query));
+            slowListener.afterQuery(execInfo, List.of(query));
+        }
+
+        assertEquals(1, everyQuery.entries().size());
+        SlowQueryLog.SlowQuery slow = everyQuery.entries().get(0);
+        assertEquals(query.getQuery(), slow.sql());
+        assertEquals(List.of(List.of("Alpha", "null")), slow.parameters());
+        assertEquals("ProjectController.getAll", slow.request());
+    }
+
+    @Test
+    @DisplayName("Should not log statements below the threshold")
+    void afterQuery_shouldSkipFastStatements() {
+        execute(new ExecutionInfo(), List.of(new QueryInfo("select 1")));
+
+        assertTrue(slowQueryLog.entries().isEmpty());
+    }
+
+    private void execute(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        listener.beforeQuery(execInfo, queries);
+        listener.afterQuery(execInfo, queries);
+    }
+}
@@ -0,0 +1,193 @@
+package org.project.lifecycle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.project.cache.CacheInvalidator;
+import org.project.index.VacancyIndex;
+import org.project.outbox.ChangeOutbox;
+import org.project.outbox.ChangeType;
+import org.project.repository.ProjectDeadline;
+import org.project.repository.ProjectStatusRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("DeadlineScheduler Unit Tests")
+class DeadlineSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 5, 10);
+
+    @Mock
+    private ProjectStatusRepository statusRepository;
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
+    @Mock
+    private VacancyIndex vacancyIndex;
+
+    @Mock
+    private ChangeOutbox changeOutbox;
+
+    @Mock
+    private AdvisoryLockLeader leader;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Clock clock;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DeadlineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        setToday(TODAY);
+        when(leader.isLeader()).thenReturn(true);
+        when(leader.term()).thenReturn(1L);
+        when(statusRepository.close(any(), any())).thenAnswer(invocation -> List.copyOf(invocation.getArgument(0)));
+        when(statusRepository.closeExpired(any(), anyInt())).thenReturn(List.of());
+        scheduler = new DeadlineScheduler(statusRepository, cacheInvalidator, vacancyIndex, changeOutbox,
+                Optional.of(leader), transactionManager, clock, meterRegistry, 7, 100, 2);
+    }
+
+    @Test
+    @DisplayName("Should do nothing on a node that is not the leader")
+    void closeExpired_shouldDoNothing_whenNotLeader() {
+        when(leader.isLeader()).thenReturn(false);
+
+        assertEquals(0, scheduler.closeExpired());
+
+        verifyNoInteractions(statusRepository, cacheInvalidator, vacancyIndex, changeOutbox);
+    }
+
+    @Test
+    @DisplayName("Should load the first window without a lower bound and close what is overdue in batches")
+    void closeExpired_shouldCloseOverdue_onFirstTick() {
+        when(statusRepository.findOpenByDeadline(null, TODAY.plusDays(7), 100)).thenReturn(List.of(
+                new ProjectDeadline(1L, TODAY.minusDays(3)),
+                new ProjectDeadline(2L, TODAY.minusDays(1)),
+                new ProjectDeadline(3L, TODAY.minusDays(1)),
+                new ProjectDeadline(4L, TODAY)));
+
+        assertEquals(3, scheduler.closeExpired());
+
+        verify(statusRepository).close(List.of(1L, 2L), TODAY);
+        verify(statusRepository).close(List.of(3L), TODAY);
+        verify(statusRepository).closeExpired(TODAY, 2);
+        verify(vacancyIndex).removeProjects(List.of(1L, 2L));
+        verify(changeOutbox).projects(ChangeType.CLOSED, List.of(3L));
+        verify(cacheInvalidator).evictProjectVacancies(3L);
+        verify(cacheInvalidator, never()).evictProjectVacancies(4L);
+        assertEquals(3.0, meterRegistry.get("app.lifecycle.closed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should fire at the next day from the heap, without reading the window again")
+    void closeExpired_shouldFireFromHeap_whenDayPasses() {
+        when(statusRepository.findOpenByDeadline(null, TODAY.plusDays(7), 100)).thenReturn(List.of(
+                new ProjectDeadline(4L, TODAY),
+                new ProjectDeadline(5L, TODAY.plusDays(2))));
+        assertEquals(0, scheduler.closeExpired());
+        assertEquals(0, scheduler.closeExpired());
+
+        setToday(TODAY.plusDays(1));
+
+        assertEquals(1, scheduler.closeExpired());
+        verify(statusRepository, times(1)).findOpenByDeadline(any(), any(), anyInt());
+        verify(statusRepository).close(List.of(4L), TODAY.plusDays(1));
+        // Once when the node took over and once for the new day
+        verify(statusRepository, times(2)).closeExpired(any(), eq(2));
+    }
+
+    @Test
+    @DisplayName("Should sweep again on the next tick while an expired project held by a write is left open")
+    void closeExpired_shouldSweepAgain_whenRowsSkipped() {
+        when(statusRepository.closeExpired(TODAY, 2)).thenReturn(List.of(), List.of(7L), List.of());
+        when(statusRepository.existsExpired(TODAY)).thenReturn(true, false);
+
+        assertEquals(0, scheduler.closeExpired());
+        assertEquals(1, scheduler.closeExpired());
+        assertEquals(0, scheduler.closeExpired());
+
+        verify(statusRepository, times(2)).closeExpired(TODAY, 2);
+        verify(changeOutbox).projects(ChangeType.CLOSED, List.of(7L));
+    }
+
+    @Test
+    @DisplayName("Should follow deadlines changed and deleted on this node")
+    void closeExpired_shouldSkipStaleEntries() {
+        when(statusRepository.findOpenByDeadline(null, TODAY.plusDays(7), 100)).thenReturn(List.of(
+                new ProjectDeadline(4L, TODAY),
+                new ProjectDeadline(5L, TODAY),
+                new ProjectDeadline(6L, TODAY)));
+        scheduler.closeExpired();
+
+        scheduler.schedule(4L, TODAY.plusDays(3));
+        scheduler.cancel(5L);
+        scheduler.schedule(7L, TODAY);
+        scheduler.schedule(8L, TODAY.plusDays(30));
+        setToday(TODAY.plusDays(1));
+
+        assertEquals(2, scheduler.closeExpired());
+        verify(statusRepository).close(List.of(6L, 7L), TODAY.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should read the next window from the last loaded date when the window was full")
+    void closeExpired_shouldContinueFromLastDate_whenWindowFull() {
+        scheduler = new DeadlineScheduler(statusRepository, cacheInvalidator, vacancyIndex, changeOutbox,
+                Optional.of(leader), transactionManager, clock, meterRegistry, 7, 2, 2);
+        when(statusRepository.findOpenByDeadline(null, TODAY.plusDays(7), 2)).thenReturn(List.of(
+                new ProjectDeadline(1L, TODAY.minusDays(1)),
+                new ProjectDeadline(2L, TODAY.minusDays(1))));
+        when(statusRepository.findOpenByDeadline(TODAY.minusDays(1), TODAY.plusDays(7), 2)).thenReturn(List.of(
+                new ProjectDeadline(3L, TODAY.plusDays(1))));
+
+        assertEquals(2, scheduler.closeExpired());
+        assertEquals(0, scheduler.closeExpired());
+
+        verify(statusRepository).findOpenByDeadline(TODAY.minusDays(1), TODAY.plusDays(7), 2);
+    }
+
+    @Test
+    @DisplayName("Should start over when the node takes the lock again")
+    void closeExpired_shouldReload_whenTermChanges() {
+        when(statusRepository.findOpenByDeadline(null, TODAY.plusDays(7), 100)).thenReturn(List.of());
+        scheduler.closeExpired();
+        when(leader.term()).thenReturn(2L);
+
+        scheduler.closeExpired();
+
+        verify(statusRepository, times(2)).findOpenByDeadline(null, TODAY.plusDays(7), 100);
+        verify(statusRepository, times(2)).closeExpired(TODAY, 2);
+    }
+
+    private void setToday(LocalDate today) {
+        when(clock.instant()).thenReturn(today.atTime(12, 0).toInstant(ZoneOffset.UTC));
+    }
+}
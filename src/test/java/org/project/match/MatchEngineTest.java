@@ -0,0 +1,111 @@
+package org.project.match;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.index.VacancyIndex;
+import org.project.repository.VacancyJpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MatchEngine Unit Tests")
+class MatchEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Mock
+    private VacancyJpaRepository vacancyRepository;
+
+    @Mock
+    private VacancyIndex vacancyIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MatchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new MatchEngine(vacancyRepository, vacancyIndex, transactionManager,
+                3.0f, 2.0f, 1.5f, 4.0f, 1.0f, 30, Duration.ofMinutes(5));
+    }
+
+    private void givenVacancies(MatchRow... rows) {
+        when(vacancyRepository.streamMatchRows()).thenReturn(Stream.of(rows));
+    }
+
+    @Test
+    @DisplayName("Should rank by weighted attribute and skill matches")
+    void match_RanksByScore() {
+        givenVacancies(
+                new MatchRow(1L, "Backend", "Germany", "Senior", "Java Developer", "Spring Boot, PostgreSQL", null),
+                new MatchRow(2L, "backend", "Poland", "Mid", "Java Developer", "Spring Boot", null),
+                new MatchRow(3L, "Frontend", "Germany", "Senior", "React Developer", "TypeScript", null),
+                new MatchRow(4L, "Data", "Spain", "Junior", "Analyst", "Excel", null));
+
+        MatchHits hits = engine.match(new MatchQuery("Backend", "Germany", "Senior",
+                List.of("java", "Spring Boot", "postgresql"), TODAY), 10);
+
+        assertArrayEquals(new long[]{1L, 2L, 3L}, hits.ids());
+        assertEquals(3.0f + 2.0f + 1.5f + 4.0f, hits.scores()[0], 1e-4);
+        assertEquals(3.0f + 4.0f * 2 / 3, hits.scores()[1], 1e-4);
+        assertEquals(2.0f + 1.5f, hits.scores()[2], 1e-4);
+    }
+
+    @Test
+    @DisplayName("Should boost close deadlines and skip projects past their deadline")
+    void match_Deadline() {
+        givenVacancies(
+                new MatchRow(1L, "Backend", null, null, "A", null, TODAY.plusDays(60)),
+                new MatchRow(2L, "Backend", null, null, "B", null, TODAY.plusDays(15)),
+                new MatchRow(3L, "Backend", null, null, "C", null, TODAY.minusDays(1)),
+                new MatchRow(4L, "Frontend", null, null, "D", null, TODAY));
+
+        MatchHits hits = engine.match(new MatchQuery("Backend", null, null, null, TODAY), 10);
+
+        assertArrayEquals(new long[]{2L, 1L}, hits.ids());
+        assertEquals(3.0f + 0.5f, hits.scores()[0], 1e-4);
+    }
+
+    @Test
+    @DisplayName("Should keep only the best limit matches across parallel ranges")
+    void match_TopKAcrossRanges() {
+        List<MatchRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            String country = id % 1000 == 0 ? "Germany" : "Poland";
+            rows.add(new MatchRow(id, "Backend", country, null, "Developer", null, null));
+        }
+        when(vacancyRepository.streamMatchRows()).thenReturn(rows.stream());
+
+        MatchHits hits = engine.match(new MatchQuery("Backend", "Germany", null, null, TODAY), 5);
+
+        assertArrayEquals(new long[]{1000L, 2000L, 3000L, 4000L, 5000L}, hits.ids());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the snapshot only after the index changed")
+    void refreshIfStale() {
+        when(vacancyRepository.streamMatchRows()).thenAnswer(invocation -> Stream.of(
+                new MatchRow(1L, "Backend", null, null, "A", null, null)));
+        when(vacancyIndex.version()).thenReturn(1L);
+
+        engine.refreshIfStale();
+        engine.refreshIfStale();
+        when(vacancyIndex.version()).thenReturn(2L);
+        engine.refreshIfStale();
+
+        verify(vacancyRepository, times(2)).streamMatchRows();
+    }
+}
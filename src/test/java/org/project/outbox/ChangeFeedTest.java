@@ -0,0 +1,176 @@
+package org.project.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.dto.ChangeEventDto;
+import org.project.exception.ChangesExpiredException;
+import org.project.repository.OutboxRepository;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChangeFeed Unit Tests")
+class ChangeFeedTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private final StreamWriters writers = new StreamWriters(new SimpleMeterRegistry(), 1, 1, Duration.ofSeconds(10));
+
+    private ChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = new ChangeFeed(outboxRepository, new SimpleMeterRegistry(), writers, List.of(), 500,
+                Duration.ofMinutes(30), 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writers.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should answer right away when there are changes after the position")
+    void poll_shouldReturnRightAway_whenChangesExist() {
+        when(outboxRepository.findAfter(5L, 10)).thenReturn(events(6, 7));
+
+        CompletableFuture<List<ChangeEventDto>> result = changeFeed.poll(5L, 10, WAIT);
+
+        assertTrue(result.isDone());
+        assertEquals(events(6, 7), result.join());
+    }
+
+    @Test
+    @DisplayName("Should fail when changes after the position have been pruned")
+    void poll_shouldThrowException_whenPositionExpired() {
+        when(outboxRepository.findAfter(5L, 10)).thenReturn(events(9, 10));
+
+        assertThrows(ChangesExpiredException.class, () -> changeFeed.poll(5L, 10, WAIT));
+    }
+
+    @Test
+    @DisplayName("Should complete a waiting request with the changes of the next dispatch, up to its limit")
+    void poll_shouldComplete_onDispatch() {
+        when(outboxRepository.findAfter(10L, 2)).thenReturn(List.of());
+        CompletableFuture<List<ChangeEventDto>> result = changeFeed.poll(10L, 2, WAIT);
+        assertFalse(result.isDone());
+        when(outboxRepository.lastPosition()).thenReturn(10L);
+        when(outboxRepository.findAfter(10L, 500)).thenReturn(events(11, 12, 13));
+
+        changeFeed.dispatch();
+
+        assertEquals(events(11, 12), result.join());
+    }
+
+    @Test
+    @DisplayName("Should complete a waiting request without changes once the wait is over")
+    void poll_shouldReturnNothing_afterWait() {
+        when(outboxRepository.findAfter(10L, 2)).thenReturn(List.of());
+
+        assertEquals(List.of(), changeFeed.poll(10L, 2, Duration.ofMillis(20)).join());
+    }
+
+    @Test
+    @DisplayName("Should share one read among consumers that are up to date and give one behind a page of its own")
+    void dispatch_shouldReadOwnPage_forConsumerBehind() {
+        when(outboxRepository.findAfter(anyLong(), anyInt())).thenReturn(List.of());
+        CompletableFuture<List<ChangeEventDto>> upToDate = changeFeed.poll(10L, 100, WAIT);
+        CompletableFuture<List<ChangeEventDto>> alsoUpToDate = changeFeed.poll(10L, 100, WAIT);
+        CompletableFuture<List<ChangeEventDto>> behind = changeFeed.poll(8L, 100, WAIT);
+        when(outboxRepository.lastPosition()).thenReturn(10L);
+        when(outboxRepository.findAfter(10L, 500)).thenReturn(events(11));
+        when(outboxRepository.findAfter(8L, 500)).thenReturn(events(9, 10, 11));
+
+        changeFeed.dispatch();
+
+        assertEquals(events(11), upToDate.join());
+        assertEquals(events(11), alsoUpToDate.join());
+        assertEquals(events(9, 10, 11), behind.join());
+        verify(outboxRepository, times(1)).findAfter(10L, 500);
+        verify(outboxRepository, times(1)).findAfter(8L, 500);
+    }
+
+    @Test
+    @DisplayName("Should read nothing while no consumer waits")
+    void dispatch_shouldDoNothing_withoutConsumers() {
+        changeFeed.dispatch();
+
+        verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    @DisplayName("Should not wait for a slow stream, which catches up from the log once it has drained")
+    void dispatch_shouldSkipStream_whileItsBufferIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        // Pages of two events and room for one page per stream
+        ChangeFeed feed = new ChangeFeed(outboxRepository, new SimpleMeterRegistry(), writers, List.of(), 2,
+                Duration.ofMinutes(30), 2) {
+            @Override
+            SseEmitter emitter(Duration timeout) {
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        sent.incrementAndGet();
+                    }
+                };
+            }
+        };
+        when(outboxRepository.findAfter(10L, 1)).thenReturn(List.of());
+        feed.stream(10L);
+        when(outboxRepository.lastPosition()).thenReturn(10L);
+        when(outboxRepository.findAfter(10L, 2)).thenReturn(events(11, 12));
+        when(outboxRepository.findAfter(12L, 2)).thenReturn(events(13, 14));
+        when(outboxRepository.findAfter(14L, 2)).thenReturn(List.of());
+
+        feed.dispatch();
+        // The writer is stuck on the first event, the stream has no room for the next page
+        CompletableFuture.runAsync(feed::dispatch).get(1, TimeUnit.SECONDS);
+        verify(outboxRepository, times(1)).findAfter(12L, 2);
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sent.get() < 4) {
+            assertTrue(System.nanoTime() < deadline, "Stream did not catch up");
+            feed.dispatch();
+            Thread.sleep(10);
+        }
+        // Once as the tail, once as the page of the stream behind it
+        verify(outboxRepository, times(2)).findAfter(12L, 2);
+    }
+
+    private static List<ChangeEventDto> events(long... positions) {
+        return LongStream.of(positions)
+                .mapToObj(position -> new ChangeEventDto(position, ChangeSubject.VACANCY, 100 + position, 1L,
+                        ChangeType.UPDATED, Instant.EPOCH))
+                .toList();
+    }
+}
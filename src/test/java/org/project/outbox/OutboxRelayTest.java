@@ -0,0 +1,81 @@
+package org.project.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.repository.OutboxRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Unit Tests")
+class OutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2026-05-10T12:00:00Z");
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        relay = new OutboxRelay(outboxRepository, changeFeed, transactionManager, Clock.fixed(NOW, ZoneOffset.UTC),
+                meterRegistry, 42L, 2, 3, Duration.ofDays(7));
+    }
+
+    @Test
+    @DisplayName("Should move full batches until a batch comes back short, one transaction each, then dispatch")
+    void relay_shouldStopAfterShortBatch() {
+        when(outboxRepository.tryLockRelay(42L)).thenReturn(true);
+        when(outboxRepository.publish(2)).thenReturn(2, 1);
+
+        assertEquals(3, relay.relay());
+
+        verify(transactionManager, times(2)).commit(any());
+        verify(changeFeed).dispatch();
+        assertEquals(3.0, meterRegistry.get("app.outbox.published").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should leave the outbox to the node holding the relay lock and still dispatch")
+    void relay_shouldNotPublish_whenLockTaken() {
+        when(outboxRepository.tryLockRelay(42L)).thenReturn(false);
+
+        assertEquals(0, relay.relay());
+
+        verify(outboxRepository, never()).publish(anyInt());
+        verify(changeFeed).dispatch();
+    }
+
+    @Test
+    @DisplayName("Should prune events published before the retention, batch by batch")
+    void prune_shouldDeleteOldEvents() {
+        when(outboxRepository.prune(NOW.minus(Duration.ofDays(7)), 2)).thenReturn(2, 2, 0);
+
+        assertEquals(4, relay.prune());
+    }
+}
@@ -0,0 +1,91 @@
+package org.project.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StreamWriters Unit Tests")
+class StreamWritersTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final StreamWriters writers = new StreamWriters(meterRegistry, 1, 2, Duration.ofMillis(20));
+
+    @AfterEach
+    void tearDown() {
+        writers.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should close the stream of a write past the timeout and let another thread serve the other streams")
+    void expire_shouldStandInForBlockedWrite() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch other = new CountDownLatch(1);
+        AtomicInteger expired = new AtomicInteger();
+        SseEmitter stalled = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                writing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        writers.execute(() -> {
+            try {
+                writers.send(stalled, SseEmitter.event().comment("heartbeat"), expired::incrementAndGet);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        writers.execute(other::countDown);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        // The only writer is blocked, the other stream waits
+        assertFalse(other.await(50, TimeUnit.MILLISECONDS));
+
+        writers.expire();
+
+        assertEquals(1, expired.get());
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("app.streams.write-timeouts").counter().count());
+        writers.expire();
+        assertEquals(1, expired.get());
+
+        release.countDown();
+        await(() -> writers.threads() == 1);
+    }
+
+    @Test
+    @DisplayName("Should leave a write within the timeout alone")
+    void expire_shouldIgnoreWriteWithinTimeout() throws IOException {
+        AtomicInteger expired = new AtomicInteger();
+
+        writers.send(new SseEmitter(), SseEmitter.event().comment("heartbeat"), expired::incrementAndGet);
+        writers.expire();
+
+        assertEquals(0, expired.get());
+        assertEquals(1, writers.threads());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within a second");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.project.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.dto.ChangeEventDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.entity.ProjectStatus;
+import org.project.exception.StreamUnavailableException;
+import org.project.repository.OutboxRepository;
+import org.project.repository.ProjectJpaRepository;
+import org.project.repository.VacancyJpaRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VacancyStreamHub Unit Tests")
+class VacancyStreamHubTest {
+
+    @Mock
+    private VacancyJpaRepository vacancyRepository;
+
+    @Mock
+    private ProjectJpaRepository projectRepository;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final StreamWriters writers = new StreamWriters(meterRegistry, 1, 1, Duration.ofSeconds(10));
+
+    private VacancyStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new VacancyStreamHub(vacancyRepository, projectRepository, changeFeed, meterRegistry, writers, 2,
+                Duration.ofSeconds(15), Duration.ofMinutes(30), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+        writers.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should start a stream with a snapshot of the project vacancies read on subscribe")
+    void subscribe_shouldReadSnapshotRightAway() {
+        when(projectRepository.findStatusById(1L)).thenReturn(Optional.of(ProjectStatus.OPEN));
+        assertFalse(hub.listening());
+
+        hub.subscribe(1L);
+
+        assertTrue(hub.listening());
+        verify(vacancyRepository, times(1)).findResponsesByProjectId(1L);
+    }
+
+    @Test
+    @DisplayName("Should refuse a stream on a node without the change feed, it would never change")
+    void subscribe_shouldThrowException_withoutRelay() {
+        VacancyStreamHub unrelayed = new VacancyStreamHub(vacancyRepository, projectRepository, changeFeed,
+                meterRegistry, writers, 2, Duration.ofSeconds(15), Duration.ofMinutes(30), false);
+
+        assertThrows(StreamUnavailableException.class, () -> unrelayed.subscribe(1L));
+        assertFalse(unrelayed.listening());
+        verifyNoInteractions(vacancyRepository, projectRepository, changeFeed);
+    }
+
+    @Test
+    @DisplayName("Should pass on a write relayed right after the snapshot of a stream on an idle feed")
+    void subscribe_shouldFixFeedPosition_beforeSnapshot() {
+        ChangeListener forward = new ChangeListener() {
+            @Override
+            public boolean listening() {
+                return hub.listening();
+            }
+
+            @Override
+            public void changed(List<ChangeEventDto> events) {
+                hub.changed(events);
+            }
+        };
+        ChangeFeed feed = new ChangeFeed(outboxRepository, meterRegistry, writers, List.of(forward), 500,
+                Duration.ofMinutes(30), 1000);
+        hub = new VacancyStreamHub(vacancyRepository, projectRepository, feed, meterRegistry, writers, 2,
+                Duration.ofSeconds(15), Duration.ofMinutes(30), true);
+        when(projectRepository.findStatusById(1L)).thenReturn(Optional.of(ProjectStatus.OPEN));
+        AtomicLong position = new AtomicLong(10);
+        when(outboxRepository.lastPosition()).thenAnswer(invocation -> position.get());
+        // A write commits right after the snapshot read and is relayed before the next dispatch
+        when(vacancyRepository.findResponsesByProjectId(1L)).thenAnswer(invocation -> {
+            position.set(11);
+            return List.of();
+        });
+        when(outboxRepository.findAfter(10L, 500))
+                .thenReturn(List.of(event(11, ChangeSubject.VACANCY, 101L, 1L, ChangeType.UPDATED)));
+
+        hub.subscribe(1L);
+        feed.dispatch();
+
+        verify(vacancyRepository, times(1)).findResponsesByIdIn(Set.of(101L));
+    }
+
+    @Test
+    @DisplayName("Should read the changed vacancies of watched projects once per dispatch, and skip the rest")
+    void changed_shouldReadChangedVacanciesOfWatchedProjects() {
+        when(projectRepository.findStatusById(1L)).thenReturn(Optional.of(ProjectStatus.OPEN));
+        hub.subscribe(1L);
+        when(vacancyRepository.findResponsesByIdIn(any())).thenReturn(List.of(vacancy(101L)));
+
+        hub.changed(List.of(
+                event(1, ChangeSubject.VACANCY, 101L, 1L, ChangeType.UPDATED),
+                event(2, ChangeSubject.VACANCY, 102L, 1L, ChangeType.DELETED),
+                event(3, ChangeSubject.VACANCY, 201L, 2L, ChangeType.CREATED)));
+
+        verify(vacancyRepository, times(1)).findResponsesByIdIn(Set.of(101L));
+    }
+
+    @Test
+    @DisplayName("Should drop the buffer of a stream that falls behind for a new snapshot, read by the dispatch")
+    void changed_shouldResync_whenBufferOverflows() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(projectRepository.findStatusById(1L)).thenReturn(Optional.of(ProjectStatus.OPEN));
+        // The only writer is busy, the snapshot and the deltas pile up
+        writers.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        hub.subscribe(1L);
+
+        hub.changed(List.of(
+                event(1, ChangeSubject.VACANCY, 101L, 1L, ChangeType.DELETED),
+                event(2, ChangeSubject.VACANCY, 102L, 1L, ChangeType.DELETED),
+                event(3, ChangeSubject.VACANCY, 103L, 1L, ChangeType.DELETED)));
+        release.countDown();
+
+        assertEquals(1.0, meterRegistry.get("app.vacancy-stream.resyncs").counter().count());
+        verify(vacancyRepository, times(2)).findResponsesByProjectId(1L);
+    }
+
+    @Test
+    @DisplayName("Should end the streams of a deleted project")
+    void changed_shouldEndStreams_whenProjectDeleted() {
+        when(projectRepository.findStatusById(1L)).thenReturn(Optional.of(ProjectStatus.OPEN));
+        hub.subscribe(1L);
+
+        hub.changed(List.of(event(1, ChangeSubject.PROJECT, 1L, 1L, ChangeType.DELETED)));
+
+        verify(vacancyRepository, never()).findResponsesByIdIn(any());
+        await(() -> !hub.listening());
+        assertEquals(0.0, meterRegistry.get("app.vacancy-stream.open").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should end the streams of a project closed by an update, which records the close after the update")
+    void changed_shouldEndStreams_whenProjectClosedByUpdate() {
+        when(projectRepository.findStatusById(1L)).thenReturn(Optional.of(ProjectStatus.OPEN));
+        hub.subscribe(1L);
+
+        hub.changed(List.of(
+                event(1, ChangeSubject.PROJECT, 1L, 1L, ChangeType.UPDATED),
+                event(2, ChangeSubject.PROJECT, 1L, 1L, ChangeType.CLOSED)));
+
+        await(() -> !hub.listening());
+    }
+
+    @Test
+    @DisplayName("Should end a stream of a project that is closed already without reading its vacancies")
+    void subscribe_shouldEndStream_whenProjectClosed() {
+        when(projectRepository.findStatusById(1L)).thenReturn(Optional.of(ProjectStatus.CLOSED));
+
+        hub.subscribe(1L);
+
+        await(() -> !hub.listening());
+        verifyNoInteractions(vacancyRepository);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within a second");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static ChangeEventDto event(long position, ChangeSubject subject, Long id, Long projectId, ChangeType type) {
+        return new ChangeEventDto(position, subject, id, projectId, type, Instant.EPOCH);
+    }
+
+    private static VacancyResponseDto vacancy(Long id) {
+        return new VacancyResponseDto(id, "Java Dev", "Backend", "Mid", "Germany", "Java developer", 1L);
+    }
+}
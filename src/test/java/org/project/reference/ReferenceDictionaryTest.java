@@ -0,0 +1,166 @@
+package org.project.reference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReferenceDictionary Unit Tests")
+class ReferenceDictionaryTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private ReferenceDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new ReferenceDictionary(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should load the table on the first unknown id and serve later reads from memory")
+    void value_shouldLoadTableOnce() {
+        doAnswer(rows(1, "IT", 2, "Finance")).when(jdbcTemplate)
+                .query(eq("SELECT id, value FROM ref_fields"), any(RowCallbackHandler.class));
+
+        assertEquals("IT", dictionary.value(ReferenceType.FIELD, 1));
+        assertEquals("Finance", dictionary.value(ReferenceType.FIELD, 2));
+        assertSame(dictionary.value(ReferenceType.FIELD, 1), dictionary.value(ReferenceType.FIELD, 1));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should fail for an id that is not in the table")
+    void value_shouldThrowForUnknownId() {
+        doAnswer(rows(1, "IT")).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        assertThrows(IllegalStateException.class, () -> dictionary.value(ReferenceType.FIELD, 5));
+    }
+
+    @Test
+    @DisplayName("Should map null to null without touching the database")
+    void nulls_shouldPassThrough() {
+        assertNull(dictionary.value(ReferenceType.COUNTRY, null));
+        assertNull(dictionary.id(ReferenceType.COUNTRY, null));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should resolve a stored value once and return the interned instance on read")
+    void id_shouldLookUpStoredValueOnce() {
+        doAnswer(rows(3, "Ukraine")).when(jdbcTemplate)
+                .query(contains("WHERE value IN"), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        String value = new String("Ukraine");
+
+        assertEquals(3, dictionary.id(ReferenceType.COUNTRY, value));
+        assertEquals(3, dictionary.id(ReferenceType.COUNTRY, "Ukraine"));
+        assertNotSame(value, dictionary.value(ReferenceType.COUNTRY, 3));
+        verify(jdbcTemplate, times(1))
+                .query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should add a new value right away outside a transaction")
+    void id_shouldInsertNewValue() {
+        when(jdbcTemplate.queryForObject(startsWith("INSERT INTO ref_experiences"), any(SqlParameterSource.class),
+                eq(Integer.class))).thenReturn(7);
+
+        assertEquals(7, dictionary.id(ReferenceType.EXPERIENCE, "5+ years"));
+        assertEquals("5+ years", dictionary.value(ReferenceType.EXPERIENCE, 7));
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should share a value added in a transaction once it commits")
+    void id_shouldShareValueAddedInTransaction_afterCommit() {
+        when(jdbcTemplate.queryForObject(startsWith("INSERT INTO ref_countries"), any(SqlParameterSource.class),
+                eq(Integer.class))).thenReturn(9);
+
+        inTransaction(synchronization -> synchronization.afterCommit());
+
+        assertEquals(9, dictionary.id(ReferenceType.COUNTRY, "Chile"));
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), any(SqlParameterSource.class), eq(Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should forget a value added in a transaction that rolls back")
+    void id_shouldForgetValueAddedInTransaction_onRollback() {
+        when(jdbcTemplate.queryForObject(startsWith("INSERT INTO ref_countries"), any(SqlParameterSource.class),
+                eq(Integer.class))).thenReturn(9, 10);
+
+        inTransaction(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(10, dictionary.id(ReferenceType.COUNTRY, "Chile"));
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), any(SqlParameterSource.class), eq(Integer.class));
+    }
+
+    /**
+     * Adds "Chile" in a simulated transaction, which sees it at once, then ends the transaction.
+     */
+    private void inTransaction(Consumer<TransactionSynchronization> completion) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals(9, dictionary.id(ReferenceType.COUNTRY, "Chile"));
+            assertEquals(9, dictionary.id(ReferenceType.COUNTRY, "Chile"));
+            assertEquals("Chile", dictionary.value(ReferenceType.COUNTRY, 9));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, synchronizations.size());
+            synchronizations.forEach(completion);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the ids of stored values only, looking up each value once")
+    void existingIds_shouldSkipUnknownValues() {
+        doAnswer(rows(1, "IT")).when(jdbcTemplate)
+                .query(contains("WHERE value IN"), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        assertEquals(List.of(1), dictionary.existingIds(ReferenceType.FIELD, List.of("IT", "Mining")));
+        assertEquals(List.of(1), dictionary.existingIds(ReferenceType.FIELD, List.of("IT")));
+        verify(jdbcTemplate, times(1))
+                .query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    /**
+     * Feeds id and value pairs to the row callback handler, the last argument of the query.
+     */
+    private static Answer<Void> rows(Object... idsAndValues) {
+        return invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(invocation.getArguments().length - 1);
+            for (int i = 0; i < idsAndValues.length; i += 2) {
+                handler.processRow(row((Integer) idsAndValues[i], (String) idsAndValues[i + 1]));
+            }
+            return null;
+        };
+    }
+
+    private static ResultSet row(int id, String value) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt("id")).thenReturn(id);
+        when(rs.getString("value")).thenReturn(value);
+        return rs;
+    }
+}
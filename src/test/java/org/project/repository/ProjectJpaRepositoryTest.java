@@ -0,0 +1,181 @@
+package org.project.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.project.config.SqlMonitoringConfig;
+import org.project.dto.ProjectResponseDto;
+import org.project.entity.Project;
+import org.project.entity.Vacancy;
+import org.project.jdbc.SqlStatementStats;
+import org.project.reference.ReferenceDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs on an embedded H2 database, the Liquibase changelog contains Postgres only statements
+@ActiveProfiles("test")
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.sql.monitoring.enabled=true"
+})
+@Import({SqlMonitoringConfig.class, ReferenceDictionary.class})
+class ProjectJpaRepositoryTest {
+
+    @Autowired
+    private ProjectJpaRepository repository;
+
+    @Autowired
+    private VacancyJpaRepository vacancyRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final List<Long> projectIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int p = 0; p < 3; p++) {
+            Project project = Project.builder().name("Project " + p).vacancies(new HashSet<>()).build();
+            for (int v = 0; v < 4; v++) {
+                project.getVacancies().add(Vacancy.builder().name("Vacancy " + p + "-" + v).project(project).build());
+            }
+            projectIds.add(entityManager.persist(project).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should load a project with its vacancies in one statement")
+    void findVacancyRowsById_singleStatement() {
+        List<ProjectVacancyRow> rows = repository.findVacancyRowsById(projectIds.get(1));
+
+        assertEquals(4, rows.size());
+        rows.forEach(row -> assertEquals(projectIds.get(1), row.projectId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should load a page of projects with their vacancies in one statement")
+    void findVacancyRowsByIdGreaterThan_singleStatement() {
+        List<ProjectVacancyRow> rows = repository.findVacancyRowsByIdGreaterThan(projectIds.get(0), 10);
+
+        assertEquals(List.of(projectIds.get(1), projectIds.get(2)),
+                rows.stream().map(ProjectVacancyRow::projectId).distinct().toList());
+        assertEquals(8, rows.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should apply the page limit to projects, not to joined rows")
+    void findVacancyRowsByIdGreaterThan_limitsProjects() {
+        List<ProjectVacancyRow> rows = repository.findVacancyRowsByIdGreaterThan(0L, 2);
+
+        assertEquals(projectIds.subList(0, 2), rows.stream().map(ProjectVacancyRow::projectId).distinct().toList());
+        assertEquals(8, rows.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should read a page of projects straight into response records")
+    void findResponsesByIdGreaterThan_noEntities() {
+        List<ProjectResponseDto> projects = repository.findResponsesByIdGreaterThan(projectIds.get(0), Limit.of(1));
+
+        assertEquals(List.of(projectIds.get(1)), projects.stream().map(ProjectResponseDto::id).toList());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should delete a project and its vacancies in one statement")
+    void deleteProjectById_singleStatement() {
+        assertEquals(1, repository.deleteProjectById(projectIds.get(1)));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0L, entityManager.getEntityManager()
+                .createQuery("select count(v) from Vacancy v where v.project.id = :id", Long.class)
+                .setParameter("id", projectIds.get(1))
+                .getSingleResult());
+    }
+
+    @Test
+    @DisplayName("Should report no deleted row for a missing project")
+    void deleteProjectById_missing() {
+        assertEquals(0, repository.deleteProjectById(-1L));
+    }
+
+    @Test
+    @DisplayName("Should read a project with its version straight into a record")
+    void findVersionedById_noEntities() {
+        VersionedProjectRow row = repository.findVersionedById(projectIds.get(1)).orElseThrow();
+
+        assertEquals("Project 1", row.name());
+        assertEquals(0L, row.version());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should read only the version of a project")
+    void findVersionById() {
+        assertEquals(Optional.of(0L), repository.findVersionById(projectIds.get(0)));
+        assertEquals(Optional.empty(), repository.findVersionById(-1L));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should read no vacancies of a closed project")
+    void findResponsesByProjectId_hidesClosedProject() {
+        assertEquals(4, vacancyRepository.findResponsesByProjectId(projectIds.get(1)).size());
+
+        entityManager.getEntityManager().createNativeQuery("UPDATE projects SET status = 'CLOSED' WHERE id = :id")
+                .setParameter("id", projectIds.get(1))
+                .executeUpdate();
+
+        assertEquals(List.of(), vacancyRepository.findResponsesByProjectId(projectIds.get(1)));
+    }
+
+    @Test
+    @DisplayName("Should delete a project only while it has the expected version")
+    void deleteProjectByIdAndVersion() {
+        assertEquals(0, repository.deleteProjectByIdAndVersion(projectIds.get(1), 1L));
+        assertEquals(1, repository.deleteProjectByIdAndVersion(projectIds.get(1), 0L));
+    }
+
+    @Test
+    @DisplayName("Should send exactly the statements of a read and a conditional delete to the database")
+    void sqlStatementStats_countExactStatements() {
+        try (SqlStatementStats stats = SqlStatementStats.start()) {
+            repository.findVersionedById(projectIds.get(0));
+            assertEquals(1, stats.statements());
+
+            repository.deleteProjectByIdAndVersion(projectIds.get(0), 0L);
+            assertEquals(2, stats.statements());
+        }
+    }
+}
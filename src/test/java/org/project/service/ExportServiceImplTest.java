@@ -0,0 +1,91 @@
+package org.project.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.dto.ExportFormat;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.entity.ProjectStatus;
+import org.project.repository.ProjectJpaRepository;
+import org.project.repository.VacancyJpaRepository;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportServiceImpl Unit Tests")
+class ExportServiceImplTest {
+
+    @Mock
+    private ProjectJpaRepository projectRepository;
+
+    @Mock
+    private VacancyJpaRepository vacancyRepository;
+
+    private ExportServiceImpl exportService;
+
+    private ProjectResponseDto project;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportServiceImpl(projectRepository, vacancyRepository, objectMapper);
+
+        project = new ProjectResponseDto(1L, "Project Alpha", "IT", "Mid", "Description", LocalDate.of(2026, 1, 31),
+                ProjectStatus.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line for NDJSON export")
+    void exportProjects_Ndjson() throws Exception {
+        when(projectRepository.streamResponses()).thenReturn(Stream.of(project));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportProjects(ExportFormat.NDJSON, out);
+
+        assertEquals("{\"id\":1,\"name\":\"Project Alpha\",\"field\":\"IT\",\"experience\":\"Mid\","
+                + "\"description\":\"Description\",\"deadline\":\"2026-01-31\",\"status\":\"CLOSED\"}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should write a header and quote values containing separators for CSV export")
+    void exportVacancies_Csv() throws Exception {
+        when(vacancyRepository.streamResponses()).thenReturn(Stream.of(new VacancyResponseDto(
+                101L, "Java Developer", "Backend", null, "Germany", "Spring, \"Boot\"", 1L)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportVacancies(ExportFormat.CSV, out);
+
+        assertEquals("id,name,field,experience,country,description,projectId\r\n"
+                + "101,Java Developer,Backend,,Germany,\"Spring, \"\"Boot\"\"\",1\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should write every row across several chunks")
+    void exportProjects_WritesAllChunks() throws Exception {
+        int rows = ExportServiceImpl.CHUNK_SIZE * 2 + 1;
+        when(projectRepository.streamResponses()).thenReturn(IntStream.range(0, rows).mapToObj(i -> project));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportProjects(ExportFormat.NDJSON, out);
+
+        assertEquals(rows, out.toString(StandardCharsets.UTF_8).lines().count());
+    }
+}
@@ -1,26 +1,51 @@
 package org.project.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.cache.CacheInvalidator;
+import org.project.cache.ReadThroughCache;
+import org.project.dto.MergePatch;
+import org.project.dto.ProjectDetailsResponseDto;
 import org.project.dto.ProjectRequestDto;
+import org.project.dto.ProjectResponseDto;
+import org.project.dto.ProjectUpsertResult;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
 import org.project.entity.Project;
+import org.project.entity.ProjectStatus;
+import org.project.exception.PreconditionFailedException;
 import org.project.exception.ProjectAlreadyExistsException;
+import org.project.exception.ProjectNameMismatchException;
 import org.project.exception.ProjectNotFoundException;
+import org.project.index.VacancyIndex;
+import org.project.lifecycle.DeadlineScheduler;
+import org.project.outbox.ChangeOutbox;
+import org.project.outbox.ChangeType;
+import org.project.repository.ProjectArchiveRepository;
 import org.project.repository.ProjectJpaRepository;
+import org.project.repository.ProjectWriteRepository;
+import org.project.repository.ProjectVacancyRow;
+import org.project.repository.VersionedProjectRow;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.never;
 
@@ -31,10 +56,33 @@ class ProjectServiceImplTest {
     @Mock
     private ProjectJpaRepository projectJpaRepository;
 
+    @Mock
+    private ProjectWriteRepository projectWriteRepository;
+
+    @Mock
+    private ProjectArchiveRepository projectArchiveRepository;
+
+    @Spy
+    private ReadThroughCache<Long, Versioned<ProjectResponseDto>> projectCache = new ReadThroughCache<>(Caffeine.newBuilder().build());
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
+    @Mock
+    private VacancyIndex vacancyIndex;
+
+    @Mock
+    private DeadlineScheduler deadlineScheduler;
+
+    @Mock
+    private ChangeOutbox changeOutbox;
+
     @InjectMocks
     private ProjectServiceImpl projectService;
 
     private Project testProject;
+    private ProjectResponseDto testProjectResponseDto;
+    private VersionedProjectRow testProjectRow;
     private ProjectRequestDto testProjectRequestDto;
 
     @BeforeEach
@@ -49,6 +97,11 @@ class ProjectServiceImplTest {
                 .deadline(LocalDate.now().plusDays(30))
                 .build();
 
+        testProjectResponseDto = new ProjectResponseDto(1L, "Test Project", "IT", "Junior",
+                "Description for test project", testProject.getDeadline(), ProjectStatus.OPEN);
+        testProjectRow = new VersionedProjectRow(1L, "Test Project", "IT", "Junior",
+                "Description for test project", testProject.getDeadline(), ProjectStatus.OPEN, 3L);
+
         testProjectRequestDto = new ProjectRequestDto(
                 "Updated Project",
                 "IT",
@@ -59,112 +112,333 @@ class ProjectServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should retrieve all projects")
-    void getAll_shouldReturnAllProjects() {
-        List<Project> projects = Arrays.asList(testProject, Project.builder().id(2L).name("Project 2").build());
-        when(projectJpaRepository.findAll()).thenReturn(projects);
+    @DisplayName("Should retrieve a page of projects after the given id")
+    void getAll_shouldReturnPageOfProjects() {
+        List<ProjectResponseDto> projects = Arrays.asList(testProjectResponseDto,
+                new ProjectResponseDto(2L, "Project 2", null, null, null, null, ProjectStatus.OPEN));
+        when(projectJpaRepository.findResponsesByIdGreaterThan(0L, Limit.of(10))).thenReturn(projects);
 
-        List<Project> result = projectService.getAll();
+        List<ProjectResponseDto> result = projectService.getAll(0L, 10, false);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(projectJpaRepository, times(1)).findAll();
+        verify(projectJpaRepository, times(1)).findResponsesByIdGreaterThan(0L, Limit.of(10));
+        verify(projectJpaRepository, never()).findAll();
     }
 
     @Test
-    @DisplayName("Should retrieve project by ID when it exists")
+    @DisplayName("Should retrieve project by ID with its version when it exists")
     void getById_shouldReturnProject_whenExists() {
-        when(projectJpaRepository.findById(1L)).thenReturn(Optional.of(testProject));
+        when(projectJpaRepository.findVersionedById(1L)).thenReturn(Optional.of(testProjectRow));
+
+        Versioned<ProjectResponseDto> foundProject = projectService.getById(1L, false);
+
+        assertEquals(testProjectResponseDto, foundProject.value());
+        assertEquals(3L, foundProject.version());
+        verify(projectJpaRepository, times(1)).findVersionedById(1L);
+        verify(projectJpaRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups of the same project from the cache")
+    void getById_shouldUseCache() {
+        when(projectJpaRepository.findVersionedById(1L)).thenReturn(Optional.of(testProjectRow));
 
-        Project foundProject = projectService.getById(1L);
+        projectService.getById(1L, false);
+        Versioned<ProjectResponseDto> foundProject = projectService.getById(1L, false);
 
-        assertNotNull(foundProject);
-        assertEquals(testProject.getId(), foundProject.getId());
-        assertEquals(testProject.getName(), foundProject.getName());
-        verify(projectJpaRepository, times(1)).findById(1L);
+        assertEquals(testProject.getId(), foundProject.value().id());
+        verify(projectJpaRepository, times(1)).findVersionedById(1L);
     }
 
     @Test
     @DisplayName("Should throw ProjectNotFoundException when project ID does not exist")
     void getById_shouldThrowException_whenNotExists() {
-        when(projectJpaRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(projectJpaRepository.findVersionedById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(ProjectNotFoundException.class, () -> projectService.getById(99L, false));
+        verify(projectJpaRepository, times(1)).findVersionedById(99L);
+    }
+
+    @Test
+    @DisplayName("Should look up an archived project only when archived projects are included")
+    void getById_shouldFallBackToArchive_whenIncludeArchived() {
+        when(projectJpaRepository.findVersionedById(7L)).thenReturn(Optional.empty());
+        when(projectArchiveRepository.findById(7L)).thenReturn(Optional.of(new Versioned<>(testProjectResponseDto, 9L)));
+
+        assertThrows(ProjectNotFoundException.class, () -> projectService.getById(7L, false));
+        Versioned<ProjectResponseDto> archived = projectService.getById(7L, true);
+
+        assertEquals(testProjectResponseDto, archived.value());
+        assertEquals(9L, archived.version());
+        verify(projectArchiveRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    @DisplayName("Should page over live and archived projects together when archived projects are included")
+    void getAll_shouldReadArchive_whenIncludeArchived() {
+        when(projectArchiveRepository.findResponsesByIdGreaterThan(0L, 10)).thenReturn(List.of(testProjectResponseDto));
+
+        assertEquals(List.of(testProjectResponseDto), projectService.getAll(0L, 10, true));
+        verify(projectJpaRepository, never()).findResponsesByIdGreaterThan(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer the version from the cached project without a query")
+    void getVersion_shouldUseCachedProject() {
+        when(projectJpaRepository.findVersionedById(1L)).thenReturn(Optional.of(testProjectRow));
+        projectService.getById(1L, false);
+
+        assertEquals(3L, projectService.getVersion(1L, false));
+        verify(projectJpaRepository, never()).findVersionById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should look up only the version when the project is not cached")
+    void getVersion_shouldLookUpVersion_whenNotCached() {
+        when(projectJpaRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        assertEquals(5L, projectService.getVersion(1L, false));
+        verify(projectJpaRepository, never()).findVersionedById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should throw ProjectNotFoundException when looking up the version of a non-existing project")
+    void getVersion_shouldThrowException_whenNotExists() {
+        when(projectJpaRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ProjectNotFoundException.class, () -> projectService.getVersion(99L, false));
+    }
+
+    @Test
+    @DisplayName("Should fold joined rows into one project per id with its vacancies")
+    void getAllWithVacancies_shouldGroupRowsByProject() {
+        when(projectJpaRepository.findVacancyRowsByIdGreaterThan(0L, 10)).thenReturn(List.of(
+                new ProjectVacancyRow(1L, "Project 1", "IT", null, null, null, ProjectStatus.OPEN, 11L, "Java", "IT", null, "UA", null),
+                new ProjectVacancyRow(1L, "Project 1", "IT", null, null, null, ProjectStatus.OPEN, 12L, "Kotlin", "IT", null, "PL", null),
+                new ProjectVacancyRow(2L, "Project 2", "HR", null, null, null, ProjectStatus.CLOSED, null, null, null, null, null, null)));
+
+        List<ProjectDetailsResponseDto> result = projectService.getAllWithVacancies(0L, 10, false);
+
+        assertEquals(2, result.size());
+        assertEquals(List.of(11L, 12L), result.get(0).vacancies().stream().map(VacancyResponseDto::id).toList());
+        assertEquals(1L, result.get(0).vacancies().get(1).projectId());
+        assertTrue(result.get(1).vacancies().isEmpty());
+    }
 
-        assertThrows(ProjectNotFoundException.class, () -> projectService.getById(99L));
-        verify(projectJpaRepository, times(1)).findById(99L);
+    @Test
+    @DisplayName("Should hide the vacancies of a closed project, unless past projects are asked for")
+    void getByIdWithVacancies_shouldHideVacanciesOfClosedProject() {
+        when(projectJpaRepository.findVacancyRowsById(2L)).thenReturn(List.of(
+                new ProjectVacancyRow(2L, "Project 2", "HR", null, null, null, ProjectStatus.CLOSED, 21L, "Recruiter", "HR", null, "UA", null)));
+
+        assertTrue(projectService.getByIdWithVacancies(2L, false).vacancies().isEmpty());
+        assertEquals(List.of(21L), projectService.getByIdWithVacancies(2L, true).vacancies().stream()
+                .map(VacancyResponseDto::id).toList());
+    }
+
+    @Test
+    @DisplayName("Should throw ProjectNotFoundException when loading details of a missing project")
+    void getByIdWithVacancies_shouldThrowException_whenNotExists() {
+        when(projectJpaRepository.findVacancyRowsById(99L)).thenReturn(List.of());
+
+        assertThrows(ProjectNotFoundException.class, () -> projectService.getByIdWithVacancies(99L, false));
     }
 
     @Test
-    @DisplayName("Should create a new project successfully")
+    @DisplayName("Should create a new project with a single insert")
     void create_shouldCreateProject_whenNameDoesNotExist() {
-        Project newProject = Project.builder().name("New Project").build();
-        when(projectJpaRepository.findByName(newProject.getName())).thenReturn(Optional.empty());
-        when(projectJpaRepository.save(any(Project.class))).thenReturn(newProject);
+        when(projectWriteRepository.insertIfAbsent(testProjectRequestDto)).thenReturn(Optional.of(testProjectResponseDto));
 
-        Project createdProject = projectService.create(newProject);
+        ProjectResponseDto createdProject = projectService.create(testProjectRequestDto);
 
-        assertNotNull(createdProject);
-        assertEquals(newProject.getName(), createdProject.getName());
-        verify(projectJpaRepository, times(1)).findByName(newProject.getName());
-        verify(projectJpaRepository, times(1)).save(newProject);
+        assertEquals(testProjectResponseDto, createdProject);
+        verify(projectWriteRepository, times(1)).insertIfAbsent(testProjectRequestDto);
+        verify(deadlineScheduler).schedule(1L, testProject.getDeadline());
+        verify(changeOutbox).project(ChangeType.CREATED, 1L);
+        verifyNoInteractions(projectJpaRepository);
     }
 
     @Test
-    @DisplayName("Should throw ProjectAlreadyExistsException when project with same name exists")
+    @DisplayName("Should throw ProjectAlreadyExistsException when the insert hits an existing name")
     void create_shouldThrowException_whenNameExists() {
-        when(projectJpaRepository.findByName(testProject.getName())).thenReturn(Optional.of(testProject));
+        when(projectWriteRepository.insertIfAbsent(testProjectRequestDto)).thenReturn(Optional.empty());
+
+        assertThrows(ProjectAlreadyExistsException.class, () -> projectService.create(testProjectRequestDto));
+        verifyNoInteractions(projectJpaRepository, changeOutbox);
+    }
+
+    @Test
+    @DisplayName("Should evict the cached project when an upsert overwrites it")
+    void upsertByName_shouldEvictProject_whenProjectExisted() {
+        when(projectWriteRepository.upsertByName(testProjectRequestDto))
+                .thenReturn(new ProjectUpsertResult(testProjectResponseDto, false));
+
+        ProjectUpsertResult result = projectService.upsertByName(testProjectRequestDto.name(), testProjectRequestDto);
+
+        assertFalse(result.created());
+        verify(cacheInvalidator, times(1)).evictProject(1L);
+        verify(changeOutbox).project(ChangeType.UPDATED, 1L);
+    }
 
-        assertThrows(ProjectAlreadyExistsException.class, () -> projectService.create(testProject));
-        verify(projectJpaRepository, times(1)).findByName(testProject.getName());
-        verify(projectJpaRepository, never()).save(any(Project.class)); // Убеждаемся, что save не был вызван
+    @Test
+    @DisplayName("Should not evict anything when an upsert creates the project")
+    void upsertByName_shouldNotEvict_whenProjectCreated() {
+        when(projectWriteRepository.upsertByName(testProjectRequestDto))
+                .thenReturn(new ProjectUpsertResult(testProjectResponseDto, true));
+
+        ProjectUpsertResult result = projectService.upsertByName(testProjectRequestDto.name(), testProjectRequestDto);
+
+        assertTrue(result.created());
+        verifyNoInteractions(cacheInvalidator);
+        verify(changeOutbox).project(ChangeType.CREATED, 1L);
+    }
+
+    @Test
+    @DisplayName("Should reject an upsert whose body names another project")
+    void upsertByName_shouldThrowException_whenNamesDiffer() {
+        assertThrows(ProjectNameMismatchException.class,
+                () -> projectService.upsertByName("Other Project", testProjectRequestDto));
+        verifyNoInteractions(projectWriteRepository);
     }
 
     @Test
-    @DisplayName("Should update an existing project successfully")
+    @DisplayName("Should update an existing project with a single statement")
     void update_shouldUpdateProject_whenProjectExists() {
-        when(projectJpaRepository.findById(1L)).thenReturn(Optional.of(testProject));
-        when(projectJpaRepository.save(any(Project.class))).thenReturn(testProject); // save вернет обновленный объект
+        Versioned<ProjectResponseDto> stored = new Versioned<>(new ProjectResponseDto(1L, testProjectRequestDto.name(),
+                testProjectRequestDto.field(), testProjectRequestDto.experience(), testProjectRequestDto.description(),
+                testProjectRequestDto.deadline(), ProjectStatus.OPEN), 4L);
+        when(projectWriteRepository.update(1L, testProjectRequestDto, null)).thenReturn(Optional.of(stored));
 
-        Project updatedProject = projectService.update(1L, testProjectRequestDto);
+        Versioned<ProjectResponseDto> updatedProject = projectService.update(1L, testProjectRequestDto, null);
 
-        assertNotNull(updatedProject);
-        assertEquals(testProjectRequestDto.name(), updatedProject.getName());
-        assertEquals(testProjectRequestDto.field(), updatedProject.getField());
-        assertEquals(testProjectRequestDto.description(), updatedProject.getDescription());
-        assertEquals(testProjectRequestDto.deadline(), updatedProject.getDeadline());
+        assertEquals(stored, updatedProject);
+        verify(projectJpaRepository, never()).findById(anyLong());
+        verify(cacheInvalidator, times(1)).evictProject(1L);
+        verify(changeOutbox).project(ChangeType.UPDATED, 1L);
+    }
+
+    @Test
+    @DisplayName("Should record the close and take the vacancies out of the index when the update closes the project")
+    void update_shouldHideVacancies_whenDeadlineMovedIntoThePast() {
+        LocalDate past = LocalDate.now().minusDays(1);
+        Versioned<ProjectResponseDto> stored = new Versioned<>(new ProjectResponseDto(1L, testProjectRequestDto.name(),
+                testProjectRequestDto.field(), testProjectRequestDto.experience(), testProjectRequestDto.description(),
+                past, ProjectStatus.CLOSED), 5L);
+        when(projectWriteRepository.update(1L, testProjectRequestDto, null)).thenReturn(Optional.of(stored));
+
+        projectService.update(1L, testProjectRequestDto, null);
+
+        verify(deadlineScheduler).cancel(1L);
+        verify(deadlineScheduler, never()).schedule(anyLong(), any());
+        verify(cacheInvalidator).evictProjectVacancies(1L);
+        verify(vacancyIndex).removeProject(1L);
+        verify(changeOutbox).project(ChangeType.UPDATED, 1L);
+        verify(changeOutbox).project(ChangeType.CLOSED, 1L);
+    }
+
+    @Test
+    @DisplayName("Should throw ProjectAlreadyExistsException when renaming to an existing name")
+    void update_shouldThrowException_whenNameTaken() {
+        when(projectWriteRepository.update(1L, testProjectRequestDto, null))
+                .thenThrow(new DataIntegrityViolationException("uk_projects_name"));
 
-        verify(projectJpaRepository, times(1)).findById(1L);
-        verify(projectJpaRepository, times(1)).save(testProject); // Убеждаемся, что save был вызван
+        assertThrows(ProjectAlreadyExistsException.class, () -> projectService.update(1L, testProjectRequestDto, null));
+        verify(cacheInvalidator, never()).evictProject(anyLong());
     }
 
     @Test
     @DisplayName("Should throw ProjectNotFoundException when updating a non-existing project")
     void update_shouldThrowException_whenProjectNotExists() {
-        when(projectJpaRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(projectWriteRepository.update(99L, testProjectRequestDto, null)).thenReturn(Optional.empty());
 
-        assertThrows(ProjectNotFoundException.class, () -> projectService.update(99L, testProjectRequestDto));
-        verify(projectJpaRepository, times(1)).findById(99L);
-        verify(projectJpaRepository, never()).save(any(Project.class));
+        assertThrows(ProjectNotFoundException.class, () -> projectService.update(99L, testProjectRequestDto, null));
+        verify(projectJpaRepository, never()).findVersionById(anyLong());
+        verify(cacheInvalidator, never()).evictProject(anyLong());
     }
 
     @Test
-    @DisplayName("Should delete a project by ID successfully")
+    @DisplayName("Should throw PreconditionFailedException when the project changed since the expected version")
+    void update_shouldThrowException_whenVersionDiffers() {
+        when(projectWriteRepository.update(1L, testProjectRequestDto, 2L)).thenReturn(Optional.empty());
+        when(projectJpaRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertThrows(PreconditionFailedException.class, () -> projectService.update(1L, testProjectRequestDto, 2L));
+        verify(cacheInvalidator, never()).evictProject(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should throw ProjectNotFoundException when a conditional update finds no project")
+    void update_shouldThrowNotFound_whenConditionalAndProjectNotExists() {
+        when(projectWriteRepository.update(99L, testProjectRequestDto, 2L)).thenReturn(Optional.empty());
+        when(projectJpaRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ProjectNotFoundException.class, () -> projectService.update(99L, testProjectRequestDto, 2L));
+    }
+
+    @Test
+    @DisplayName("Should patch a project and evict it from the cache")
+    void patch_shouldPatchProject_whenProjectExists() {
+        MergePatch patch = new MergePatch(Map.of("deadline", LocalDate.now().plusDays(90)));
+        Versioned<ProjectResponseDto> stored = new Versioned<>(testProjectResponseDto, 4L);
+        when(projectWriteRepository.patch(1L, patch, 3L)).thenReturn(Optional.of(stored));
+
+        assertEquals(stored, projectService.patch(1L, patch, 3L));
+        verify(cacheInvalidator, times(1)).evictProject(1L);
+        verify(changeOutbox).project(ChangeType.UPDATED, 1L);
+    }
+
+    @Test
+    @DisplayName("Should throw ProjectNotFoundException when patching a non-existing project")
+    void patch_shouldThrowException_whenProjectNotExists() {
+        MergePatch patch = new MergePatch(Map.of("field", "Design"));
+        when(projectWriteRepository.patch(99L, patch, null)).thenReturn(Optional.empty());
+
+        assertThrows(ProjectNotFoundException.class, () -> projectService.patch(99L, patch, null));
+        verifyNoInteractions(cacheInvalidator, changeOutbox);
+    }
+
+    @Test
+    @DisplayName("Should delete a project by ID with a single statement")
     void delete_shouldDeleteProject_whenExists() {
-        when(projectJpaRepository.findById(1L)).thenReturn(Optional.of(testProject));
-        doNothing().when(projectJpaRepository).deleteById(1L); // Для void методов используем doNothing()
+        when(projectJpaRepository.deleteProjectById(1L)).thenReturn(1);
+
+        projectService.delete(1L, null);
+
+        verify(projectJpaRepository, never()).findById(anyLong());
+        verify(cacheInvalidator, times(1)).evictProject(1L);
+        verify(cacheInvalidator, times(1)).evictProjectVacancies(1L);
+        verify(vacancyIndex, times(1)).removeProject(1L);
+        verify(changeOutbox).project(ChangeType.DELETED, 1L);
+    }
 
-        projectService.delete(1L);
+    @Test
+    @DisplayName("Should delete a project only if it still has the expected version")
+    void delete_shouldDeleteProject_whenVersionMatches() {
+        when(projectJpaRepository.deleteProjectByIdAndVersion(1L, 3L)).thenReturn(1);
+
+        projectService.delete(1L, 3L);
+
+        verify(projectJpaRepository, never()).deleteProjectById(anyLong());
+        verify(vacancyIndex, times(1)).removeProject(1L);
+    }
+
+    @Test
+    @DisplayName("Should throw PreconditionFailedException when deleting a project that changed")
+    void delete_shouldThrowException_whenVersionDiffers() {
+        when(projectJpaRepository.deleteProjectByIdAndVersion(1L, 2L)).thenReturn(0);
+        when(projectJpaRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
 
-        verify(projectJpaRepository, times(1)).findById(1L);
-        verify(projectJpaRepository, times(1)).deleteById(1L);
+        assertThrows(PreconditionFailedException.class, () -> projectService.delete(1L, 2L));
+        verifyNoInteractions(cacheInvalidator, vacancyIndex, changeOutbox);
     }
 
     @Test
     @DisplayName("Should throw ProjectNotFoundException when deleting a non-existing project")
     void delete_shouldThrowException_whenNotExists() {
-        when(projectJpaRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(projectJpaRepository.deleteProjectById(99L)).thenReturn(0);
 
-        assertThrows(ProjectNotFoundException.class, () -> projectService.delete(99L));
-        verify(projectJpaRepository, times(1)).findById(99L);
-        verify(projectJpaRepository, never()).deleteById(anyLong());
+        assertThrows(ProjectNotFoundException.class, () -> projectService.delete(99L, null));
+        verifyNoInteractions(cacheInvalidator, vacancyIndex, changeOutbox);
     }
 }
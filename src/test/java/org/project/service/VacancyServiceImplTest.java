@@ -1,23 +1,45 @@
 package org.project.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.cache.CacheInvalidator;
+import org.project.cache.ReadThroughCache;
+import org.project.dto.MergePatch;
+import org.project.dto.VacancyAttributeFilter;
+import org.project.dto.VacancyBatchUpdateItemDto;
+import org.project.dto.VacancyLookupResponseDto;
 import org.project.dto.VacancyRequestDto;
+import org.project.dto.VacancyResponseDto;
+import org.project.dto.Versioned;
 import org.project.entity.Project;
+import org.project.entity.ProjectStatus;
 import org.project.entity.Vacancy;
+import org.project.exception.PreconditionFailedException;
 import org.project.exception.ProjectNotFoundException;
 import org.project.exception.VacancyNotFoundException;
+import org.project.index.VacancyIndex;
+import org.project.index.VacancyIndexRow;
+import org.project.outbox.ChangeOutbox;
+import org.project.outbox.VacancyStreamHub;
+import org.project.outbox.ChangeType;
 import org.project.repository.ProjectJpaRepository;
 import org.project.repository.VacancyJpaRepository;
+import org.project.repository.VacancyWriteRepository;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +54,24 @@ class VacancyServiceImplTest {
     @Mock
     private ProjectJpaRepository projectRepository;
 
+    @Mock
+    private VacancyWriteRepository vacancyWriteRepository;
+
+    @Spy
+    private ReadThroughCache<Long, Versioned<List<VacancyResponseDto>>> projectVacanciesCache = new ReadThroughCache<>(Caffeine.newBuilder().build());
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
+    @Mock
+    private VacancyIndex vacancyIndex;
+
+    @Mock
+    private ChangeOutbox changeOutbox;
+
+    @Mock
+    private VacancyStreamHub vacancyStreamHub;
+
     @InjectMocks
     private VacancyServiceImpl vacancyService;
 
@@ -81,13 +121,42 @@ class VacancyServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should throw ProjectNotFoundException when no vacancies found for project ID")
+    @DisplayName("Should throw ProjectNotFoundException without reading vacancies when the project does not exist")
     void getVacanciesByProjectId_ProjectNotFound() {
-        when(projectRepository.existsById(99L)).thenReturn(false);
+        when(projectRepository.findVersionById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ProjectNotFoundException.class, () -> vacancyService.getByProjectId(99L));
-        verify(projectRepository, times(1)).existsById(99L);
-        verify(vacancyRepository, never()).findByProjectId(anyLong());
+        verify(projectRepository, times(1)).findVersionById(99L);
+        verify(vacancyRepository, never()).findResponsesByProjectId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should answer the project version from the cached vacancies without a query")
+    void getProjectVersion_UsesCachedVacancies() {
+        when(projectRepository.findVersionById(1L)).thenReturn(Optional.of(7L));
+        when(vacancyRepository.findResponsesByProjectId(1L)).thenReturn(List.of());
+        vacancyService.getByProjectId(1L);
+
+        assertEquals(7L, vacancyService.getProjectVersion(1L));
+        verify(projectRepository, times(1)).findVersionById(1L);
+    }
+
+    @Test
+    @DisplayName("Should look up only the project version when the vacancies are not cached")
+    void getProjectVersion_NotCached() {
+        when(projectRepository.findVersionById(1L)).thenReturn(Optional.of(7L));
+
+        assertEquals(7L, vacancyService.getProjectVersion(1L));
+        verify(vacancyRepository, never()).findResponsesByProjectId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not open a vacancy stream for a project that does not exist")
+    void streamByProjectId_ProjectNotFound() {
+        when(projectRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ProjectNotFoundException.class, () -> vacancyService.streamByProjectId(99L));
+        verifyNoInteractions(vacancyStreamHub);
     }
 
 
@@ -103,6 +172,20 @@ class VacancyServiceImplTest {
         assertEquals(project, addedVacancy.getProject());
         verify(projectRepository, times(1)).findById(1L);
         verify(vacancyRepository, times(1)).save(any(Vacancy.class));
+        verify(changeOutbox).vacancy(ChangeType.CREATED, 1L, 101L);
+    }
+
+    @Test
+    @DisplayName("Should keep a vacancy added to a closed project out of the index")
+    void addVacancyToProject_ClosedProject() {
+        project.setStatus(ProjectStatus.CLOSED);
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(vacancyRepository.save(any(Vacancy.class))).thenReturn(vacancy1);
+
+        vacancyService.addVacancyToProject(vacancyRequestDto, 1L);
+
+        verify(cacheInvalidator).evictProjectVacancies(1L);
+        verifyNoInteractions(vacancyIndex);
     }
 
     @Test
@@ -116,49 +199,172 @@ class VacancyServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should update an existing vacancy")
+    @DisplayName("Should update an existing vacancy with a single statement")
     void updateVacancy() {
-        when(vacancyRepository.findById(101L)).thenReturn(Optional.of(vacancy1));
-        when(vacancyRepository.save(any(Vacancy.class))).thenReturn(vacancy1);
+        VacancyResponseDto stored = new VacancyResponseDto(101L, vacancyRequestDto.name(), vacancyRequestDto.field(),
+                vacancyRequestDto.experience(), vacancyRequestDto.country(), vacancyRequestDto.description(), 1L);
+        when(vacancyWriteRepository.update(101L, vacancyRequestDto, null)).thenReturn(Optional.of(new Versioned<>(stored, 2L)));
 
-        Vacancy updatedVacancy = vacancyService.updateVacancy(101L, vacancyRequestDto);
+        Versioned<VacancyResponseDto> updatedVacancy = vacancyService.updateVacancy(101L, vacancyRequestDto, null);
 
-        assertNotNull(updatedVacancy);
-        assertEquals(vacancyRequestDto.name(), updatedVacancy.getName());
-        assertEquals(vacancyRequestDto.description(), updatedVacancy.getDescription());
-        verify(vacancyRepository, times(1)).findById(101L);
-        verify(vacancyRepository, times(1)).save(vacancy1);
+        assertEquals(stored, updatedVacancy.value());
+        assertEquals(2L, updatedVacancy.version());
+        verify(vacancyRepository, never()).findById(anyLong());
+        verify(cacheInvalidator, times(1)).evictProjectVacancies(1L);
+        verify(vacancyIndex, times(1)).replaceRows(List.of(VacancyIndexRow.of(stored)));
+        verify(changeOutbox).vacancy(ChangeType.UPDATED, 1L, 101L);
     }
 
     @Test
     @DisplayName("Should throw VacancyNotFoundException when updating a non-existent vacancy")
     void updateVacancy_NotFound() {
-        when(vacancyRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(vacancyWriteRepository.update(999L, vacancyRequestDto, null)).thenReturn(Optional.empty());
 
-        assertThrows(VacancyNotFoundException.class, () -> vacancyService.updateVacancy(999L, vacancyRequestDto));
-        verify(vacancyRepository, times(1)).findById(999L);
-        verify(vacancyRepository, never()).save(any(Vacancy.class));
+        assertThrows(VacancyNotFoundException.class, () -> vacancyService.updateVacancy(999L, vacancyRequestDto, null));
+        verify(vacancyWriteRepository, never()).findVersion(anyLong());
+        verifyNoInteractions(cacheInvalidator, vacancyIndex, changeOutbox);
+    }
+
+    @Test
+    @DisplayName("Should throw PreconditionFailedException when the vacancy changed since the expected version")
+    void updateVacancy_VersionDiffers() {
+        when(vacancyWriteRepository.update(101L, vacancyRequestDto, 1L)).thenReturn(Optional.empty());
+        when(vacancyWriteRepository.findVersion(101L)).thenReturn(Optional.of(2L));
+
+        assertThrows(PreconditionFailedException.class, () -> vacancyService.updateVacancy(101L, vacancyRequestDto, 1L));
+        verifyNoInteractions(cacheInvalidator, vacancyIndex, changeOutbox);
     }
 
     @Test
-    @DisplayName("Should delete an existing vacancy")
+    @DisplayName("Should patch a vacancy and refresh the cache and the index")
+    void patchVacancy() {
+        MergePatch patch = new MergePatch(Map.of("country", "Poland"));
+        VacancyResponseDto stored = new VacancyResponseDto(101L, "Java Developer", "Backend", "3 years", "Poland", "Desc", 1L);
+        when(vacancyWriteRepository.patch(101L, patch, 1L)).thenReturn(Optional.of(new Versioned<>(stored, 2L)));
+
+        assertEquals(stored, vacancyService.patchVacancy(101L, patch, 1L).value());
+        verify(cacheInvalidator, times(1)).evictProjectVacancies(1L);
+        verify(vacancyIndex, times(1)).replaceRows(List.of(VacancyIndexRow.of(stored)));
+        verify(changeOutbox).vacancy(ChangeType.UPDATED, 1L, 101L);
+    }
+
+    @Test
+    @DisplayName("Should delete an existing vacancy with a single statement")
     void deleteVacancy() {
-        when(vacancyRepository.existsById(101L)).thenReturn(true);
-        doNothing().when(vacancyRepository).deleteById(101L);
+        when(vacancyWriteRepository.delete(101L, null)).thenReturn(Optional.of(1L));
 
-        vacancyService.deleteVacancy(101L);
+        vacancyService.deleteVacancy(101L, null);
 
-        verify(vacancyRepository, times(1)).existsById(101L);
-        verify(vacancyRepository, times(1)).deleteById(101L);
+        verify(vacancyRepository, never()).findById(anyLong());
+        verify(cacheInvalidator, times(1)).evictProjectVacancies(1L);
+        verify(vacancyIndex, times(1)).remove(1L, List.of(101L));
+        verify(changeOutbox).vacancy(ChangeType.DELETED, 1L, 101L);
     }
 
     @Test
     @DisplayName("Should throw EntityNotFoundException when deleting a non-existent vacancy")
     void deleteVacancy_NotFound() {
-        when(vacancyRepository.existsById(anyLong())).thenReturn(false);
+        when(vacancyWriteRepository.delete(999L, 3L)).thenReturn(Optional.empty());
+        when(vacancyWriteRepository.findVersion(999L)).thenReturn(Optional.empty());
+
+        assertThrows(VacancyNotFoundException.class, () -> vacancyService.deleteVacancy(999L, 3L));
+        verifyNoInteractions(cacheInvalidator, vacancyIndex, changeOutbox);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated vacancy lookups of a project from the cache")
+    void getVacanciesByProjectId_Cached() {
+        when(projectRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+        when(vacancyRepository.findResponsesByProjectId(1L)).thenReturn(List.of(
+                new VacancyResponseDto(101L, "Java Developer", "Backend", null, null, null, 1L),
+                new VacancyResponseDto(102L, "Frontend Developer", "Frontend", null, null, null, 1L)));
+
+        vacancyService.getByProjectId(1L);
+        Versioned<List<VacancyResponseDto>> vacancies = vacancyService.getByProjectId(1L);
+
+        assertEquals(2, vacancies.value().size());
+        assertEquals(4L, vacancies.version());
+        verify(projectRepository, times(1)).findVersionById(1L);
+        verify(vacancyRepository, times(1)).findResponsesByProjectId(1L);
+    }
+
+    @Test
+    @DisplayName("Should invalidate the vacancies of the project when a vacancy is added")
+    void addVacancyToProject_EvictsCache() {
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(vacancyRepository.save(any(Vacancy.class))).thenReturn(vacancy1);
+
+        vacancyService.addVacancyToProject(vacancyRequestDto, 1L);
+
+        verify(cacheInvalidator, times(1)).evictProjectVacancies(1L);
+    }
+
+    @Test
+    @DisplayName("Should resolve the project once and save the whole batch")
+    void addVacanciesToProject() {
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(vacancyRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Vacancy> created = vacancyService.addVacanciesToProject(List.of(vacancyRequestDto, vacancyRequestDto), 1L);
+
+        assertEquals(2, created.size());
+        assertTrue(created.stream().allMatch(vacancy -> vacancy.getProject() == project));
+        verify(projectRepository, times(1)).findById(1L);
+        verify(vacancyRepository, times(1)).saveAll(anyList());
+        verify(vacancyRepository, never()).save(any(Vacancy.class));
+        verify(vacancyIndex, times(1)).put(created);
+        verify(changeOutbox).vacancies(eq(ChangeType.CREATED), eq(1L), argThat(ids -> ids.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should update only the vacancies that belong to the project")
+    void updateVacancies() {
+        List<VacancyBatchUpdateItemDto> items = List.of(
+                new VacancyBatchUpdateItemDto(101L, vacancyRequestDto),
+                new VacancyBatchUpdateItemDto(999L, vacancyRequestDto));
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(vacancyRepository.findByProjectIdAndIdIn(eq(1L), anyCollection())).thenReturn(List.of(vacancy1));
+        when(vacancyRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Vacancy> updated = vacancyService.updateVacancies(1L, items);
+
+        assertEquals(1, updated.size());
+        assertEquals(vacancyRequestDto.name(), updated.get(0).getName());
+        verify(vacancyRepository, times(1)).findByProjectIdAndIdIn(eq(1L), anyCollection());
+        verify(changeOutbox).vacancies(ChangeType.UPDATED, 1L, List.of(101L));
+    }
+
+    @Test
+    @DisplayName("Should delete existing vacancies of the project with one statement")
+    void deleteVacancies() {
+        when(vacancyWriteRepository.deleteByProjectId(eq(1L), anyCollection())).thenReturn(List.of(101L));
+
+        Set<Long> deleted = vacancyService.deleteVacancies(1L, List.of(101L, 999L));
+
+        assertEquals(Set.of(101L), deleted);
+        verify(projectRepository, never()).existsById(anyLong());
+        verify(vacancyIndex, times(1)).remove(1L, Set.of(101L));
+        verify(changeOutbox).vacancies(ChangeType.DELETED, 1L, Set.of(101L));
+    }
+
+    @Test
+    @DisplayName("Should throw ProjectNotFoundException for a batch against a non-existent project")
+    void deleteVacancies_ProjectNotFound() {
+        when(vacancyWriteRepository.deleteByProjectId(eq(99L), anyCollection())).thenReturn(List.of());
+        when(projectRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ProjectNotFoundException.class, () -> vacancyService.deleteVacancies(99L, List.of(101L)));
+        verifyNoInteractions(cacheInvalidator, vacancyIndex, changeOutbox);
+    }
+
+    @Test
+    @DisplayName("Should answer attribute lookups from the in-memory index")
+    void lookup() {
+        VacancyAttributeFilter filter = new VacancyAttributeFilter(List.of("Backend"), null, null);
+        VacancyLookupResponseDto result = new VacancyLookupResponseDto(1, new long[]{101L});
+        when(vacancyIndex.query(filter, 10)).thenReturn(result);
 
-        assertThrows(VacancyNotFoundException.class, () -> vacancyService.deleteVacancy(999L));
-        verify(vacancyRepository, times(1)).existsById(999L);
-        verify(vacancyRepository, never()).deleteById(anyLong());
+        assertSame(result, vacancyService.lookup(filter, 10));
+        verifyNoInteractions(vacancyRepository);
     }
-}
\ No newline at end of file
+}